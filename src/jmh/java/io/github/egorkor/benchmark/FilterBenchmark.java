@@ -0,0 +1,90 @@
+package io.github.egorkor.benchmark;
+
+import io.github.egorkor.model.TestEntity;
+import io.github.egorkor.webutils.queryparam.Filter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк построения условий фильтрации: Criteria API предикат
+ * и нативный SQL с параметрами для 1, 5 и 20 условий.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+    /**
+     * Различные пары поле/операция, первые conditions условий составляют фильтр
+     */
+    private static final List<String> CRITERIA_CONDITIONS = List.of(
+            "id:>:10",
+            "name:like:some name",
+            "nullableProperty:<=:5",
+            "flag:is:true",
+            "id:in:1;2;3",
+            "isDeleted:is:null",
+            "code:startswith:AB",
+            "amount:between:10.5;99.5",
+            "quantity:>=:3",
+            "status:in:TAG1;TAG2",
+            "createdAt:>=:2025-01-01T00:00",
+            "externalId:=:4f1c2a8e-3b1d-4d6e-9a7b-0c5e2f1d3a4b",
+            "name:eqi:egor",
+            "nullableProperty:!=:7",
+            "code:endswith:YZ",
+            "amount:<:1000",
+            "quantity:between:1;10",
+            "createdAt:<:2025-12-31T23:59",
+            "id:<=:100000",
+            "name:ilike:EG"
+    );
+
+    @Param({"1", "5", "20"})
+    private int conditions;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private CriteriaBuilder cb;
+    private List<String> filter;
+
+    @Setup
+    public void setup() {
+        emf = Persistence.createEntityManagerFactory("test-pu");
+        em = emf.createEntityManager();
+        cb = em.getCriteriaBuilder();
+        filter = new ArrayList<>(CRITERIA_CONDITIONS.subList(0, conditions));
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Benchmark
+    public Predicate toPredicate() {
+        Filter<TestEntity> entityFilter = new Filter<>(new ArrayList<>(filter), TestEntity.class);
+        CriteriaQuery<TestEntity> cq = cb.createQuery(TestEntity.class);
+        return entityFilter.toPredicate(cq.from(TestEntity.class), cq, cb);
+    }
+
+    @Benchmark
+    public void toSQLFilter(Blackhole blackhole) {
+        Filter<TestEntity> entityFilter = new Filter<>(new ArrayList<>(filter), TestEntity.class);
+        blackhole.consume(entityFilter.toSQLFilter());
+        blackhole.consume(entityFilter.getFilterValues());
+    }
+}
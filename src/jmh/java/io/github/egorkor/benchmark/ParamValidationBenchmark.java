@@ -0,0 +1,43 @@
+package io.github.egorkor.benchmark;
+
+import io.github.egorkor.model.TestEntity;
+import io.github.egorkor.model.TestNestedEntity;
+import io.github.egorkor.params.TestEntityFilter;
+import io.github.egorkor.webutils.queryparam.utils.FieldTypeUtils;
+import io.github.egorkor.webutils.queryparam.utils.ParamValidationUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк проверки допустимых параметров запроса по классу-наследнику фильтра
+ * и поиска полей сущности через {@link FieldTypeUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParamValidationBenchmark {
+    private final List<String> params = List.of("id:=:1", "name:like:some name");
+
+    @Benchmark
+    public List<String> validateAllowedParams() {
+        ParamValidationUtils.validateAllowedParams(params, TestEntityFilter.class,
+                ParamValidationUtils.ParamType.FILTER, s -> s.split(":", 3), List.of());
+        return params;
+    }
+
+    @Benchmark
+    public Field getField() {
+        return FieldTypeUtils.getField(TestEntity.class, "name");
+    }
+
+    @Benchmark
+    public Field getNestedField() {
+        return FieldTypeUtils.getField(TestNestedEntity.class, "parent.id");
+    }
+}
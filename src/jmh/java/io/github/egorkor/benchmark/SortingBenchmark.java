@@ -0,0 +1,63 @@
+package io.github.egorkor.benchmark;
+
+import io.github.egorkor.model.TestEntity;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк преобразования параметров сортировки в Spring Data {@link Sort}
+ * и список Criteria API {@link Order}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortingBenchmark {
+    private static final List<String> SORT_FIELDS = List.of("id:asc", "name:desc", "nullableProperty:asc");
+
+    @Param({"1", "3"})
+    private int fields;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private CriteriaBuilder cb;
+    private List<String> sort;
+
+    @Setup
+    public void setup() {
+        emf = Persistence.createEntityManagerFactory("test-pu");
+        em = emf.createEntityManager();
+        cb = em.getCriteriaBuilder();
+        sort = SORT_FIELDS.subList(0, fields);
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Benchmark
+    public Sort toJpaSort() {
+        return new Sorting(new ArrayList<>(sort)).toJpaSort();
+    }
+
+    @Benchmark
+    public List<Order> toCriteriaOrderList() {
+        CriteriaQuery<TestEntity> cq = cb.createQuery(TestEntity.class);
+        return new Sorting(new ArrayList<>(sort)).toCriteriaOrderList(cq.from(TestEntity.class), cb);
+    }
+}
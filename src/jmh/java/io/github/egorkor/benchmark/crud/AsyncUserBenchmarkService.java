@@ -0,0 +1,27 @@
+package io.github.egorkor.benchmark.crud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.repository.UserRepository;
+import io.github.egorkor.webutils.template.jpa.JpaAsyncCrudService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class AsyncUserBenchmarkService extends JpaAsyncCrudService<User, Long> {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AsyncUserBenchmarkService(UserRepository repository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     TransactionTemplate transactionTemplate,
+                                     ThreadPoolTaskExecutor executor) {
+        super(repository, repository, eventPublisher, transactionTemplate, executor);
+    }
+
+    @Override
+    public EntityManager getPersistenceAnnotatedEntityManager() {
+        return entityManager;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.egorkor.benchmark.crud;
+
+import io.github.egorkor.model.Order;
+import io.github.egorkor.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Дополнительные бины контекста бенчмарка. Класс намеренно не помечен
+ * {@code @Configuration}, чтобы не попадать в сканирование компонентов тестового приложения
+ * и регистрируется только явно в {@link CrudBenchmarkContext}.
+ */
+public class CrudBenchmarkBeans {
+
+    @Bean
+    public ThreadPoolTaskExecutor benchmarkExecutor(@Value("${benchmark.async.pool-size}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("crud-benchmark-");
+        return executor;
+    }
+
+    @Bean
+    public OrderBenchmarkService orderBenchmarkService(EntityManagerFactory entityManagerFactory,
+                                                       ApplicationEventPublisher eventPublisher,
+                                                       TransactionTemplate transactionTemplate) {
+        SimpleJpaRepository<Order, Long> repository = new SimpleJpaRepository<>(Order.class,
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+        return new OrderBenchmarkService(repository, eventPublisher, transactionTemplate);
+    }
+
+    @Bean
+    public AsyncUserBenchmarkService asyncUserBenchmarkService(UserRepository userRepository,
+                                                               ApplicationEventPublisher eventPublisher,
+                                                               TransactionTemplate transactionTemplate,
+                                                               ThreadPoolTaskExecutor benchmarkExecutor) {
+        return new AsyncUserBenchmarkService(userRepository, eventPublisher, transactionTemplate, benchmarkExecutor);
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.egorkor.benchmark.crud;
+
+import io.github.egorkor.TestApplication;
+import io.github.egorkor.model.Order;
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.impl.UserBatchServiceImpl;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.Filter;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Контекст Spring приложения на встроенной H2 для макро-бенчмарков {@code JpaCrudService}.
+ * <p>
+ * При создании поднимает тестовое приложение, заполняет таблицы пользователей и заказов
+ * заданным числом строк и помечает первые {@value #SOFT_DELETED_PERCENT}% пользователей
+ * мягко удалёнными. Статистика Hibernate включена, чтобы бенчмарки могли считать SQL выражения.
+ */
+@Getter
+public class CrudBenchmarkContext implements AutoCloseable {
+    public static final int SOFT_DELETED_PERCENT = 10;
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    private final int rows;
+    private final ConfigurableApplicationContext applicationContext;
+    private final UserServiceImpl userService;
+    private final UserBatchServiceImpl userBatchService;
+    private final OrderBenchmarkService orderService;
+    private final AsyncUserBenchmarkService asyncUserService;
+    private final Statistics statistics;
+
+    public CrudBenchmarkContext(int rows, int asyncPoolSize) {
+        this.rows = rows;
+        this.applicationContext = new SpringApplicationBuilder(TestApplication.class, CrudBenchmarkBeans.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:crud-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "spring.jpa.properties.hibernate.order_updates=true",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=OFF",
+                        "benchmark.async.pool-size=" + asyncPoolSize
+                )
+                .run();
+        this.userService = applicationContext.getBean(UserServiceImpl.class);
+        this.userBatchService = applicationContext.getBean(UserBatchServiceImpl.class);
+        this.orderService = applicationContext.getBean(OrderBenchmarkService.class);
+        this.asyncUserService = applicationContext.getBean(AsyncUserBenchmarkService.class);
+        this.statistics = applicationContext.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        seed();
+        statistics.clear();
+    }
+
+    /**
+     * Первый идентификатор пользователя, не помеченного мягко удалённым.
+     */
+    public long firstActiveId() {
+        return softDeletedCount() + 1;
+    }
+
+    /**
+     * Первый свободный идентификатор после заполненных строк.
+     */
+    public long firstFreeId() {
+        return rows + 1L;
+    }
+
+    private long softDeletedCount() {
+        return (long) rows * SOFT_DELETED_PERCENT / 100;
+    }
+
+    private void seed() {
+        for (int start = 1; start <= rows; start += SEED_CHUNK_SIZE) {
+            int count = Math.min(SEED_CHUNK_SIZE, rows - start + 1);
+            List<User> users = User.generateUsers(start, count);
+            userBatchService.batchUpsert(users);
+            List<Order> orders = new ArrayList<>(count);
+            for (User user : users) {
+                orders.add(Order.builder()
+                        .id(user.getId())
+                        .name("order-" + user.getId())
+                        .cost((double) (user.getId() % 1000))
+                        .user(user)
+                        .build());
+            }
+            orderService.batchUpsert(orders);
+        }
+        if (softDeletedCount() > 0) {
+            userService.updateByFilter(Filter.builder()
+                            .lessOrEquals("id", String.valueOf(softDeletedCount()))
+                            .build(),
+                    Map.of("deletedAt", LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public void close() {
+        applicationContext.close();
+    }
+}
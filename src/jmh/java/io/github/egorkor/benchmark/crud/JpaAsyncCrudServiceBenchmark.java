@@ -0,0 +1,92 @@
+package io.github.egorkor.benchmark.crud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Сквозной бенчмарк асинхронных операций {@code JpaAsyncCrudService} при N одновременных вызовах.
+ * Одна операция бенчмарка - пачка из {@code callers} асинхронных вызовов с ожиданием их завершения,
+ * пул исполнителя сервиса имеет размер {@code callers}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class JpaAsyncCrudServiceBenchmark {
+    static final int PAGE_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000", "100000", "1000000"})
+        int rows;
+
+        @Param({"1", "8", "32"})
+        int callers;
+
+        CrudBenchmarkContext context;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = new CrudBenchmarkContext(rows, callers);
+            random = new SplittableRandom(42);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        long randomActiveId() {
+            return random.nextLong(context.firstActiveId(), context.firstFreeId());
+        }
+
+        void runConcurrently(SqlStatementCounters counters, Function<Long, CompletableFuture<?>> call) {
+            long[] ids = new long[callers];
+            for (int i = 0; i < callers; i++) {
+                ids[i] = randomActiveId();
+            }
+            counters.begin(context.getStatistics());
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[callers];
+            for (int i = 0; i < callers; i++) {
+                futures[i] = call.apply(ids[i]);
+            }
+            CompletableFuture.allOf(futures).join();
+            counters.end(context.getStatistics());
+        }
+    }
+
+    @Benchmark
+    public void getAllAsync(Data data, SqlStatementCounters counters) {
+        Sorting sorting = Sorting.builder().asc("email").build();
+        data.runConcurrently(counters, id -> data.context.getAsyncUserService().getAllAsync(
+                Filter.builder().like("firstName", "a").greater("id", String.valueOf(id - 1000)).build(),
+                sorting,
+                new Pagination(PAGE_SIZE, 0)));
+    }
+
+    @Benchmark
+    public void getByIdAsync(Data data, SqlStatementCounters counters) {
+        data.runConcurrently(counters, id -> data.context.getAsyncUserService().getByIdAsync(id));
+    }
+
+    @Benchmark
+    public void patchUpdateAsync(Data data, SqlStatementCounters counters) {
+        data.runConcurrently(counters, id -> {
+            User patch = new User();
+            patch.setId(id);
+            patch.setOrders(null);
+            patch.setFirstName("patched-" + id);
+            return data.context.getAsyncUserService().patchUpdateAsync(id, patch);
+        });
+    }
+}
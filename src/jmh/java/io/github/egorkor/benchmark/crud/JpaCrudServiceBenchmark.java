@@ -0,0 +1,175 @@
+package io.github.egorkor.benchmark.crud;
+
+import io.github.egorkor.model.Order;
+import io.github.egorkor.model.User;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.service.batching.BatchResultWithData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сквозной бенчмарк синхронных операций {@code JpaCrudService} и {@code JpaBatchCrudService}
+ * на встроенной H2 с 10k/100k/1M строк.
+ * <p>
+ * Помимо пропускной способности в JSON отчёт попадают счётчики {@link SqlStatementCounters}.
+ * Пример запуска на одном объёме данных:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="JpaCrudServiceBenchmark -p rows=10000 -rf json -rff target/crud.json"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class JpaCrudServiceBenchmark {
+    static final int BATCH = 1000;
+    static final int PAGE_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000", "100000", "1000000"})
+        int rows;
+
+        CrudBenchmarkContext context;
+        SplittableRandom random;
+        long nextFreeId;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = new CrudBenchmarkContext(rows, 1);
+            random = new SplittableRandom(42);
+            nextFreeId = context.firstFreeId();
+        }
+
+        @TearDown(Level.Iteration)
+        public void removeCreated() {
+            context.getUserService().deleteByFilter(Filter.builder()
+                    .greaterOrEquals("id", String.valueOf(context.firstFreeId()))
+                    .build());
+            nextFreeId = context.firstFreeId();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        long randomActiveId() {
+            return random.nextLong(context.firstActiveId(), context.firstFreeId());
+        }
+
+        long randomId() {
+            return random.nextLong(1, context.firstFreeId());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NewUsers {
+        List<User> users;
+
+        @Setup(Level.Invocation)
+        public void prepare(Data data) {
+            users = User.generateUsers((int) data.nextFreeId, BATCH);
+            data.nextFreeId += BATCH;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ChangedUsers {
+        List<User> users;
+
+        @Setup(Level.Invocation)
+        public void prepare(Data data) {
+            long start = data.random.nextLong(data.context.firstActiveId(), data.context.firstFreeId() - BATCH);
+            users = User.generateUsers((int) start, BATCH);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UsersToDelete {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void prepare(Data data) {
+            List<User> users = User.generateUsers((int) data.nextFreeId, BATCH);
+            data.nextFreeId += BATCH;
+            data.context.getUserBatchService().batchUpsert(users);
+            ids = users.stream().map(User::getId).toList();
+        }
+    }
+
+    @Benchmark
+    public PageableResult<User> getAll(Data data, SqlStatementCounters counters) {
+        Filter<User> filter = Filter.builder()
+                .like("firstName", "a")
+                .greater("id", String.valueOf(data.randomActiveId() - BATCH))
+                .build();
+        Sorting sorting = Sorting.builder().asc("email").build();
+        Pagination pagination = new Pagination(PAGE_SIZE, data.random.nextInt(10));
+        counters.begin(data.context.getStatistics());
+        PageableResult<User> result = data.context.getUserService().getAll(filter, sorting, pagination);
+        counters.end(data.context.getStatistics());
+        return result;
+    }
+
+    @Benchmark
+    public User getByIdWithSoftDelete(Data data, SqlStatementCounters counters) {
+        long id = data.randomActiveId();
+        counters.begin(data.context.getStatistics());
+        User user = data.context.getUserService().getById(id);
+        counters.end(data.context.getStatistics());
+        return user;
+    }
+
+    @Benchmark
+    public Order getByIdWithoutSoftDelete(Data data, SqlStatementCounters counters) {
+        long id = data.randomId();
+        counters.begin(data.context.getStatistics());
+        Order order = data.context.getOrderService().getById(id);
+        counters.end(data.context.getStatistics());
+        return order;
+    }
+
+    @Benchmark
+    public User patchUpdate(Data data, SqlStatementCounters counters) {
+        User patch = new User();
+        patch.setId(data.randomActiveId());
+        patch.setOrders(null);
+        patch.setFirstName("patched-" + data.random.nextInt());
+        counters.begin(data.context.getStatistics());
+        User user = data.context.getUserService().patchUpdate(patch.getId(), patch);
+        counters.end(data.context.getStatistics());
+        return user;
+    }
+
+    @Benchmark
+    public List<BatchResultWithData<User>> batchCreate(Data data, NewUsers newUsers, SqlStatementCounters counters) {
+        counters.begin(data.context.getStatistics());
+        List<BatchResultWithData<User>> result = data.context.getUserBatchService().batchCreate(newUsers.users);
+        counters.end(data.context.getStatistics());
+        return result;
+    }
+
+    @Benchmark
+    public List<BatchResultWithData<User>> batchUpdate(Data data, ChangedUsers changedUsers, SqlStatementCounters counters) {
+        counters.begin(data.context.getStatistics());
+        List<BatchResultWithData<User>> result = data.context.getUserBatchService().batchUpdate(changedUsers.users);
+        counters.end(data.context.getStatistics());
+        return result;
+    }
+
+    @Benchmark
+    public List<BatchResultWithData<Long>> batchDelete(Data data, UsersToDelete usersToDelete, SqlStatementCounters counters) {
+        counters.begin(data.context.getStatistics());
+        List<BatchResultWithData<Long>> result = data.context.getUserBatchService().batchDelete(usersToDelete.ids);
+        counters.end(data.context.getStatistics());
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.egorkor.benchmark.crud;
+
+import io.github.egorkor.model.Order;
+import io.github.egorkor.webutils.template.jpa.JpaBatchCrudService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Сервис сущности без поддержки мягкого удаления, используется для сравнения
+ * {@code getById} с сервисом пользователей, где применяется фильтр мягкого удаления.
+ */
+public class OrderBenchmarkService extends JpaBatchCrudService<Order, Long> {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderBenchmarkService(SimpleJpaRepository<Order, Long> repository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate) {
+        super(repository, repository, eventPublisher, transactionTemplate);
+    }
+
+    @Override
+    public EntityManager getPersistenceAnnotatedEntityManager() {
+        return entityManager;
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.egorkor.benchmark.crud;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Дополнительные метрики JMH, снимаемые со статистики Hibernate вокруг каждой операции.
+ * <p>
+ * Значения суммируются за итерацию и попадают в JSON отчёт как вторичные метрики,
+ * число SQL выражений на операцию равно {@code statements / operations}.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SqlStatementCounters {
+    public long operations;
+    public long statements;
+    public long queries;
+    public long entityLoads;
+    public long entityUpdates;
+
+    private long statementsBefore;
+    private long queriesBefore;
+    private long entityLoadsBefore;
+    private long entityUpdatesBefore;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        operations = 0;
+        statements = 0;
+        queries = 0;
+        entityLoads = 0;
+        entityUpdates = 0;
+    }
+
+    void begin(Statistics statistics) {
+        statementsBefore = statistics.getPrepareStatementCount();
+        queriesBefore = statistics.getQueryExecutionCount();
+        entityLoadsBefore = statistics.getEntityLoadCount();
+        entityUpdatesBefore = statistics.getEntityUpdateCount();
+    }
+
+    void end(Statistics statistics) {
+        operations++;
+        statements += statistics.getPrepareStatementCount() - statementsBefore;
+        queries += statistics.getQueryExecutionCount() - queriesBefore;
+        entityLoads += statistics.getEntityLoadCount() - entityLoadsBefore;
+        entityUpdates += statistics.getEntityUpdateCount() - entityUpdatesBefore;
+    }
+}
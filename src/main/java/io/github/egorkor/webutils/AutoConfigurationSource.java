@@ -1,10 +1,34 @@
 package io.github.egorkor.webutils;
 
 import io.github.egorkor.webutils.dto.DtoMapper;
+import io.github.egorkor.webutils.metrics.IndexAdvisor;
+import io.github.egorkor.webutils.metrics.QueryPlanCacheMetrics;
+import io.github.egorkor.webutils.metrics.QueryShapeStatistics;
+import io.github.egorkor.webutils.metrics.guard.QueryGuard;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardPolicy;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardRequestInterceptor;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardStatementInspector;
+import io.github.egorkor.webutils.postProcessor.CrudServiceMetricsBeanPostProcessor;
 import io.github.egorkor.webutils.postProcessor.JpaServiceTemplateInheritorValidationBeanPostProcessor;
+import io.github.egorkor.webutils.postProcessor.QueryGuardBeanPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
 
 /**
  * @author EgorKor
@@ -29,4 +53,110 @@ public class AutoConfigurationSource {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
+    /**
+     * Метрики Micrometer для операций CrudService. Включаются свойством
+     * {@code webutils.metrics.enabled=true} при наличии micrometer-core в classpath,
+     * гистограммы перцентилей отключаются свойством {@code webutils.metrics.percentile-histogram=false}.
+     * Вместе с ними регистрируются метрики кэша планов запросов {@link QueryPlanCacheMetrics}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "webutils.metrics", name = "enabled", havingValue = "true")
+    static class CrudServiceMetricsConfiguration {
+
+        @Bean
+        static CrudServiceMetricsBeanPostProcessor crudServiceMetricsBeanPostProcessor(
+                ObjectProvider<MeterRegistry> meterRegistry,
+                Environment environment) {
+            return new CrudServiceMetricsBeanPostProcessor(meterRegistry,
+                    environment.getProperty("webutils.metrics.percentile-histogram", Boolean.class, true));
+        }
+
+        @Bean
+        public QueryPlanCacheMetrics queryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+            return new QueryPlanCacheMetrics(entityManagerFactory);
+        }
+    }
+
+    /**
+     * Статистика запросов по формам фильтров. Включается свойством
+     * {@code webutils.query-statistics.enabled=true}, порог медленного запроса задаётся
+     * свойством {@code webutils.query-statistics.slow-query-threshold} (по умолчанию 500ms),
+     * лимит отслеживаемых форм - {@code webutils.query-statistics.max-shapes}.
+     * Вместе со статистикой регистрируется {@link IndexAdvisor}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "webutils.query-statistics", name = "enabled", havingValue = "true")
+    static class QueryShapeStatisticsConfiguration {
+
+        @Bean
+        public QueryShapeStatistics queryShapeStatistics(Environment environment) {
+            return new QueryShapeStatistics(
+                    environment.getProperty("webutils.query-statistics.max-shapes", Integer.class,
+                            QueryShapeStatistics.DEFAULT_MAX_SHAPES),
+                    environment.getProperty("webutils.query-statistics.slow-query-threshold", Duration.class,
+                            QueryShapeStatistics.DEFAULT_SLOW_QUERY_THRESHOLD));
+        }
+
+        @Bean
+        public IndexAdvisor indexAdvisor(EntityManagerFactory entityManagerFactory,
+                                         DataSource dataSource,
+                                         QueryShapeStatistics queryShapeStatistics) {
+            return new IndexAdvisor(entityManagerFactory, dataSource, queryShapeStatistics);
+        }
+    }
+
+    /**
+     * Защита от N+1 запросов. Включается свойством {@code webutils.query-guard.enabled=true}:
+     * регистрирует {@link QueryGuardStatementInspector} в Hibernate, если другой инспектор не задан,
+     * и выборочно проверяет вызовы CrudService. Параметры задаются свойствами
+     * {@code webutils.query-guard.max-statements}, {@code .repeated-statement-threshold},
+     * {@code .action} (LOG или FAIL) и {@code .sample-rate}. Свойство {@code .request-scope=true}
+     * дополнительно проверяет запросы Spring MVC целиком, см. {@link QueryGuardRequestInterceptor}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "webutils.query-guard", name = "enabled", havingValue = "true")
+    static class QueryGuardConfiguration {
+
+        @Bean
+        public HibernatePropertiesCustomizer queryGuardHibernatePropertiesCustomizer() {
+            return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR,
+                    QueryGuardStatementInspector.class.getName());
+        }
+
+        @Bean
+        public QueryGuard queryGuard(EntityManagerFactory entityManagerFactory, Environment environment) {
+            return new QueryGuard(entityManagerFactory, QueryGuardPolicy.builder()
+                    .maxStatements(environment.getProperty("webutils.query-guard.max-statements", Integer.class, 20))
+                    .repeatedStatementThreshold(environment.getProperty(
+                            "webutils.query-guard.repeated-statement-threshold", Integer.class, 3))
+                    .action(environment.getProperty("webutils.query-guard.action",
+                            QueryGuardPolicy.Action.class, QueryGuardPolicy.Action.LOG))
+                    .sampleRate(environment.getProperty("webutils.query-guard.sample-rate", Double.class, 1.0))
+                    .build());
+        }
+
+        @Bean
+        static QueryGuardBeanPostProcessor queryGuardBeanPostProcessor(ObjectProvider<QueryGuard> queryGuard) {
+            return new QueryGuardBeanPostProcessor(queryGuard);
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(name = "org.springframework.web.servlet.HandlerInterceptor")
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        @ConditionalOnProperty(prefix = "webutils.query-guard", name = "request-scope", havingValue = "true")
+        static class QueryGuardRequestScopeConfiguration {
+
+            @Bean
+            public WebMvcConfigurer queryGuardWebMvcConfigurer(QueryGuard queryGuard) {
+                return new WebMvcConfigurer() {
+                    @Override
+                    public void addInterceptors(InterceptorRegistry registry) {
+                        registry.addInterceptor(new QueryGuardRequestInterceptor(queryGuard));
+                    }
+                };
+            }
+        }
+    }
+
 }
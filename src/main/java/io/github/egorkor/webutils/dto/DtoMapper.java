@@ -1,5 +1,6 @@
 package io.github.egorkor.webutils.dto;
 
+import io.github.egorkor.webutils.metrics.jfr.DtoMappingEvent;
 import org.modelmapper.ModelMapper;
 
 import java.util.List;
@@ -51,7 +52,17 @@ public class DtoMapper {
     }
 
     public <M, D> List<D> toDto(List<M> models, Class<D> destination) {
-        return models.stream().map(o -> modelMapper.map(o, destination)).toList();
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        List<D> result = models.stream().map(o -> modelMapper.map(o, destination)).toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.sourceType = models.isEmpty() ? null : models.get(0).getClass().getName();
+            event.destinationType = destination.getName();
+            event.count = models.size();
+            event.commit();
+        }
+        return result;
     }
 
     public <M, D> M toModel(D dto, Class<M> destination) {
@@ -0,0 +1,21 @@
+package io.github.egorkor.webutils.event.batching;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Getter
+public class BatchUpsertedEvent<T> extends ApplicationEvent {
+    private final List<T> batch;
+
+    public BatchUpsertedEvent(Object source, List<T> batch) {
+        super(source);
+        this.batch = batch;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.egorkor.webutils.event.crud;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+/**
+ * Событие массового обновления сущностей одним выражением UPDATE по условию фильтра
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Getter
+public class EntityBulkUpdatedEvent<T> extends ApplicationEvent {
+    private final Filter<T> filter;
+    private final Map<String, Object> assignments;
+    private final int updatedCount;
+    private final Class<T> entityType;
+
+    public EntityBulkUpdatedEvent(Object source,
+                                  Filter<T> filter,
+                                  Map<String, Object> assignments,
+                                  int updatedCount,
+                                  Class<T> entityType) {
+        super(source);
+        this.filter = filter;
+        this.assignments = assignments;
+        this.updatedCount = updatedCount;
+        this.entityType = entityType;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.egorkor.webutils.exception;
+
+import io.github.egorkor.webutils.metrics.guard.QueryGuardReport;
+import lombok.Getter;
+
+/**
+ * Исключение режима {@code FAIL} защиты от N+1, выбрасывается при превышении
+ * лимита SQL выражений или обнаружении повторяющихся запросов.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Getter
+public class QueryGuardViolationException extends RuntimeException {
+    private final QueryGuardReport report;
+
+    public QueryGuardViolationException(QueryGuardReport report) {
+        super(report.toString());
+        this.report = report;
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.egorkor.webutils.metrics;
+
+import io.github.egorkor.webutils.service.async.AsyncCrudBatchService;
+import io.github.egorkor.webutils.service.async.AsyncCrudService;
+import io.github.egorkor.webutils.service.batching.BatchOperationStatus;
+import io.github.egorkor.webutils.service.batching.BatchResult;
+import io.github.egorkor.webutils.service.sync.CrudBatchService;
+import io.github.egorkor.webutils.service.sync.CrudService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Перехватчик методов {@link CrudService}, {@link CrudBatchService}, {@link AsyncCrudService}
+ * и {@link AsyncCrudBatchService}, записывающий метрики Micrometer.
+ * <p>
+ * Все метрики помечены тегами {@code entity} (простое имя класса сущности)
+ * и {@code operation} (имя метода сервиса):
+ * <ul>
+ *     <li>{@value #OPERATION_TIMER} - таймер операции с тегами {@code outcome} и {@code exception},
+ *     для асинхронных методов время измеряется до завершения {@link CompletableFuture}</li>
+ *     <li>{@value #ERROR_COUNTER} - число операций, завершившихся исключением
+ *     ({@code EntityProcessingException}, {@code ResourceNotFoundException} и др.)</li>
+ *     <li>{@value #BATCH_ROWS} - число строк в пакетной операции</li>
+ *     <li>{@value #BATCH_FAILED_ROWS} - число строк пакетной операции со статусом FAILED</li>
+ *     <li>{@value #BATCH_FAILURE_RATIO} - доля неуспешных строк в пакетной операции</li>
+ * </ul>
+ * Если {@link MeterRegistry} отсутствует в контексте, вызовы передаются сервису без изменений.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class CrudServiceMetricsInterceptor implements MethodInterceptor {
+    public static final String OPERATION_TIMER = "webutils.crud.operation";
+    public static final String ERROR_COUNTER = "webutils.crud.errors";
+    public static final String BATCH_ROWS = "webutils.crud.batch.rows";
+    public static final String BATCH_FAILED_ROWS = "webutils.crud.batch.failed.rows";
+    public static final String BATCH_FAILURE_RATIO = "webutils.crud.batch.failure.ratio";
+
+    public static final String ENTITY_TAG = "entity";
+    public static final String OPERATION_TAG = "operation";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String EXCEPTION_TAG = "exception";
+    private static final String NONE = "none";
+
+    /**
+     * Имена методов сервисных интерфейсов, для которых записываются метрики
+     */
+    public static final Set<String> SERVICE_OPERATIONS = declaredMethodNames(
+            CrudService.class, CrudBatchService.class, AsyncCrudService.class, AsyncCrudBatchService.class);
+    private static final Set<String> BATCH_OPERATIONS = declaredMethodNames(
+            CrudBatchService.class, AsyncCrudBatchService.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final boolean percentileHistogram;
+    private final Map<Class<?>, String> entityNames = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public CrudServiceMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                         boolean percentileHistogram) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = getMeterRegistry();
+        if (registry == null || invocation.getThis() == null) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        OperationContext context = new OperationContext(registry,
+                entityNames.computeIfAbsent(invocation.getThis().getClass(), CrudServiceMetricsInterceptor::resolveEntityName),
+                method.getName(),
+                BATCH_OPERATIONS.contains(method.getName()),
+                invocation.getArguments(),
+                System.nanoTime());
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            record(context, null, e);
+            throw e;
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((value, error) -> record(context, value, unwrap(error)));
+        } else {
+            record(context, result, null);
+        }
+        return result;
+    }
+
+    /**
+     * Определяет имя сущности по параметру типа сервисного интерфейса
+     */
+    public static String resolveEntityName(Class<?> serviceType) {
+        for (Class<?> serviceInterface : new Class<?>[]{CrudService.class, AsyncCrudService.class}) {
+            Class<?> entityType = ResolvableType.forClass(serviceType).as(serviceInterface).resolveGeneric(0);
+            if (entityType != null) {
+                return entityType.getSimpleName();
+            }
+        }
+        return "unknown";
+    }
+
+    private void record(OperationContext context, Object result, Throwable error) {
+        long duration = System.nanoTime() - context.startNanos();
+        String exception = error == null ? NONE : error.getClass().getSimpleName();
+        Timer.builder(OPERATION_TIMER)
+                .description("CrudService operation latency")
+                .tag(ENTITY_TAG, context.entity())
+                .tag(OPERATION_TAG, context.operation())
+                .tag(OUTCOME_TAG, error == null ? "success" : "error")
+                .tag(EXCEPTION_TAG, exception)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(context.registry())
+                .record(duration, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            Counter.builder(ERROR_COUNTER)
+                    .description("CrudService operations failed with exception")
+                    .tag(ENTITY_TAG, context.entity())
+                    .tag(OPERATION_TAG, context.operation())
+                    .tag(EXCEPTION_TAG, exception)
+                    .register(context.registry())
+                    .increment();
+        }
+        if (context.batch()) {
+            recordBatch(context, result, error);
+        }
+    }
+
+    private void recordBatch(OperationContext context, Object result, Throwable error) {
+        if (context.arguments().length == 0 || !(context.arguments()[0] instanceof Collection<?> rows)) {
+            return;
+        }
+        long failed = error != null ? rows.size() : countFailed(result);
+        DistributionSummary.builder(BATCH_ROWS)
+                .description("Rows passed to batch operation")
+                .tag(ENTITY_TAG, context.entity())
+                .tag(OPERATION_TAG, context.operation())
+                .register(context.registry())
+                .record(rows.size());
+        Counter.builder(BATCH_FAILED_ROWS)
+                .description("Rows of batch operation with FAILED status")
+                .tag(ENTITY_TAG, context.entity())
+                .tag(OPERATION_TAG, context.operation())
+                .register(context.registry())
+                .increment(failed);
+        DistributionSummary.builder(BATCH_FAILURE_RATIO)
+                .description("Failed rows ratio of batch operation")
+                .tag(ENTITY_TAG, context.entity())
+                .tag(OPERATION_TAG, context.operation())
+                .register(context.registry())
+                .record(rows.isEmpty() ? 0 : (double) failed / rows.size());
+    }
+
+    private static long countFailed(Object result) {
+        if (!(result instanceof Collection<?> results)) {
+            return 0;
+        }
+        return results.stream()
+                .filter(r -> r instanceof BatchResult batchResult
+                        && batchResult.getStatus() == BatchOperationStatus.FAILED)
+                .count();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private MeterRegistry getMeterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getIfAvailable();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    private static Set<String> declaredMethodNames(Class<?>... types) {
+        return Stream.of(types)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .map(Method::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record OperationContext(MeterRegistry registry,
+                                    String entity,
+                                    String operation,
+                                    boolean batch,
+                                    Object[] arguments,
+                                    long startNanos) {
+    }
+}
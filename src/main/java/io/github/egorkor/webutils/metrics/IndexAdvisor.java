@@ -0,0 +1,225 @@
+package io.github.egorkor.webutils.metrics;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Советник индексов на основе статистики форм фильтров {@link QueryShapeStatistics}.
+ * <p>
+ * Поля формы фильтра записываются после применения псевдонимов
+ * {@link io.github.egorkor.webutils.annotations.FieldParamMapping#sqlMapping()}, поэтому являются
+ * путями атрибутов сущности. Советник разрешает их в колонки таблицы по метаданным Hibernate,
+ * сравнивает с существующими индексами из {@link DatabaseMetaData#getIndexInfo}
+ * и предлагает составной индекс в порядке:
+ * <ol>
+ *     <li>условия равенства ({@code =}, {@code is}), затем {@code in}</li>
+ *     <li>диапазоны ({@code <}, {@code <=}, {@code >}, {@code >=})</li>
+ *     <li>поля сортировки последнего запроса</li>
+ * </ol>
+ * Индекс считается существующим, если колонки рекомендации являются префиксом колонок индекса.
+ * Условия {@code like} формируются как {@code '%value%'} и не могут использовать B-tree индекс,
+ * {@code <>} не использует индекс эффективно, пути через связанные сущности
+ * и функции не анализируются - такие условия попадают в {@link IndexRecommendation#warnings()}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@ManagedResource(objectName = "io.github.egorkor.webutils:type=IndexAdvisor",
+        description = "Index recommendations derived from filter shape statistics")
+public class IndexAdvisor {
+    private static final Set<String> EQUALITY_OPERATIONS = Set.of("=", "is");
+    private static final Set<String> RANGE_OPERATIONS = Set.of("<", "<=", ">", ">=", "between");
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final DataSource dataSource;
+    private final QueryShapeStatistics statistics;
+
+    public IndexAdvisor(EntityManagerFactory entityManagerFactory,
+                        DataSource dataSource,
+                        QueryShapeStatistics statistics) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dataSource = dataSource;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Рекомендации для самых дорогих по суммарному времени форм фильтров
+     */
+    public List<IndexRecommendation> recommend(int limit) {
+        return recommend(statistics.getRanking(limit));
+    }
+
+    public List<IndexRecommendation> recommend(List<QueryShapeSnapshot> shapes) {
+        List<IndexRecommendation> recommendations = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Map<String, List<String>>> indexCache = new LinkedHashMap<>();
+            for (QueryShapeSnapshot shape : shapes) {
+                if (shape.shape().isEmpty() || shape.shape().equals(QueryShapeStatistics.OVERFLOW_SHAPE)) {
+                    continue;
+                }
+                findPersister(shape.entity()).ifPresent(persister -> recommendations.add(
+                        recommend(shape, persister, indexCache.computeIfAbsent(persister.getTableName(),
+                                table -> readIndexes(metaData, table)))));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read database index metadata", e);
+        }
+        return recommendations;
+    }
+
+    @ManagedOperation(description = "DDL of recommended indexes for the most expensive filter shapes")
+    public List<String> getIndexDdl(int limit) {
+        return recommend(limit).stream()
+                .map(IndexRecommendation::ddl)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    private IndexRecommendation recommend(QueryShapeSnapshot shape,
+                                          AbstractEntityPersister persister,
+                                          Map<String, List<String>> indexes) {
+        List<String> warnings = new ArrayList<>();
+        Set<String> equality = new LinkedHashSet<>();
+        Set<String> in = new LinkedHashSet<>();
+        Set<String> range = new LinkedHashSet<>();
+        for (String condition : shape.shape().split(",")) {
+            int separator = condition.lastIndexOf(':');
+            String field = condition.substring(0, separator);
+            String operation = condition.substring(separator + 1);
+            if (field.indexOf(Filter.GROUP_SEPARATOR) >= 0) {
+                warnings.add("'%s' is part of an OR group, each branch needs its own index and is not analysed"
+                        .formatted(field));
+                continue;
+            }
+            Optional<String> column = resolveColumn(persister, field);
+            if (column.isEmpty()) {
+                warnings.add("'%s' is not a column of %s and is not analysed".formatted(field, persister.getTableName()));
+            } else if (EQUALITY_OPERATIONS.contains(operation)) {
+                equality.add(column.get());
+            } else if (operation.equals("in")) {
+                in.add(column.get());
+            } else if (RANGE_OPERATIONS.contains(operation) || operation.equals("startswith")) {
+                range.add(column.get());
+            } else if (operation.equals("like")) {
+                warnings.add(("'%s' is filtered by LIKE '%%value%%' which cannot use a B-tree index, " +
+                        "consider a full-text or trigram index").formatted(field));
+            } else if (operation.equals("ilike") || operation.equals("eqi")) {
+                warnings.add("'%s' is compared by LOWER(%s) and needs a functional index on it"
+                        .formatted(field, column.get()));
+            } else {
+                warnings.add("'%s %s' cannot use an index efficiently".formatted(field, operation));
+            }
+        }
+        Set<String> columns = new LinkedHashSet<>(equality);
+        columns.addAll(in);
+        columns.addAll(range);
+        for (String sortField : shape.lastSort().isEmpty() ? new String[0] : shape.lastSort().split(",")) {
+            resolveColumn(persister, sortField.split(":")[0]).ifPresent(columns::add);
+        }
+        List<String> indexColumns = List.copyOf(columns);
+        String existingIndex = indexColumns.isEmpty() ? null : findCoveringIndex(indexes, indexColumns);
+        String ddl = indexColumns.isEmpty() || existingIndex != null ? null : toDdl(persister.getTableName(), indexColumns);
+        return new IndexRecommendation(shape.entity(),
+                persister.getTableName(),
+                shape.shape(),
+                shape.lastSort(),
+                indexColumns,
+                ddl,
+                existingIndex,
+                shape.queryCount(),
+                shape.queryTotalNanos(),
+                List.copyOf(warnings));
+    }
+
+    private Optional<AbstractEntityPersister> findPersister(String entityName) {
+        return sessionFactory.getJpaMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .filter(type -> type.getSimpleName().equals(entityName))
+                .findFirst()
+                .map(type -> (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(type));
+    }
+
+    private static Optional<String> resolveColumn(AbstractEntityPersister persister, String field) {
+        if (field.contains(".") || field.contains("(")) {
+            return Optional.empty();
+        }
+        try {
+            String[] columns = field.equals(persister.getIdentifierPropertyName())
+                    ? persister.getIdentifierColumnNames()
+                    : persister.getPropertyColumnNames(field);
+            return columns.length == 1 ? Optional.ofNullable(columns[0]) : Optional.empty();
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Map<String, List<String>> readIndexes(DatabaseMetaData metaData, String table) {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        for (String candidate : new LinkedHashSet<>(List.of(table,
+                table.toUpperCase(Locale.ROOT),
+                table.toLowerCase(Locale.ROOT)))) {
+            try (ResultSet rs = metaData.getIndexInfo(null, null, candidate, false, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        indexes.computeIfAbsent(indexName, k -> new ArrayList<>()).add(column);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Unable to read indexes of table " + table, e);
+            }
+            if (!indexes.isEmpty()) {
+                break;
+            }
+        }
+        return indexes;
+    }
+
+    private static String findCoveringIndex(Map<String, List<String>> indexes, List<String> columns) {
+        for (Map.Entry<String, List<String>> index : indexes.entrySet()) {
+            List<String> indexColumns = index.getValue();
+            if (indexColumns.size() < columns.size()) {
+                continue;
+            }
+            boolean covered = true;
+            for (int i = 0; i < columns.size() && covered; i++) {
+                covered = indexColumns.get(i).equalsIgnoreCase(columns.get(i));
+            }
+            if (covered) {
+                return index.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static String toDdl(String table, List<String> columns) {
+        String name = ("idx_" + table + "_" + String.join("_", columns))
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9_]", "");
+        return "CREATE INDEX %s ON %s (%s)".formatted(name, table, String.join(", ", columns));
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.egorkor.webutils.metrics;
+
+import java.util.List;
+
+/**
+ * Рекомендация индекса, полученная {@link IndexAdvisor} для формы фильтра.
+ *
+ * @param entity          простое имя класса сущности
+ * @param table           таблица сущности
+ * @param shape           форма фильтра, для которой построена рекомендация
+ * @param sort            сортировка последнего запроса формы
+ * @param columns         колонки индекса: сначала равенства, затем диапазоны, затем сортировка
+ * @param ddl             DDL выражение создания индекса или {@code null},
+ *                        если подходящий индекс уже существует или колонки не найдены
+ * @param existingIndex   имя существующего индекса, покрывающего колонки, или {@code null}
+ * @param queryCount      число выполненных запросов формы
+ * @param queryTotalNanos суммарное время выполнения запросов формы
+ * @param warnings        условия, которые не могут использовать индекс
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public record IndexRecommendation(String entity,
+                                  String table,
+                                  String shape,
+                                  String sort,
+                                  List<String> columns,
+                                  String ddl,
+                                  String existingIndex,
+                                  long queryCount,
+                                  long queryTotalNanos,
+                                  List<String> warnings) {
+
+    public boolean isIndexRequired() {
+        return ddl != null;
+    }
+}
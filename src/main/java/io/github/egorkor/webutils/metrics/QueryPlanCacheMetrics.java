@@ -0,0 +1,55 @@
+package io.github.egorkor.webutils.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Метрики кэша планов запросов Hibernate:
+ * <ul>
+ *     <li>{@value #HITS}, {@value #MISSES} - попадания и промахи кэша планов</li>
+ *     <li>{@value #HIT_RATIO} - доля попаданий с момента запуска или сброса статистики</li>
+ * </ul>
+ * Значения берутся из {@link Statistics}, поэтому статистика Hibernate должна быть включена
+ * ({@code spring.jpa.properties.hibernate.generate_statistics=true}).
+ * Нормализация форм фильтров ({@code Filter.getCanonicalFilter()}, дополнение списков IN)
+ * уменьшает число различных запросов и должна повышать долю попаданий.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryPlanCacheMetrics implements MeterBinder {
+    public static final String HITS = "webutils.query.plan.cache.hits";
+    public static final String MISSES = "webutils.query.plan.cache.misses";
+    public static final String HIT_RATIO = "webutils.query.plan.cache.hit.ratio";
+
+    private final Statistics statistics;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(HITS, statistics, Statistics::getQueryPlanCacheHitCount)
+                .description("Hibernate query plan cache hits")
+                .register(registry);
+        FunctionCounter.builder(MISSES, statistics, Statistics::getQueryPlanCacheMissCount)
+                .description("Hibernate query plan cache misses")
+                .register(registry);
+        Gauge.builder(HIT_RATIO, statistics, QueryPlanCacheMetrics::hitRatio)
+                .description("Share of Hibernate query plan cache hits")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long total = hits + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
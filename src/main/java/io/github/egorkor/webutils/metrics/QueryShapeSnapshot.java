@@ -0,0 +1,51 @@
+package io.github.egorkor.webutils.metrics;
+
+import java.time.Duration;
+
+/**
+ * Снимок статистики запросов одной формы фильтра, см. {@link QueryShapeStatistics}.
+ *
+ * @param entity              простое имя класса сущности
+ * @param shape               форма фильтра без значений
+ * @param queryCount          число выполненных запросов
+ * @param queryTotalNanos     суммарное время выполнения запросов
+ * @param queryMaxNanos       максимальное время выполнения запроса
+ * @param latencyHistogram    число запросов в интервалах {@link QueryShapeStatistics#LATENCY_BUCKETS_MILLIS},
+ *                            последний элемент - запросы дольше верхней границы
+ * @param predicateBuildCount число построений Criteria API предиката
+ * @param predicateBuildNanos суммарное время построения предикатов
+ * @param sqlBuildCount       число построений нативного SQL условия
+ * @param sqlBuildNanos       суммарное время построения SQL условий
+ * @param lastSort            сортировка последнего запроса
+ * @param lastPageSize        размер страницы последнего запроса
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public record QueryShapeSnapshot(String entity,
+                                 String shape,
+                                 long queryCount,
+                                 long queryTotalNanos,
+                                 long queryMaxNanos,
+                                 long[] latencyHistogram,
+                                 long predicateBuildCount,
+                                 long predicateBuildNanos,
+                                 long sqlBuildCount,
+                                 long sqlBuildNanos,
+                                 String lastSort,
+                                 int lastPageSize) {
+
+    public double averageQueryMillis() {
+        return queryCount == 0 ? 0 : queryTotalNanos / 1_000_000.0 / queryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "%s [%s]: count=%d, total=%d ms, avg=%.2f ms, max=%d ms, sort=[%s], pageSize=%d".formatted(
+                entity, shape, queryCount,
+                Duration.ofNanos(queryTotalNanos).toMillis(),
+                averageQueryMillis(),
+                Duration.ofNanos(queryMaxNanos).toMillis(),
+                lastSort, lastPageSize);
+    }
+}
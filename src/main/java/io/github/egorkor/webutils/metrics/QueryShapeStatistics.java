@@ -0,0 +1,230 @@
+package io.github.egorkor.webutils.metrics;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сборщик статистики запросов по формам фильтров ({@link Filter#getShape()}).
+ * <p>
+ * Для каждой пары сущность + форма фильтра учитывает:
+ * <ul>
+ *     <li>число выполнений {@code JpaCrudService.getAll}, суммарное и максимальное время,
+ *     гистограмму задержек по границам {@link #LATENCY_BUCKETS_MILLIS}</li>
+ *     <li>число и время построения условий {@link Filter#toPredicate} и {@link Filter#toSQLFilter}</li>
+ *     <li>сортировку и размер страницы последнего запроса</li>
+ * </ul>
+ * Запросы дольше порога {@link #getSlowQueryThresholdMillis()} пишутся в лог с уровнем WARN.
+ * Число отслеживаемых форм ограничено, новые формы сверх лимита учитываются
+ * под формой {@value #OVERFLOW_SHAPE}.
+ * <p>
+ * Статистика собирается только после установки экземпляра через {@link #install(QueryShapeStatistics)}
+ * (выполняется автоматически для Spring бина), иначе хуки в {@link Filter} и {@code JpaCrudService}
+ * ограничиваются чтением volatile поля. Рейтинг самых дорогих форм доступен через
+ * {@link #getRanking(int)} и JMX операцию {@code getMostExpensiveShapes} при {@code spring.jmx.enabled=true}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+@ManagedResource(objectName = "io.github.egorkor.webutils:type=QueryShapeStatistics",
+        description = "Query statistics grouped by entity and filter shape")
+public class QueryShapeStatistics implements InitializingBean, DisposableBean {
+    public static final long[] LATENCY_BUCKETS_MILLIS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+    public static final String OVERFLOW_SHAPE = "<other>";
+    public static final int DEFAULT_MAX_SHAPES = 1000;
+    public static final Duration DEFAULT_SLOW_QUERY_THRESHOLD = Duration.ofMillis(500);
+
+    private static volatile QueryShapeStatistics current;
+
+    private final ConcurrentMap<ShapeKey, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+    @Getter
+    private final int maxShapes;
+    private volatile long slowQueryThresholdNanos;
+
+    public enum FilterPhase {
+        PREDICATE, SQL
+    }
+
+    public QueryShapeStatistics() {
+        this(DEFAULT_MAX_SHAPES, DEFAULT_SLOW_QUERY_THRESHOLD);
+    }
+
+    public QueryShapeStatistics(int maxShapes, Duration slowQueryThreshold) {
+        if (maxShapes <= 0) {
+            throw new IllegalArgumentException("maxShapes must be positive, got " + maxShapes);
+        }
+        this.maxShapes = maxShapes;
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    /**
+     * Активный сборщик статистики или {@code null}, если сбор выключен
+     */
+    public static QueryShapeStatistics current() {
+        return current;
+    }
+
+    public static void install(QueryShapeStatistics statistics) {
+        current = statistics;
+    }
+
+    public static void uninstall(QueryShapeStatistics statistics) {
+        if (current == statistics) {
+            current = null;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        install(this);
+    }
+
+    @Override
+    public void destroy() {
+        uninstall(this);
+    }
+
+    public void recordFilterBuild(Class<?> entityType, String shape, FilterPhase phase, long nanos) {
+        ShapeStatistics statistics = getShapeStatistics(entityType, shape);
+        if (phase == FilterPhase.PREDICATE) {
+            statistics.predicateBuildCount.increment();
+            statistics.predicateBuildNanos.add(nanos);
+        } else {
+            statistics.sqlBuildCount.increment();
+            statistics.sqlBuildNanos.add(nanos);
+        }
+    }
+
+    public void recordQuery(Class<?> entityType, String shape, Sorting sorting, Pagination pagination, long nanos) {
+        ShapeStatistics statistics = getShapeStatistics(entityType, shape);
+        String sort = sorting == null ? "" : String.join(",", sorting.getSort());
+        int pageSize = pagination == null ? Pagination.ALL_CONTENT_SIZE : pagination.getSize();
+        statistics.queryCount.increment();
+        statistics.queryTotalNanos.add(nanos);
+        statistics.queryMaxNanos.accumulateAndGet(nanos, Math::max);
+        statistics.latencyHistogram[bucketIndex(nanos)].increment();
+        statistics.lastSort = sort;
+        statistics.lastPageSize = pageSize;
+        if (nanos >= slowQueryThresholdNanos) {
+            log.warn("Slow query: entity={}, shape=[{}], sort=[{}], pageSize={}, took {} ms",
+                    entityName(entityType), shape, sort, pageSize, Duration.ofNanos(nanos).toMillis());
+        }
+    }
+
+    /**
+     * Формы фильтров, упорядоченные по суммарному времени выполнения запросов
+     */
+    public List<QueryShapeSnapshot> getRanking(int limit) {
+        return shapes.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingLong(QueryShapeSnapshot::queryTotalNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @ManagedOperation(description = "Most expensive filter shapes by total query time")
+    public List<String> getMostExpensiveShapes(int limit) {
+        return getRanking(limit).stream()
+                .map(QueryShapeSnapshot::toString)
+                .toList();
+    }
+
+    @ManagedAttribute(description = "Number of tracked entity and filter shape pairs")
+    public int getTrackedShapes() {
+        return shapes.size();
+    }
+
+    @ManagedAttribute(description = "Queries slower than this threshold are logged")
+    public long getSlowQueryThresholdMillis() {
+        return Duration.ofNanos(slowQueryThresholdNanos).toMillis();
+    }
+
+    @ManagedAttribute
+    public void setSlowQueryThresholdMillis(long millis) {
+        this.slowQueryThresholdNanos = Duration.ofMillis(millis).toNanos();
+    }
+
+    @ManagedOperation(description = "Clears collected statistics")
+    public void reset() {
+        shapes.clear();
+    }
+
+    private ShapeStatistics getShapeStatistics(Class<?> entityType, String shape) {
+        ShapeKey key = new ShapeKey(entityName(entityType), shape);
+        ShapeStatistics statistics = shapes.get(key);
+        if (statistics != null) {
+            return statistics;
+        }
+        if (shapes.size() >= maxShapes) {
+            key = new ShapeKey(key.entity(), OVERFLOW_SHAPE);
+        }
+        return shapes.computeIfAbsent(key, k -> new ShapeStatistics());
+    }
+
+    private static String entityName(Class<?> entityType) {
+        return entityType == null ? "unknown" : entityType.getSimpleName();
+    }
+
+    private static int bucketIndex(long nanos) {
+        long millis = Duration.ofNanos(nanos).toMillis();
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            if (millis < LATENCY_BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+
+    private record ShapeKey(String entity, String shape) {
+    }
+
+    private static final class ShapeStatistics {
+        private final LongAdder queryCount = new LongAdder();
+        private final LongAdder queryTotalNanos = new LongAdder();
+        private final AtomicLong queryMaxNanos = new AtomicLong();
+        private final LongAdder[] latencyHistogram = new LongAdder[LATENCY_BUCKETS_MILLIS.length + 1];
+        private final LongAdder predicateBuildCount = new LongAdder();
+        private final LongAdder predicateBuildNanos = new LongAdder();
+        private final LongAdder sqlBuildCount = new LongAdder();
+        private final LongAdder sqlBuildNanos = new LongAdder();
+        private volatile String lastSort = "";
+        private volatile int lastPageSize;
+
+        private ShapeStatistics() {
+            Arrays.setAll(latencyHistogram, i -> new LongAdder());
+        }
+
+        private QueryShapeSnapshot snapshot(ShapeKey key) {
+            return new QueryShapeSnapshot(key.entity(),
+                    key.shape(),
+                    queryCount.sum(),
+                    queryTotalNanos.sum(),
+                    queryMaxNanos.get(),
+                    Arrays.stream(latencyHistogram).mapToLong(LongAdder::sum).toArray(),
+                    predicateBuildCount.sum(),
+                    predicateBuildNanos.sum(),
+                    sqlBuildCount.sum(),
+                    sqlBuildNanos.sum(),
+                    lastSort,
+                    lastPageSize);
+        }
+    }
+}
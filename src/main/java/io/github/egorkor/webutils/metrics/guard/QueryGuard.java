@@ -0,0 +1,181 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import io.github.egorkor.webutils.exception.QueryGuardViolationException;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Защита от N+1 запросов. Считает SQL выражения, подготовленные Hibernate внутри области
+ * {@link QueryGuardScope}, и проверяет их по {@link QueryGuardPolicy}:
+ * <ul>
+ *     <li>общее кол-во выражений не должно превышать {@link QueryGuardPolicy#getMaxStatements()}</li>
+ *     <li>одно и то же SELECT выражение не должно выполняться
+ *     {@link QueryGuardPolicy#getRepeatedStatementThreshold()} и более раз - это типичная
+ *     картина ленивой загрузки связи для каждой строки результата</li>
+ * </ul>
+ * Для повторяющихся выражений по таблице связи корневой сущности предлагается
+ * {@code Filter.withFetchJoin(attribute)}. При нарушении отчёт пишется в лог
+ * или выбрасывается {@link QueryGuardViolationException}.
+ * <p>
+ * Выражения поступают от {@link QueryGuardStatementInspector}, который должен быть
+ * зарегистрирован в Hibernate. Пример использования в тесте:
+ * <pre>{@code
+ * try (QueryGuardScope scope = queryGuard.open("getAll", User.class)) {
+ *     userService.getAll(filter, sorting, pagination).getContent()
+ *             .forEach(user -> user.getRoles().size());
+ * }
+ * }</pre>
+ * В production вызовы CrudService проверяются выборочно с долей {@link QueryGuardPolicy#getSampleRate()}
+ * перехватчиком {@link QueryGuardInterceptor}, который видит только выражения внутри метода сервиса.
+ * Ленивая загрузка вне сервиса учитывается областью запроса {@link QueryGuardRequestInterceptor}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+public class QueryGuard {
+    private static final ThreadLocal<QueryGuardScope> CURRENT_SCOPE = new ThreadLocal<>();
+    private static final Pattern FROM_TABLE = Pattern.compile("\\bfrom\\s+([^\\s,()]+)", Pattern.CASE_INSENSITIVE);
+
+    private final SessionFactoryImplementor sessionFactory;
+    @Getter
+    private final QueryGuardPolicy policy;
+
+    public QueryGuard(EntityManagerFactory entityManagerFactory, QueryGuardPolicy policy) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.policy = policy;
+    }
+
+    /**
+     * Область, открытая в текущем потоке, или {@code null}
+     */
+    public static QueryGuardScope currentScope() {
+        return CURRENT_SCOPE.get();
+    }
+
+    /**
+     * Открывает область подсчёта. Если в потоке уже открыта область, возвращается вложенная
+     * область, выражения которой учитываются во внешней.
+     *
+     * @param operation  имя операции для отчёта
+     * @param entityType корневая сущность операции, используется для предложения fetch join, может быть null
+     */
+    public QueryGuardScope open(String operation, Class<?> entityType) {
+        if (CURRENT_SCOPE.get() != null) {
+            return new QueryGuardScope(this, operation, entityType, true);
+        }
+        QueryGuardScope scope = new QueryGuardScope(this, operation, entityType, false);
+        CURRENT_SCOPE.set(scope);
+        return scope;
+    }
+
+    /**
+     * Решает, проверять ли очередной вызов, по {@link QueryGuardPolicy#getSampleRate()}
+     */
+    public boolean shouldSample() {
+        double sampleRate = policy.getSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    void release(QueryGuardScope scope) {
+        CURRENT_SCOPE.remove();
+        QueryGuardReport report = analyze(scope);
+        if (!report.isViolated()) {
+            return;
+        }
+        if (policy.getAction() == QueryGuardPolicy.Action.FAIL) {
+            throw new QueryGuardViolationException(report);
+        }
+        log.warn(report.toString());
+    }
+
+    QueryGuardReport analyze(QueryGuardScope scope) {
+        List<QueryGuardReport.RepeatedStatement> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> statement : scope.getStatements().entrySet()) {
+            if (statement.getValue() >= policy.getRepeatedStatementThreshold()
+                    && statement.getKey().stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                repeated.add(new QueryGuardReport.RepeatedStatement(statement.getKey(), statement.getValue()));
+            }
+        }
+        repeated.sort((a, b) -> Integer.compare(b.count(), a.count()));
+        int maxStatements = policy.getMaxStatements();
+        return new QueryGuardReport(
+                scope.getOperation(),
+                scope.getEntityType() == null ? null : scope.getEntityType().getSimpleName(),
+                scope.getStatementCount(),
+                List.copyOf(repeated),
+                suggestFetchJoins(scope.getEntityType(), repeated),
+                maxStatements > 0 && scope.getStatementCount() > maxStatements);
+    }
+
+    private List<String> suggestFetchJoins(Class<?> entityType, List<QueryGuardReport.RepeatedStatement> repeated) {
+        if (entityType == null || repeated.isEmpty()) {
+            return List.of();
+        }
+        EntityType<?> entity;
+        try {
+            entity = sessionFactory.getJpaMetamodel().entity(entityType);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+        Set<String> tables = new LinkedHashSet<>();
+        for (QueryGuardReport.RepeatedStatement statement : repeated) {
+            Matcher matcher = FROM_TABLE.matcher(statement.sql());
+            if (matcher.find()) {
+                tables.add(normalizeTable(matcher.group(1)));
+            }
+        }
+        List<String> suggestions = new ArrayList<>();
+        for (Attribute<?, ?> attribute : entity.getAttributes()) {
+            String table = associationTable(entityType, attribute);
+            if (table != null && tables.contains(normalizeTable(table))) {
+                suggestions.add(attribute.getName());
+            }
+        }
+        return List.copyOf(suggestions);
+    }
+
+    private String associationTable(Class<?> entityType, Attribute<?, ?> attribute) {
+        switch (attribute.getPersistentAttributeType()) {
+            case ONE_TO_MANY, MANY_TO_MANY, ELEMENT_COLLECTION -> {
+                String role = entityType.getName() + "." + attribute.getName();
+                if (sessionFactory.getMappingMetamodel().getCollectionDescriptor(role)
+                        instanceof AbstractCollectionPersister collectionPersister) {
+                    return collectionPersister.getTableName();
+                }
+                return null;
+            }
+            case MANY_TO_ONE, ONE_TO_ONE -> {
+                if (sessionFactory.getMappingMetamodel().getEntityDescriptor(attribute.getJavaType())
+                        instanceof AbstractEntityPersister targetPersister) {
+                    return targetPersister.getTableName();
+                }
+                return null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static String normalizeTable(String table) {
+        return table.replaceAll("[\"'`\\[\\]]", "").toLowerCase(Locale.ROOT);
+    }
+}
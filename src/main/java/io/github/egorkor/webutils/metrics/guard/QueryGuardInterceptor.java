@@ -0,0 +1,75 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import io.github.egorkor.webutils.exception.QueryGuardViolationException;
+import io.github.egorkor.webutils.service.sync.CrudService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Перехватчик синхронных методов {@link CrudService}, выборочно открывающий
+ * область {@link QueryGuard} на время вызова. Вызовы, возвращающие {@link CompletableFuture},
+ * и вызовы внутри уже открытой области передаются сервису без проверки.
+ * Учитываются только выражения, выполненные внутри метода сервиса: ленивая загрузка
+ * связей после возврата из метода (маппинг в DTO, контроллер, open-in-view) не видна,
+ * для её учёта используется область запроса {@link QueryGuardRequestInterceptor}.
+ * Если метод сервиса завершился исключением, нарушение политики не заменяет его,
+ * а добавляется к нему как подавленное.
+ * {@link QueryGuard} разрешается при первом вызове, чтобы не инициализировать
+ * EntityManagerFactory при создании пост-процессора.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryGuardInterceptor implements MethodInterceptor {
+    private final ObjectProvider<QueryGuard> queryGuardProvider;
+    private final Map<Class<?>, Class<?>> entityTypes = new ConcurrentHashMap<>();
+    private volatile QueryGuard queryGuard;
+
+    public QueryGuardInterceptor(ObjectProvider<QueryGuard> queryGuardProvider) {
+        this.queryGuardProvider = queryGuardProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        QueryGuard queryGuard = resolveQueryGuard();
+        if (queryGuard == null
+                || QueryGuard.currentScope() != null
+                || CompletableFuture.class.isAssignableFrom(invocation.getMethod().getReturnType())
+                || !queryGuard.shouldSample()) {
+            return invocation.proceed();
+        }
+        Class<?> entityType = entityTypes.computeIfAbsent(AopUtils.getTargetClass(invocation.getThis()),
+                serviceType -> ResolvableType.forClass(serviceType).as(CrudService.class).resolveGeneric(0));
+        QueryGuardScope scope = queryGuard.open(invocation.getMethod().getName(), entityType);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            try {
+                scope.close();
+            } catch (QueryGuardViolationException violation) {
+                e.addSuppressed(violation);
+            }
+            throw e;
+        }
+        scope.close();
+        return result;
+    }
+
+    private QueryGuard resolveQueryGuard() {
+        QueryGuard guard = queryGuard;
+        if (guard == null) {
+            guard = queryGuardProvider.getIfAvailable();
+            queryGuard = guard;
+        }
+        return guard;
+    }
+}
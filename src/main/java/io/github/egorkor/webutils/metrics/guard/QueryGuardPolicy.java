@@ -0,0 +1,37 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Параметры защиты от N+1 {@link QueryGuard}
+ * <ul>
+ *     <li>{@link #maxStatements} - максимальное кол-во SQL выражений в области, 0 - без ограничения</li>
+ *     <li>{@link #repeatedStatementThreshold} - сколько раз одно и то же SELECT выражение
+ *     должно выполниться в области, чтобы считаться признаком N+1</li>
+ *     <li>{@link #action} - реакция на нарушение: запись в лог или исключение</li>
+ *     <li>{@link #sampleRate} - доля вызовов CrudService, проверяемых автоматически (0..1)</li>
+ * </ul>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Getter
+@Builder
+@ToString
+public class QueryGuardPolicy {
+    @Builder.Default
+    private final int maxStatements = 20;
+    @Builder.Default
+    private final int repeatedStatementThreshold = 3;
+    @Builder.Default
+    private final Action action = Action.LOG;
+    @Builder.Default
+    private final double sampleRate = 1.0;
+
+    public enum Action {
+        LOG, FAIL
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import java.util.List;
+
+/**
+ * Результат проверки области {@link QueryGuard}.
+ *
+ * @param operation           имя проверяемой операции
+ * @param entity              простое имя класса корневой сущности или {@code null}
+ * @param statementCount      кол-во SQL выражений, выполненных в области
+ * @param repeatedStatements  SELECT выражения, повторившиеся не менее порога политики
+ * @param suggestedFetchJoins атрибуты корневой сущности, загрузку которых стоит выполнить
+ *                            через {@code Filter.withFetchJoin}
+ * @param statementLimitExceeded превышен ли лимит выражений
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public record QueryGuardReport(String operation,
+                               String entity,
+                               int statementCount,
+                               List<RepeatedStatement> repeatedStatements,
+                               List<String> suggestedFetchJoins,
+                               boolean statementLimitExceeded) {
+
+    public boolean isViolated() {
+        return statementLimitExceeded || !repeatedStatements.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Query guard: %s%s executed %d SQL statements".formatted(
+                operation, entity == null ? "" : " of " + entity, statementCount));
+        if (statementLimitExceeded) {
+            sb.append(", statement limit exceeded");
+        }
+        for (RepeatedStatement statement : repeatedStatements) {
+            sb.append("; N+1 suspected, executed %d times: %s".formatted(statement.count(), statement.sql()));
+        }
+        if (!suggestedFetchJoins.isEmpty()) {
+            sb.append("; consider ");
+            sb.append(String.join(", ", suggestedFetchJoins.stream()
+                    .map("withFetchJoin(\"%s\")"::formatted)
+                    .toList()));
+        }
+        return sb.toString();
+    }
+
+    public record RepeatedStatement(String sql, int count) {
+    }
+}
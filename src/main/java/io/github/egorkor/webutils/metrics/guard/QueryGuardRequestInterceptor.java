@@ -0,0 +1,63 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Перехватчик Spring MVC, выборочно открывающий область {@link QueryGuard} на всё время
+ * обработки запроса. В отличие от {@link QueryGuardInterceptor}, учитывает выражения,
+ * выполненные вне методов CrudService: ленивую загрузку при маппинге в DTO, в контроллере
+ * и при сериализации ответа (open-in-view). Вызовы CrudService внутри запроса собственной
+ * области не открывают, их выражения попадают в область запроса.
+ * <p>
+ * Область закрывается в {@code afterCompletion}, когда ответ уже отправлен, поэтому при
+ * {@link QueryGuardPolicy.Action#FAIL} исключение не меняет ответ и только записывается
+ * в лог DispatcherServlet. Для асинхронных запросов область закрывается при переходе
+ * в асинхронный режим, повторная диспетчеризация открывает новую область.
+ * Регистрируется автоматически при {@code webutils.query-guard.request-scope=true}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryGuardRequestInterceptor implements AsyncHandlerInterceptor {
+    private static final String SCOPE_ATTRIBUTE = QueryGuardRequestInterceptor.class.getName() + ".scope";
+
+    private final QueryGuard queryGuard;
+
+    public QueryGuardRequestInterceptor(QueryGuard queryGuard) {
+        this.queryGuard = queryGuard;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (QueryGuard.currentScope() == null && queryGuard.shouldSample()) {
+            request.setAttribute(SCOPE_ATTRIBUTE, queryGuard.open(getOperation(request), null));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        closeScope(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        closeScope(request);
+    }
+
+    private void closeScope(HttpServletRequest request) {
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof QueryGuardScope scope) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            scope.close();
+        }
+    }
+
+    private static String getOperation(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
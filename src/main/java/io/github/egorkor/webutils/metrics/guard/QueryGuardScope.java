@@ -0,0 +1,62 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Область подсчёта SQL выражений, открытая {@link QueryGuard#open(String, Class)}.
+ * Выражения, подготовленные Hibernate в текущем потоке, попадают в самую внешнюю
+ * открытую область, вложенные области ничего не считают и не проверяют.
+ * При закрытии внешней области строится {@link QueryGuardReport} и применяется
+ * {@link QueryGuardPolicy#getAction()}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryGuardScope implements AutoCloseable {
+    private final QueryGuard guard;
+    @Getter
+    private final String operation;
+    @Getter
+    private final Class<?> entityType;
+    private final boolean nested;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    @Getter
+    private int statementCount;
+    private boolean closed;
+
+    QueryGuardScope(QueryGuard guard, String operation, Class<?> entityType, boolean nested) {
+        this.guard = guard;
+        this.operation = operation;
+        this.entityType = entityType;
+        this.nested = nested;
+    }
+
+    void onStatement(String sql) {
+        statementCount++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    Map<String, Integer> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Отчёт по выражениям, выполненным в области к текущему моменту
+     */
+    public QueryGuardReport getReport() {
+        return guard.analyze(this);
+    }
+
+    @Override
+    public void close() {
+        if (nested || closed) {
+            return;
+        }
+        closed = true;
+        guard.release(this);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.egorkor.webutils.metrics.guard;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector}, передающий каждое подготавливаемое Hibernate SQL выражение
+ * в активную область {@link QueryGuard} текущего потока. Выражение не изменяется.
+ * <p>
+ * Регистрируется свойством {@code hibernate.session_factory.statement_inspector},
+ * при {@code webutils.query-guard.enabled=true} - автоматически.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryGuardStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        QueryGuardScope scope = QueryGuard.currentScope();
+        if (scope != null) {
+            scope.onStatement(sql);
+        }
+        return sql;
+    }
+}
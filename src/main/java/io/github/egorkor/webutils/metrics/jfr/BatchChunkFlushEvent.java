@@ -0,0 +1,33 @@
+package io.github.egorkor.webutils.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR событие сброса пакета пакетной операции {@code JpaBatchCrudService}
+ * ({@code EntityManager.flush} и {@code clear}). Длительность события - время сброса.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Name("io.github.egorkor.webutils.BatchChunkFlush")
+@Label("Batch Chunk Flush")
+@Description("Flush and clear of persistence context after batch chunk")
+@Category({"WebUtils", "Batch"})
+@StackTrace(false)
+public class BatchChunkFlushEvent extends Event {
+    @Label("Entity")
+    public String entity;
+
+    @Label("Batch Size")
+    @Description("Batch size chosen by BatchSizeController for the chunk")
+    public int batchSize;
+
+    @Label("Rows")
+    public int rows;
+}
@@ -0,0 +1,29 @@
+package io.github.egorkor.webutils.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR событие маппинга списка объектов {@code DtoMapper}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Name("io.github.egorkor.webutils.DtoMapping")
+@Label("DTO Mapping")
+@Description("Mapping of object list by DtoMapper")
+@Category({"WebUtils", "Mapping"})
+public class DtoMappingEvent extends Event {
+    @Label("Source Type")
+    public String sourceType;
+
+    @Label("Destination Type")
+    public String destinationType;
+
+    @Label("Count")
+    public int count;
+}
@@ -0,0 +1,36 @@
+package io.github.egorkor.webutils.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR событие построения условия фильтра: Criteria API предиката
+ * ({@code Filter.toPredicate}) или нативного SQL ({@code Filter.toSQLFilter}).
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Name("io.github.egorkor.webutils.FilterCompilation")
+@Label("Filter Compilation")
+@Description("Building JPA predicate or native SQL condition from Filter")
+@Category({"WebUtils", "Query"})
+@StackTrace(false)
+public class FilterCompilationEvent extends Event {
+    @Label("Entity")
+    public String entity;
+
+    @Label("Filter Shape")
+    public String shape;
+
+    @Label("Field Count")
+    public int fieldCount;
+
+    @Label("Target")
+    @Description("PREDICATE or SQL")
+    public String target;
+}
@@ -0,0 +1,42 @@
+package io.github.egorkor.webutils.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR событие выполнения Criteria запроса сервисом {@code JpaCrudService}
+ * ({@code getAll}, {@code getByFilterWithLock}).
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Name("io.github.egorkor.webutils.QueryExecution")
+@Label("Query Execution")
+@Description("Criteria query executed by JpaCrudService")
+@Category({"WebUtils", "Query"})
+public class QueryExecutionEvent extends Event {
+    @Label("Entity")
+    public String entity;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Filter Shape")
+    public String shape;
+
+    @Label("Sort")
+    public String sort;
+
+    @Label("Page Size")
+    public int pageSize;
+
+    @Label("Lock Mode")
+    public String lockMode;
+
+    @Label("Result Count")
+    public int resultCount;
+}
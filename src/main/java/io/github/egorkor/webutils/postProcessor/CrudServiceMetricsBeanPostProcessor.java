@@ -0,0 +1,116 @@
+package io.github.egorkor.webutils.postProcessor;
+
+import io.github.egorkor.webutils.metrics.CrudServiceMetricsInterceptor;
+import io.github.egorkor.webutils.service.async.AsyncCrudService;
+import io.github.egorkor.webutils.service.batching.BatchSizeController;
+import io.github.egorkor.webutils.service.sync.CrudService;
+import io.github.egorkor.webutils.template.jpa.JpaAsyncBatchService;
+import io.github.egorkor.webutils.template.jpa.JpaAsyncCrudService;
+import io.github.egorkor.webutils.template.jpa.JpaBatchCrudService;
+import io.github.egorkor.webutils.template.jpa.JpaCrudService;
+import io.github.egorkor.webutils.template.jpa.SoftDeletePurgeProgress;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.function.Supplier;
+
+/**
+ * Оборачивает бины {@link CrudService} и {@link AsyncCrudService} прокси,
+ * записывающим метрики через {@link CrudServiceMetricsInterceptor},
+ * и регистрирует gauge метрики состояния сервисов:
+ * <ul>
+ *     <li>{@code webutils.crud.executor.queue.size}, {@code webutils.crud.executor.active} -
+ *     очередь и активные потоки исполнителя асинхронного сервиса</li>
+ *     <li>{@code webutils.crud.batch.size}, {@code webutils.crud.batch.throughput} -
+ *     текущий размер пакета и последняя пропускная способность {@link BatchSizeController}</li>
+ *     <li>{@code webutils.crud.purge.rows}, {@code webutils.crud.purge.archived.rows},
+ *     {@code webutils.crud.purge.running} - прогресс очистки мягко удалённых строк</li>
+ * </ul>
+ * Регистрируется автоконфигурацией только при {@code webutils.metrics.enabled=true},
+ * поэтому при выключенных метриках сервисы не проксируются.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class CrudServiceMetricsBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    public CrudServiceMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                               boolean percentileHistogram) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.advisor = new DefaultPointcutAdvisor(
+                new CrudServiceOperationPointcut(CrudServiceMetricsInterceptor.SERVICE_OPERATIONS,
+                        CrudService.class, AsyncCrudService.class),
+                new CrudServiceMetricsInterceptor(meterRegistryProvider, percentileHistogram));
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof CrudService<?, ?> || bean instanceof AsyncCrudService<?, ?>) {
+            MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+            if (registry != null) {
+                bindServiceGauges(bean, registry);
+            }
+        }
+        return super.postProcessAfterInitialization(bean, beanName);
+    }
+
+    private void bindServiceGauges(Object service, MeterRegistry registry) {
+        Tags tags = Tags.of(CrudServiceMetricsInterceptor.ENTITY_TAG,
+                CrudServiceMetricsInterceptor.resolveEntityName(AopUtils.getTargetClass(service)));
+        if (service instanceof JpaAsyncCrudService<?, ?> asyncService && asyncService.getExecutor() != null) {
+            ThreadPoolTaskExecutor executor = asyncService.getExecutor();
+            Gauge.builder("webutils.crud.executor.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                    .description("Tasks waiting in async CrudService executor queue")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("webutils.crud.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                    .description("Active threads of async CrudService executor")
+                    .tags(tags)
+                    .register(registry);
+        }
+        if (service instanceof JpaBatchCrudService<?, ?> batchService) {
+            bindBatchSizeGauges(batchService::getBatchSizeController, tags, registry);
+        } else if (service instanceof JpaAsyncBatchService<?, ?> asyncBatchService) {
+            bindBatchSizeGauges(asyncBatchService::getBatchSizeController, tags, registry);
+        }
+        if (service instanceof JpaCrudService<?, ?> crudService && crudService.isSoftDeleteSupported()) {
+            SoftDeletePurgeProgress progress = crudService.getSoftDeletePurgeProgress();
+            FunctionCounter.builder("webutils.crud.purge.rows", progress, SoftDeletePurgeProgress::getTotalPurgedRows)
+                    .description("Soft-deleted rows physically removed by purge")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("webutils.crud.purge.archived.rows", progress, SoftDeletePurgeProgress::getTotalArchivedRows)
+                    .description("Soft-deleted rows copied to archive table by purge")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("webutils.crud.purge.running", progress, p -> p.isRunning() ? 1 : 0)
+                    .description("Whether soft-deleted rows purge is running")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    private static void bindBatchSizeGauges(Supplier<BatchSizeController> controller, Tags tags, MeterRegistry registry) {
+        Gauge.builder("webutils.crud.batch.size", controller,
+                        c -> c.get().getStatistics().currentBatchSize())
+                .description("Current batch size chosen by BatchSizeController")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("webutils.crud.batch.throughput", controller,
+                        c -> c.get().getStatistics().lastThroughput())
+                .description("Rows per second of the last flushed batch chunk")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.egorkor.webutils.postProcessor;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Срез публичных методов сервисов, реализующих один из переданных интерфейсов,
+ * по именам методов, переданных в конструктор.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class CrudServiceOperationPointcut extends StaticMethodMatcherPointcut {
+    private final Class<?>[] serviceTypes;
+    private final Set<String> operations;
+
+    CrudServiceOperationPointcut(Set<String> operations, Class<?>... serviceTypes) {
+        this.serviceTypes = serviceTypes;
+        this.operations = operations;
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return clazz -> Stream.of(serviceTypes).anyMatch(type -> type.isAssignableFrom(clazz));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return Modifier.isPublic(method.getModifiers())
+                && operations.contains(method.getName());
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.egorkor.webutils.postProcessor;
+
+import io.github.egorkor.webutils.metrics.guard.QueryGuard;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardInterceptor;
+import io.github.egorkor.webutils.service.sync.CrudBatchService;
+import io.github.egorkor.webutils.service.sync.CrudService;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Оборачивает бины {@link CrudService} прокси, проверяющим кол-во SQL выражений
+ * операций через {@link QueryGuardInterceptor}.
+ * Регистрируется автоконфигурацией только при {@code webutils.query-guard.enabled=true}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class QueryGuardBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    private static final Set<String> GUARDED_OPERATIONS = Stream.of(CrudService.class, CrudBatchService.class)
+            .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+            .map(Method::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    public QueryGuardBeanPostProcessor(ObjectProvider<QueryGuard> queryGuardProvider) {
+        this.advisor = new DefaultPointcutAdvisor(
+                new CrudServiceOperationPointcut(GUARDED_OPERATIONS, CrudService.class),
+                new QueryGuardInterceptor(queryGuardProvider));
+        setProxyTargetClass(true);
+    }
+}
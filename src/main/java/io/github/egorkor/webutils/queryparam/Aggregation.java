@@ -0,0 +1,138 @@
+package io.github.egorkor.webutils.queryparam;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Параметр агрегирующего запроса: поля группировки, агрегатные функции
+ * и необязательное условие {@code HAVING}.
+ * <p>
+ * Агрегаты задаются строками {@code поле:функция:псевдоним}, где функция -
+ * одна из агрегатных {@link Filter.Function} ({@code sum, avg, min, max, count}),
+ * псевдоним необязателен и по умолчанию равен {@code функция_поле}.
+ * Условие {@code HAVING} задаётся фильтром с функцией у поля, например {@code cost.sum():>:100}.
+ * Сортировка результата возможна по полям группировки и псевдонимам агрегатов.
+ * <pre>{@code
+ * Aggregation aggregation = Aggregation.builder()
+ *         .groupBy("user.id")
+ *         .sum("cost", "total")
+ *         .count("id", "orders")
+ *         .having(Filter.builder().greater("cost.sum()", "100").build())
+ *         .build();
+ * PageableResult<Map<String, Object>> rows = orderService.aggregate(aggregation, Filter.emptyFilter(),
+ *         Sorting.builder().desc("total").build(), new Pagination(20, 0));
+ * }</pre>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Data
+@NoArgsConstructor
+public class Aggregation {
+    private List<String> groupBy = new ArrayList<>();
+    private List<String> aggregate = new ArrayList<>();
+    private Filter<?> having = Filter.emptyFilter();
+
+    public Aggregation(List<String> groupBy, List<String> aggregate) {
+        this.groupBy = groupBy;
+        this.aggregate = aggregate;
+    }
+
+    /**
+     * Разобранные агрегаты в порядке объявления
+     *
+     * @throws IllegalArgumentException если функция не агрегатная или формат неверный
+     */
+    public List<Aggregate> getAggregates() {
+        return aggregate.stream().map(Aggregation::parseAggregate).toList();
+    }
+
+    public List<String> getGroupByFields() {
+        groupBy.forEach(Aggregation::validateField);
+        return groupBy;
+    }
+
+    private static Aggregate parseAggregate(String aggregate) {
+        String[] parts = aggregate.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("Invalid aggregate format. Expected: field:function[:alias]");
+        }
+        String field = validateField(parts[0]);
+        Filter.Function function = Arrays.stream(Filter.Function.values())
+                .filter(f -> f.isAggregate() && f.name().equalsIgnoreCase(parts[1]))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid aggregate function: " + parts[1]));
+        String alias = parts.length == 3 ? parts[2] : function.name().toLowerCase(Locale.ROOT) + "_" + field.replace('.', '_');
+        if (!alias.matches("[a-zA-Z0-9_]+")) {
+            throw new IllegalArgumentException("Invalid aggregate alias: " + alias);
+        }
+        return new Aggregate(field, function, alias);
+    }
+
+    private static String validateField(String field) {
+        if (!field.matches("[a-zA-Z0-9_]+(\\.[a-zA-Z0-9_]+)*")) {
+            throw new IllegalArgumentException("Invalid field name: " + field);
+        }
+        return field;
+    }
+
+    public static AggregationBuilder builder() {
+        return new AggregationBuilder();
+    }
+
+    public record Aggregate(String field, Filter.Function function, String alias) {
+    }
+
+    public static class AggregationBuilder {
+        private final List<String> groupBy = new ArrayList<>();
+        private final List<String> aggregate = new ArrayList<>();
+        private Filter<?> having = Filter.emptyFilter();
+
+        public AggregationBuilder groupBy(String... fields) {
+            groupBy.addAll(List.of(fields));
+            return this;
+        }
+
+        public AggregationBuilder sum(String field, String alias) {
+            return aggregate(field, Filter.Function.SUM, alias);
+        }
+
+        public AggregationBuilder avg(String field, String alias) {
+            return aggregate(field, Filter.Function.AVG, alias);
+        }
+
+        public AggregationBuilder min(String field, String alias) {
+            return aggregate(field, Filter.Function.MIN, alias);
+        }
+
+        public AggregationBuilder max(String field, String alias) {
+            return aggregate(field, Filter.Function.MAX, alias);
+        }
+
+        public AggregationBuilder count(String field, String alias) {
+            return aggregate(field, Filter.Function.COUNT, alias);
+        }
+
+        public AggregationBuilder aggregate(String field, Filter.Function function, String alias) {
+            aggregate.add("%s:%s:%s".formatted(field, function.name().toLowerCase(Locale.ROOT), alias));
+            return this;
+        }
+
+        public AggregationBuilder having(Filter<?> having) {
+            this.having = having;
+            return this;
+        }
+
+        public Aggregation build() {
+            Aggregation aggregation = new Aggregation(new ArrayList<>(groupBy), new ArrayList<>(aggregate));
+            aggregation.setHaving(having);
+            return aggregation;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.egorkor.webutils.queryparam;
+
+/**
+ * Кол-во сущностей с указанным значением поля фасета
+ *
+ * @param value значение поля в строковом виде, null для сущностей без значения
+ * @param count кол-во сущностей
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public record FacetCount(String value, long count) {
+}
@@ -2,18 +2,29 @@ package io.github.egorkor.webutils.queryparam;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.github.egorkor.webutils.annotations.FieldParamMapping;
+import io.github.egorkor.webutils.metrics.QueryShapeStatistics;
+import io.github.egorkor.webutils.metrics.jfr.FilterCompilationEvent;
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+import io.github.egorkor.webutils.queryparam.utils.DriverUtils;
 import io.github.egorkor.webutils.queryparam.utils.FieldTypeUtils;
+import io.github.egorkor.webutils.queryparam.utils.FilterStatementSetter;
+import io.github.egorkor.webutils.queryparam.utils.FilterValueConverters;
+import io.github.egorkor.webutils.queryparam.utils.InListStrategy;
 import io.github.egorkor.webutils.queryparam.utils.ParamValidationUtils;
+import jakarta.persistence.Column;
 import jakarta.persistence.criteria.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
@@ -47,6 +58,7 @@ import java.util.stream.Collectors;
  *         <li>{@link #toSQLFilter()}</li>
  *         <li>{@link #toSQLFilter(String prefix)}</li>
  *         <li>{@link #getFilterValues()}</li>
+ *         <li>{@link #toPreparedStatementSetter()}</li>
  *     </ul>
  *     <br>
  *     Пример использования Filter в связке с SQL на примере JdbcTemplate. Такое использование
@@ -106,13 +118,28 @@ public class Filter<T> implements Specification<T> {
             = Set.of("<", "<=", "=", ">=", ">");
     private static final Set<String> BASIC_OPERATORS
             = Set.of("<", "<=", "=", ">=", ">", "<>");
-    private static final String FUNCTION_REGEX = "(length\\(\\))|(size\\(\\))";
+    /**
+     * Разделитель группы условия: условия {@code g1|status:=:A} и {@code g1|status:=:B}
+     * объединяются через OR, группы и условия вне групп - через AND
+     */
+    public static final char GROUP_SEPARATOR = '|';
+    private static final String FUNCTION_REGEX = "(length|size|sum|max|min|avg|count)\\(\\)";
+    private static final DatabaseType DB_TYPE = DriverUtils.getActiveDatabaseType();
+    /**
+     * Типы значений нативного SQL пути, разрешённые один раз на поле. Преобразователь
+     * берётся из {@link FilterValueConverters} при каждом вызове, чтобы учитывать его замену
+     */
+    private static final Map<String, Class<?>> SQL_FIELD_TYPE_CACHE = new ConcurrentHashMap<>();
 
     @JsonIgnore
     private List<String> fieldWhiteList = new ArrayList<>();
     protected List<String> filter;
     protected Class<?> entityType;
     protected List<Consumer<Root<T>>> queryConfigurers = new ArrayList<>();
+    @JsonIgnore
+    protected List<String> fetchGraphPaths = new ArrayList<>();
+    @JsonIgnore
+    protected String entityGraphName;
 
     public Filter() {
         this.filter = new ArrayList<>();
@@ -148,6 +175,10 @@ public class Filter<T> implements Specification<T> {
                 .stream().map(
                         s -> validateAndSplitFilter(s)[0]
                 ).toList());
+        this.fetchGraphPaths.addAll(filter.getFetchGraphPaths());
+        if (this.entityGraphName == null) {
+            this.entityGraphName = filter.getEntityGraphName();
+        }
         return _this();
     }
     //region SQL Native Mapping
@@ -158,31 +189,55 @@ public class Filter<T> implements Specification<T> {
     }
 
     public String toSQLFilter(String prefix) {
+        return toSQLFilter(prefix, DB_TYPE);
+    }
+
+    /**
+     * Условие для указанной СУБД. Списки {@code IN} отображаются по {@link InListStrategy},
+     * значения для плейсхолдеров возвращает {@link #getFilterValues(DatabaseType)} с тем же типом СУБД
+     */
+    public String toSQLFilter(String prefix, DatabaseType dbType) {
+        QueryShapeStatistics statistics = QueryShapeStatistics.current();
+        FilterCompilationEvent event = new FilterCompilationEvent();
+        if (statistics == null && !event.isEnabled()) {
+            return buildSQLFilter(prefix, dbType);
+        }
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return buildSQLFilter(prefix, dbType);
+        } finally {
+            recordCompilation(statistics, event, QueryShapeStatistics.FilterPhase.SQL, System.nanoTime() - start);
+        }
+    }
+
+    private String buildSQLFilter(String prefix, DatabaseType dbType) {
         checkAllowedFilterFields();
         mapFilterByAllies();
         if (filter.isEmpty()) {
             return "";
         }
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < filter.size() - 1; i++) {
-            if (sb.isEmpty()) {
-                sb.append("WHERE ");
+        List<String> conditions = new ArrayList<>();
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String condition : getCanonicalFilter()) {
+            String group = conditionGroup(condition);
+            if (group.isEmpty()) {
+                conditions.add(parseCondition(condition, prefix, dbType));
+            } else {
+                groups.computeIfAbsent(group, g -> new ArrayList<>()).add(parseCondition(condition, prefix, dbType));
             }
-            sb.append(parseCondition(filter.get(i), prefix, RequestType.SQL));
-            sb.append(" AND ");
-        }
-        if (sb.isEmpty() && !filter.isEmpty()) {
-            sb.append("WHERE ");
         }
-        sb.append(parseCondition(filter.getLast(), prefix, RequestType.SQL));
-        return sb.toString().trim();
+        groups.values().forEach(group -> conditions.add(group.size() == 1
+                ? group.getFirst()
+                : "(" + String.join(" OR ", group) + ")"));
+        return ("WHERE " + String.join(" AND ", conditions)).trim();
     }
 
     public enum RequestType{
         SQL, HQL
     }
 
-    private String parseCondition(String filter, String prefix, RequestType type) {
+    private String parseCondition(String filter, String prefix, DatabaseType dbType) {
         String[] parts = validateAndSplitFilter(filter);
         String field = validateFieldName(parts[0]);
         String operation = mapOperation(parts[1].toLowerCase());
@@ -191,15 +246,21 @@ public class Filter<T> implements Specification<T> {
         return switch (operation) {
             case "=", "<>", ">", "<", ">=", "<=" -> buildBasicCondition(prefix + field, operation);
             case "IS" -> buildIsCondition(prefix + field, value);
-            case "LIKE" -> buildLikeCondition(prefix + field);
-            case "IN" -> buildInCondition(prefix + field, value);
+            case "LIKE", "STARTSWITH", "ENDSWITH" -> buildLikeCondition(prefix + field);
+            case "ILIKE" -> buildLikeCondition("LOWER(%s)".formatted(prefix + field));
+            case "EQI" -> "LOWER(%s) = ?".formatted(prefix + field);
+            case "IN" -> buildInCondition(prefix + field, value, dbType);
+            case "BETWEEN" -> {
+                splitBetweenValue(value);
+                yield "%s BETWEEN ? AND ?".formatted(prefix + field);
+            }
             default -> throw new IllegalArgumentException("Invalid operation: " + operation);
         };
     }
 
 
     private String[] validateAndSplitFilter(String filter) {
-        String[] parts = filter.split(":", 3);
+        String[] parts = stripGroup(filter).split(":", 3);
         if (parts.length != 3) {
             throw new IllegalArgumentException("Invalid filter format");
         }
@@ -234,6 +295,21 @@ public class Filter<T> implements Specification<T> {
         return "%s LIKE ? ESCAPE '!'".formatted(field);
     }
 
+    /**
+     * Шаблон LIKE для строковых операций: {@code startsWith} даёт {@code value%},
+     * который может использовать B-tree индекс, {@code ilike} приводит значение
+     * к нижнему регистру под условие {@code LOWER(field)}
+     */
+    private String likePattern(String operation, String value) {
+        String escaped = escapeLikeValue(value);
+        return switch (operation) {
+            case "startswith" -> escaped + "%";
+            case "endswith" -> "%" + escaped;
+            case "ilike" -> "%" + escaped.toLowerCase(Locale.ROOT) + "%";
+            default -> "%" + escaped + "%";
+        };
+    }
+
     private String escapeLikeValue(String value) {
         return value.replace("!", "!!")
                 .replace("%", "!%")
@@ -244,63 +320,128 @@ public class Filter<T> implements Specification<T> {
     /**
      * Возвращает значения фильтров для подстановки в PreparedStatement.
      * Автоматически обрабатывает LIKE и IN условия.
+     * Значения приводятся к типу поля, найденному по классу фильтра
+     * ({@link FieldParamMapping#sqlMapping()}) или по {@link #entityType}
+     * (имя поля, {@link Column#name()} или snake_case имя), иначе передаются строкой.
      */
     public Object[] getFilterValues() {
+        return getFilterValues(DB_TYPE);
+    }
+
+    public Object[] getFilterValues(DatabaseType dbType) {
+        mapFilterByAllies();
         List<Object> values = new ArrayList<>();
 
-        for (String filter : this.filter) {
+        for (String filter : getCanonicalFilter()) {
             String[] parts = validateAndSplitFilter(filter);
             String operation = parts[1].toLowerCase();
             String value = parts[2];
 
             switch (operation) {
-                case "like":
-                    values.add("%" + escapeLikeValue(value) + "%");
+                case "like", "startswith", "endswith", "ilike":
+                    values.add(likePattern(operation, value));
+                    break;
+                case "eqi":
+                    values.add(value.toLowerCase(Locale.ROOT));
+                    break;
+                case "between":
+                    for (String bound : splitBetweenValue(value)) {
+                        values.add(convertSqlValue(parts[0], bound));
+                    }
                     break;
                 case "in":
-                    Collections.addAll(values, parseInValues(value));
+                    values.addAll(parseInValues(parts[0], value, dbType));
                     break;
                 case "is":
                     continue;
                 default:
-                    values.add(parseValue(value, operation));
+                    values.add(convertSqlValue(parts[0], value));
             }
         }
 
         return values.toArray();
     }
 
-    private String[] parseInValues(String value) {
-        return Arrays.stream(value.split(";")).map(
-                "'%s'"::formatted
-        ).toArray(String[]::new);
+    /**
+     * Возвращает {@link PreparedStatementSetter} с типизированными значениями фильтра,
+     * который можно переиспользовать для повторных выполнений запроса
+     * из {@link #toSQLFilter(String, DatabaseType)}
+     */
+    public PreparedStatementSetter toPreparedStatementSetter() {
+        return toPreparedStatementSetter(DB_TYPE);
+    }
+
+    public PreparedStatementSetter toPreparedStatementSetter(DatabaseType dbType) {
+        return new FilterStatementSetter(getFilterValues(dbType));
+    }
+
+    private List<Object> parseInValues(String field, String value, DatabaseType dbType) {
+        List<Object> values = Arrays.stream(value.split(";"))
+                .map(v -> convertSqlValue(field, v))
+                .toList();
+        return InListStrategy.resolve(dbType, values.size()).toParameters(values);
     }
 
-    private Object parseValue(String value, String operation) {
+    private Object convertSqlValue(String field, String value) {
+        Class<?> fieldType = SQL_FIELD_TYPE_CACHE.computeIfAbsent(
+                getClass().getName() + "#" + (entityType == null ? "" : entityType.getName()) + "#" + field,
+                key -> {
+                    Class<?> type = findSqlFieldType(getClass(), field, true);
+                    if (type == null && entityType != null) {
+                        type = findSqlFieldType(entityType, field, false);
+                    }
+                    return type == null ? String.class : type;
+                });
         try {
-            if (operation.equals("is")) {
-                return parseIsValue(value);
-            }
-            return value;
+            return FilterValueConverters.forType(fieldType).apply(value);
         } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid value for operation " + operation + ": " + value, e);
+            throw new IllegalArgumentException(
+                    String.format("Cannot convert '%s' to %s: %s",
+                            value, fieldType.getSimpleName(), e.getMessage()), e);
         }
     }
 
-    private Object parseIsValue(String value) {
-        return switch (value.toLowerCase()) {
-            case "true" -> true;
-            case "false" -> false;
-            case "null" -> null;
-            case "not_null" -> "NOT NULL";
-            default -> throw new IllegalArgumentException("Invalid IS value: " + value);
-        };
+    private static Class<?> findSqlFieldType(Class<?> type, String field, boolean filterClass) {
+        String camelCase = snakeToCamelCase(field);
+        for (Class<?> current = type; current != null && current != Filter.class && current != Object.class;
+             current = current.getSuperclass()) {
+            for (Field declared : current.getDeclaredFields()) {
+                if (filterClass) {
+                    FieldParamMapping mapping = declared.getAnnotation(FieldParamMapping.class);
+                    String sqlName = mapping == null || mapping.sqlMapping().equals(FieldParamMapping.NO_MAPPING)
+                            ? declared.getName() : mapping.sqlMapping();
+                    if (sqlName.equals(field)) {
+                        return declared.getType();
+                    }
+                    continue;
+                }
+                Column column = declared.getAnnotation(Column.class);
+                if (declared.getName().equals(field) || declared.getName().equals(camelCase)
+                        || column != null && column.name().equalsIgnoreCase(field)) {
+                    return declared.getType();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String snakeToCamelCase(String field) {
+        StringBuilder result = new StringBuilder();
+        boolean upper = false;
+        for (char c : field.toCharArray()) {
+            if (c == '_') {
+                upper = result.length() > 0;
+                continue;
+            }
+            result.append(upper ? Character.toUpperCase(c) : c);
+            upper = false;
+        }
+        return result.toString();
     }
 
-    private String buildInCondition(String field, String value) {
-        String[] values = value.split(";");
-        String placeholders = String.join(",", Collections.nCopies(values.length, "?"));
-        return String.format("%s IN (%s)", field, placeholders);
+    private String buildInCondition(String field, String value, DatabaseType dbType) {
+        int size = value.split(";").length;
+        return InListStrategy.resolve(dbType, size).toSQL(field, size);
     }
 
     private String mapOperation(String operation) {
@@ -310,6 +451,7 @@ public class Filter<T> implements Specification<T> {
         return switch (operation.toLowerCase()) {
             case "!=" -> "<>";
             case "like" -> "LIKE";
+            case "startswith", "endswith", "ilike", "eqi", "between" -> operation.toUpperCase(Locale.ROOT);
             case "in" -> "IN";
             case "is" -> "IS";
             default -> throw new IllegalArgumentException("Invalid filter operation: " + filter);
@@ -322,27 +464,109 @@ public class Filter<T> implements Specification<T> {
     public Predicate toPredicate(Root<T> root,
                                  CriteriaQuery<?> query,
                                  CriteriaBuilder cb) {
-        return toPredicate(root, cb);
+        return toPredicate(root, query, cb, true);
     }
 
+    /**
+     * Построение условия без запроса. Условия по коллекциям строятся через
+     * {@code MEMBER OF}, т.к. подзапрос EXISTS требует родительского запроса
+     */
     public Predicate toPredicate(Root<T> root,
                                  CriteriaBuilder cb){
+        return toPredicate(root, null, cb, true);
+    }
+
+    /**
+     * Условия по путям через коллекцию ({@code roles:in:a;b}, {@code orders.status:=:PAID})
+     * при переданном query компилируются в полусоединение
+     * {@code EXISTS (SELECT 1 FROM <коллекция> WHERE <условие>)}, коррелированное с root,
+     * поэтому не размножают строки корневой сущности и не требуют DISTINCT.
+     *
+     * @param query          запрос или подзапрос, в котором строится условие, может быть null
+     * @param configureQuery применять ли настройки запроса ({@link #withFetchJoin(String)},
+     *                       {@link #configureQuery(Consumer)}) к root. Запрос идентификаторов
+     *                       страницы строится без них, т.к. fetch join недопустим в запросе,
+     *                       не выбирающем саму сущность
+     */
+    public Predicate toPredicate(Root<T> root,
+                                 CommonAbstractCriteria query,
+                                 CriteriaBuilder cb,
+                                 boolean configureQuery){
+        return compilePredicate(root, query, cb, configureQuery, false);
+    }
+
+    /**
+     * Построение условия {@code HAVING} группирующего запроса. В отличие от {@link #toPredicate}
+     * допускает агрегатные функции у поля ({@code cost.sum():>:100}) и не применяет
+     * настройки запроса к root
+     */
+    public Predicate toHavingPredicate(Root<T> root,
+                                       CommonAbstractCriteria query,
+                                       CriteriaBuilder cb) {
+        return compilePredicate(root, query, cb, false, true);
+    }
+
+    private Predicate compilePredicate(Root<T> root,
+                                       CommonAbstractCriteria query,
+                                       CriteriaBuilder cb,
+                                       boolean configureQuery,
+                                       boolean having) {
+        QueryShapeStatistics statistics = QueryShapeStatistics.current();
+        FilterCompilationEvent event = new FilterCompilationEvent();
+        if (statistics == null && !event.isEnabled()) {
+            return buildPredicate(root, query, cb, configureQuery, having);
+        }
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return buildPredicate(root, query, cb, configureQuery, having);
+        } finally {
+            recordCompilation(statistics, event, QueryShapeStatistics.FilterPhase.PREDICATE, System.nanoTime() - start);
+        }
+    }
+
+    private void recordCompilation(QueryShapeStatistics statistics,
+                                   FilterCompilationEvent event,
+                                   QueryShapeStatistics.FilterPhase phase,
+                                   long nanos) {
+        event.end();
+        boolean commitEvent = event.shouldCommit();
+        if (statistics == null && !commitEvent) {
+            return;
+        }
+        String shape = getShape();
+        if (statistics != null) {
+            statistics.recordFilterBuild(entityType, shape, phase, nanos);
+        }
+        if (commitEvent) {
+            event.entity = entityType == null ? null : entityType.getName();
+            event.shape = shape;
+            event.fieldCount = filter.size();
+            event.target = phase.name();
+            event.commit();
+        }
+    }
+
+    private Predicate buildPredicate(Root<T> root, CommonAbstractCriteria query, CriteriaBuilder cb,
+                                     boolean configureQuery, boolean having) {
         checkAllowedFilterFields();
         mapFilterByAllies();
-        if(queryConfigurers.isEmpty()) {
-            configureQuery(root);
-        }else{
-            queryConfigurers.forEach(c -> c.accept(root));
+        if (configureQuery) {
+            applyQueryConfigurers(root);
         }
-        Map<String, List<Predicate>> predicates = new HashMap<>();
-        filter.forEach(f -> {
-            String field = validateAndSplitFilter(f)[0];
-            if (predicates.containsKey(field)) {
-                predicates.get(field).add(parsePredicate(f, root, cb));
-            } else {
-                predicates.put(field, new ArrayList<>(List.of(parsePredicate(f, root, cb))));
-            }
+        Map<String, List<Predicate>> predicates = new LinkedHashMap<>();
+        Map<String, List<Predicate>> groups = new LinkedHashMap<>();
+        getCanonicalFilter().forEach(f -> {
+            String group = conditionGroup(f);
+            String key = group.isEmpty() ? validateAndSplitFilter(f)[0] : group;
+            (group.isEmpty() ? predicates : groups)
+                    .computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(parsePredicate(f, root, query, cb, having));
         });
+        groups.forEach((group, groupPredicates) -> predicates.put(group + GROUP_SEPARATOR,
+                new ArrayList<>(List.of(groupPredicates.size() == 1
+                        ? groupPredicates.getFirst()
+                        : cb.or(groupPredicates.toArray(new Predicate[0]))))));
         return collectPredicates(cb, predicates);
     }
 
@@ -352,6 +576,17 @@ public class Filter<T> implements Specification<T> {
      */
     protected void configureQuery(Root<T> root) {}
 
+    /**
+     * Применяет настройки запроса к root без построения условий фильтра
+     */
+    public void applyQueryConfigurers(Root<T> root) {
+        if(queryConfigurers.isEmpty()) {
+            configureQuery(root);
+        }else{
+            queryConfigurers.forEach(c -> c.accept(root));
+        }
+    }
+
     public <R> Filter<R> configureQuery(Consumer<Root<T>> queryConfigurer) {
         queryConfigurers.add(queryConfigurer);
         return _this();
@@ -364,14 +599,67 @@ public class Filter<T> implements Specification<T> {
         return _this();
     }
 
+    /**
+     * Загружает связи по путям атрибутов (например {@code "roles"}, {@code "orders.items"})
+     * отдельными запросами по идентификаторам уже выбранной страницы вместо fetch join
+     * в основном запросе. В отличие от {@link #withFetchJoin(String)} не приводит
+     * к пагинации в памяти (HHH90003004) и размножению строк коллекциями.
+     */
+    public <R> Filter<R> withFetchGraph(String... attributePaths) {
+        fetchGraphPaths.addAll(List.of(attributePaths));
+        return _this();
+    }
+
+    /**
+     * То же, что {@link #withFetchGraph(String...)}, для именованного графа {@code @NamedEntityGraph}
+     */
+    public <R> Filter<R> withEntityGraph(String entityGraphName) {
+        this.entityGraphName = entityGraphName;
+        return _this();
+    }
+
+    /**
+     * Проверяет, проходит ли путь хотя бы одного условия через коллекцию сущности
+     * (например {@code roles} или {@code orders.name}). Такие условия могут размножать
+     * строки корневой сущности, поэтому страница выбирается в два этапа:
+     * сначала идентификаторы, затем сущности.
+     */
+    @JsonIgnore
+    public boolean isCollectionFiltered() {
+        if (entityType == null) {
+            return false;
+        }
+        mapFilterByAllies();
+        for (String f : filter) {
+            Class<?> type = entityType;
+            for (String segment : validateAndSplitFilter(f)[0].split("\\.")) {
+                if (segment.toLowerCase().matches(FUNCTION_REGEX)) {
+                    break;
+                }
+                Field field = FieldTypeUtils.getField(type, segment);
+                if (Collection.class.isAssignableFrom(field.getType())) {
+                    return true;
+                }
+                type = field.getType();
+            }
+        }
+        return false;
+    }
+
+    @JsonIgnore
+    public boolean hasFetchPlan() {
+        return entityGraphName != null || !fetchGraphPaths.isEmpty();
+    }
+
     protected Predicate collectPredicates(CriteriaBuilder cb, Map<String, List<Predicate>> predicates) {
         return cb.and(predicates.values().stream()
                 .flatMap(Collection::stream)
                 .toList().toArray(new Predicate[0]));
     }
 
-    private Predicate parsePredicate(String filter, Root<T> root, CriteriaBuilder cb) {
-        String[] parts = filter.split(":");
+    private Predicate parsePredicate(String filter, Root<T> root, CommonAbstractCriteria query, CriteriaBuilder cb,
+                                     boolean having) {
+        String[] parts = stripGroup(filter).split(":", 3);
         if (parts.length != 3) {
             throw new IllegalArgumentException("Invalid filter format. Expected: field:operation:value");
         }
@@ -389,6 +677,17 @@ public class Filter<T> implements Specification<T> {
                 field = String.join(".", Arrays.copyOfRange(subFields, 0, subFields.length - 1));
             }
         }
+        if (function != null && function.isAggregate() && !having) {
+            throw new IllegalArgumentException("Aggregate function " + function.getFunction()
+                    + " is allowed only in HAVING filter: " + filter);
+        }
+
+        if (query != null && function == null) {
+            Predicate existsPredicate = parseExistsPredicate(filter, field, operation, stringValue, root, query, cb);
+            if (existsPredicate != null) {
+                return existsPredicate;
+            }
+        }
 
         Path<?> path = field.contains(".") ? getNestedPath(root, field) : root.get(field);
         Field reflectionField = FieldTypeUtils.getField(entityType, field);
@@ -400,9 +699,12 @@ public class Filter<T> implements Specification<T> {
                 case "=" -> parseEqualPredicate(cb, path, reflectionField, stringValue, function);
                 case ">", "<", ">=", "<=" ->
                         parseComparisonPredicate(cb, path, operation, reflectionField, stringValue, function);
-                case "!=" -> parseNotEqualPredicate(cb, path, fieldType, stringValue, function);
-                case "like" -> parseLikePredicate(cb, path, stringValue);
+                case "!=" -> parseNotEqualPredicate(cb, path, functionValueType(function, fieldType), stringValue, function);
+                case "like", "startswith", "endswith", "ilike", "eqi" ->
+                        parseLikePredicate(cb, path, operation, stringValue);
                 case "in" -> parseInPredicate(cb, path, reflectionField, stringValue);
+                case "between" -> parseBetweenPredicate(cb, getFunctionPath(cb, path, function),
+                        functionValueType(function, fieldType), stringValue);
                 default -> throw new IllegalArgumentException("Invalid filter operation: " + operation);
             };
         } catch (Exception e) {
@@ -412,6 +714,99 @@ public class Filter<T> implements Specification<T> {
         }
     }
 
+    /**
+     * Строит {@code EXISTS} подзапрос для пути через коллекцию: сегменты до последней коллекции
+     * включительно присоединяются в подзапросе к коррелированному root, остальные
+     * берутся как атрибуты элемента. Возвращает null, если путь не проходит через коллекцию.
+     */
+    private Predicate parseExistsPredicate(String filter,
+                                           String field,
+                                           String operation,
+                                           String stringValue,
+                                           Root<T> root,
+                                           CommonAbstractCriteria query,
+                                           CriteriaBuilder cb) {
+        String[] segments = field.split("\\.");
+        Class<?> valueType = entityType;
+        int lastCollectionIndex = -1;
+        for (int i = 0; i < segments.length; i++) {
+            Field segmentField = FieldTypeUtils.getField(valueType, segments[i]);
+            if (Collection.class.isAssignableFrom(segmentField.getType())) {
+                lastCollectionIndex = i;
+                valueType = getCollectionElementType(segmentField);
+            } else {
+                valueType = segmentField.getType();
+            }
+        }
+        if (lastCollectionIndex < 0) {
+            return null;
+        }
+
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        From<?, ?> from = subquery.correlate(root);
+        for (int i = 0; i <= lastCollectionIndex; i++) {
+            from = from.join(segments[i]);
+        }
+        Path<?> path = from;
+        for (int i = lastCollectionIndex + 1; i < segments.length; i++) {
+            path = path.get(segments[i]);
+        }
+
+        try {
+            Predicate condition = switch (operation) {
+                case "is" -> parseIsPredicate(cb, path, stringValue);
+                case "=" -> cb.equal(path, convertValue(stringValue, valueType));
+                case ">", "<", ">=", "<=" -> compare(cb, (Expression<Comparable>) path, operation,
+                        (Comparable<?>) convertValue(stringValue, valueType));
+                case "!=" -> parseNotEqualPredicate(cb, path, valueType, stringValue, null);
+                case "like", "startswith", "endswith", "ilike", "eqi" ->
+                        parseLikePredicate(cb, path, operation, stringValue);
+                case "in" -> inPredicate(cb, path, convertInValues(stringValue, valueType));
+                case "between" -> parseBetweenPredicate(cb, path, valueType, stringValue);
+                default -> throw new IllegalArgumentException("Invalid filter operation: " + operation);
+            };
+            return cb.exists(subquery.select(cb.literal(1)).where(condition));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(
+                    String.format("Error processing filter '%s' for field '%s' (type %s): %s",
+                            filter, field, valueType.getSimpleName(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Списки длиннее {@link InListStrategy#CHUNK_SIZE} разбиваются на OR нескольких IN
+     */
+    private Predicate inPredicate(CriteriaBuilder cb, Path<?> path, Object[] values) {
+        if (values.length <= InListStrategy.CHUNK_SIZE) {
+            return path.in(padInValues(values, InListStrategy.paddedSize(values.length)));
+        }
+        List<Predicate> chunks = new ArrayList<>();
+        for (int from = 0; from < values.length; from += InListStrategy.CHUNK_SIZE) {
+            Object[] chunk = Arrays.copyOfRange(values, from, Math.min(from + InListStrategy.CHUNK_SIZE, values.length));
+            chunks.add(path.in(padInValues(chunk, InListStrategy.paddedSize(chunk.length))));
+        }
+        return cb.or(chunks.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Дополняет список значений повтором последнего до размера корзины,
+     * чтобы списки разной длины давали одинаковый SQL
+     */
+    private static Object[] padInValues(Object[] values, int size) {
+        if (values.length >= size) {
+            return values;
+        }
+        Object[] padded = Arrays.copyOf(values, size);
+        Arrays.fill(padded, values.length, size, values[values.length - 1]);
+        return padded;
+    }
+
+    private Object[] convertInValues(String stringValue, Class<?> targetType) {
+        return Arrays.stream(stringValue.split(";"))
+                .map(v -> convertValue(v, targetType))
+                .toArray();
+    }
+
     private Predicate parseInPredicate(CriteriaBuilder cb, Path<?> path, Field reflectionField, String stringValue) {
         String[] stringValues = stringValue.split(";");
 
@@ -427,36 +822,27 @@ public class Filter<T> implements Specification<T> {
         }
 
         // Для обычных полей
-        Object[] values = Arrays.stream(stringValues)
-                .map(v -> convertValue(v, reflectionField.getType()))
-                .toArray();
-        return path.in(values);
+        return inPredicate(cb, path, convertInValues(stringValue, reflectionField.getType()));
     }
 
     private Class<?> getCollectionElementType(Field field) {
-        Type type = field.getGenericType();
-        if (type instanceof ParameterizedType) {
-            Type[] typeArgs = ((ParameterizedType) type).getActualTypeArguments();
-            if (typeArgs.length > 0 && typeArgs[0] instanceof Class) {
-                return (Class<?>) typeArgs[0];
-            }
-        }
-        return String.class;
+        return FieldTypeUtils.getCollectionElementType(field);
     }
 
-    private Object convertValue(String stringValue, Class<?> targetType) {
+    /**
+     * Преобразует строковое значение параметра запроса к типу поля сущности
+     * с помощью кэшированного преобразователя из {@link FilterValueConverters}
+     *
+     * @param stringValue строковое значение
+     * @param targetType  тип поля
+     * @return значение приведённое к targetType
+     * @throws IllegalArgumentException если тип не поддерживается или значение не может быть преобразовано
+     */
+    public static Object convertValue(String stringValue, Class<?> targetType) {
         if (stringValue == null) return null;
 
         try {
-            if (targetType == String.class) return stringValue;
-            if (targetType == Integer.class || targetType == int.class) return Integer.parseInt(stringValue);
-            if (targetType == Long.class || targetType == long.class) return Long.parseLong(stringValue);
-            if (targetType == Double.class || targetType == double.class) return Double.parseDouble(stringValue);
-            if (targetType == Float.class || targetType == float.class) return Float.parseFloat(stringValue);
-            if (targetType == Boolean.class || targetType == boolean.class) return Boolean.parseBoolean(stringValue);
-            if (targetType.isEnum()) return Enum.valueOf((Class<Enum>) targetType, stringValue);
-
-            throw new IllegalArgumentException("Unsupported target type: " + targetType.getName());
+            return FilterValueConverters.forType(targetType).apply(stringValue);
         } catch (Exception e) {
             throw new IllegalArgumentException(
                     String.format("Cannot convert '%s' to %s: %s",
@@ -485,7 +871,7 @@ public class Filter<T> implements Specification<T> {
             }
             return cb.isMember(convertedValue, (Path<Collection>) path);
         }
-        Object value = convertValue(stringValue, reflectionField.getType());
+        Object value = convertValue(stringValue, functionValueType(function, reflectionField.getType()));
         return cb.equal(getFunctionPath(cb, path, function), value);
     }
 
@@ -496,11 +882,25 @@ public class Filter<T> implements Specification<T> {
         return switch (function) {
             case LENGTH -> cb.length(getTypedPath(current, String.class));
             case SIZE -> cb.size(getTypedPath(current, Collection.class));
-            default -> throw new IllegalArgumentException("");
+            case SUM -> cb.sum((Expression<Number>) current);
+            case AVG -> cb.avg((Expression<Number>) current);
+            case MAX -> greatest(cb, current);
+            case MIN -> least(cb, current);
+            case COUNT -> cb.count(current);
         };
 
     }
 
+    @SuppressWarnings("unchecked")
+    private static <X extends Comparable<? super X>> Expression<X> greatest(CriteriaBuilder cb, Path<?> path) {
+        return cb.greatest((Expression<X>) path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X extends Comparable<? super X>> Expression<X> least(CriteriaBuilder cb, Path<?> path) {
+        return cb.least((Expression<X>) path);
+    }
+
     private Predicate parseComparisonPredicate(CriteriaBuilder cb, Path<?> path, String operation,
                                                Field reflectionField, String stringValue, Function function) {
         if (!Comparable.class.isAssignableFrom(reflectionField.getType())
@@ -527,16 +927,47 @@ public class Filter<T> implements Specification<T> {
             return cb.isMember(convertedValue, (Path<Collection>) path);
         }
 
-        Comparable<?> value = (Comparable<?>) convertValue(stringValue, reflectionField.getType());
+        Comparable<?> value = (Comparable<?>) convertValue(stringValue,
+                functionValueType(function, reflectionField.getType()));
+        return compare(cb, comparablePath, operation, value);
+    }
+
+    /**
+     * Тип значения условия над функцией: длина и размер - целые, {@code count()} - Long,
+     * {@code avg()} - Double, остальные агрегаты сохраняют тип поля
+     */
+    private static Class<?> functionValueType(Function function, Class<?> fieldType) {
+        if (function == null) {
+            return fieldType;
+        }
+        return switch (function) {
+            case LENGTH, SIZE -> Integer.class;
+            case COUNT -> Long.class;
+            case AVG -> Double.class;
+            default -> fieldType;
+        };
+    }
+
+    private Predicate compare(CriteriaBuilder cb, Expression<Comparable> path, String operation, Comparable<?> value) {
         return switch (operation) {
-            case ">" -> cb.greaterThan(comparablePath, (Comparable) value);
-            case "<" -> cb.lessThan(comparablePath, (Comparable) value);
-            case ">=" -> cb.greaterThanOrEqualTo(comparablePath, (Comparable) value);
-            case "<=" -> cb.lessThanOrEqualTo(comparablePath, (Comparable) value);
+            case ">" -> cb.greaterThan(path, (Comparable) value);
+            case "<" -> cb.lessThan(path, (Comparable) value);
+            case ">=" -> cb.greaterThanOrEqualTo(path, (Comparable) value);
+            case "<=" -> cb.lessThanOrEqualTo(path, (Comparable) value);
             default -> throw new IllegalArgumentException("Invalid comparison operation: " + operation);
         };
     }
 
+    private Predicate parseBetweenPredicate(CriteriaBuilder cb, Expression<?> path, Class<?> valueType, String stringValue) {
+        if (!valueType.isPrimitive() && !Comparable.class.isAssignableFrom(valueType)) {
+            throw new IllegalArgumentException("Field " + path + " is not comparable");
+        }
+        String[] bounds = splitBetweenValue(stringValue);
+        return cb.between((Expression<Comparable>) path,
+                (Comparable) convertValue(bounds[0], valueType),
+                (Comparable) convertValue(bounds[1], valueType));
+    }
+
     private Predicate parseNotEqualPredicate(CriteriaBuilder cb,
                                              Path<?> path,
                                              Class<?> fieldType,
@@ -546,9 +977,13 @@ public class Filter<T> implements Specification<T> {
         return cb.notEqual(getFunctionPath(cb, path, function), value);
     }
 
-    private Predicate parseLikePredicate(CriteriaBuilder cb, Path<?> path, String stringValue) {
+    private Predicate parseLikePredicate(CriteriaBuilder cb, Path<?> path, String operation, String stringValue) {
         Path<String> stringPath = getTypedPath(path, String.class);
-        return cb.like(stringPath, "%" + stringValue + "%");
+        return switch (operation) {
+            case "eqi" -> cb.equal(cb.lower(stringPath), stringValue.toLowerCase(Locale.ROOT));
+            case "ilike" -> cb.like(cb.lower(stringPath), likePattern(operation, stringValue), '!');
+            default -> cb.like(stringPath, likePattern(operation, stringValue), '!');
+        };
     }
 
     private <X> Path<X> getTypedPath(Path<?> path, Class<X> type) {
@@ -594,6 +1029,179 @@ public class Filter<T> implements Specification<T> {
                 this::validateAndSplitFilter);
     }
 
+    /**
+     * Проверяет имена полей по тем же правилам, что и условия фильтра (поля наследника,
+     * {@link #fieldWhiteList}, {@link io.github.egorkor.webutils.annotations.ParamCountLimit})
+     * и отображает их по {@link FieldParamMapping#sqlMapping()}
+     *
+     * @param fields имена полей в запросе клиента
+     * @return имена полей сущности в том же порядке
+     */
+    public List<String> resolveFieldNames(List<String> fields) {
+        List<String> conditions = fields.stream()
+                .map(field -> field + ":=:")
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (this.getClass() != Filter.class) {
+            ParamValidationUtils.validateAllowedParams(conditions, this.getClass(),
+                    ParamValidationUtils.ParamType.FILTER, this::validateAndSplitFilter, fieldWhiteList);
+            ParamValidationUtils.mapParamsByFilter(conditions, this.getClass(), this::validateAndSplitFilter);
+        }
+        return conditions.stream()
+                .map(condition -> validateAndSplitFilter(condition)[0])
+                .toList();
+    }
+
+    /**
+     * Копия фильтра, в условиях которой имена полей заменены mapper-ом, например на имена колонок.
+     * Поля предварительно проверяются и отображаются по псевдонимам, как при построении запроса,
+     * группы условий сохраняются.
+     */
+    public Filter<T> mapFieldNames(UnaryOperator<String> mapper) {
+        checkAllowedFilterFields();
+        mapFilterByAllies();
+        List<String> mapped = filter.stream()
+                .map(condition -> {
+                    String group = conditionGroup(condition);
+                    String[] parts = validateAndSplitFilter(condition);
+                    return (group.isEmpty() ? "" : group + GROUP_SEPARATOR)
+                            + mapper.apply(parts[0]) + ":" + parts[1] + ":" + parts[2];
+                })
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new Filter<>(mapped, (Class<T>) entityType);
+    }
+
+    /**
+     * Имена полей условий фильтра без групп, операций и значений, в порядке первого появления
+     */
+    @JsonIgnore
+    public Set<String> getConditionFields() {
+        return filter.stream()
+                .map(condition -> validateAndSplitFilter(condition)[0])
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Признак возможности проверить условия фильтра над сущностью в памяти через {@link #matches(Object)}:
+     * задан {@link #entityType} и все условия ссылаются на простые поля сущности,
+     * без вложенных путей, коллекций и функций.
+     */
+    @JsonIgnore
+    public boolean isMatchableInMemory() {
+        if (entityType == null) {
+            return false;
+        }
+        try {
+            checkAllowedFilterFields();
+            mapFilterByAllies();
+            filter.forEach(condition -> getInMemoryField(validateAndSplitFilter(condition)[0]));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Проверяет условия фильтра над сущностью в памяти, без запроса к БД.
+     * Условия вне групп объединяются через AND, условия одной группы - через OR.
+     * Как и в SQL, сравнение с null значением поля даёт false для всех операций, кроме {@code is}.
+     *
+     * @param entity проверяемая сущность
+     * @return true, если сущность удовлетворяет фильтру
+     * @throws UnsupportedOperationException если условие не может быть проверено в памяти,
+     *                                       см. {@link #isMatchableInMemory()}
+     */
+    public boolean matches(T entity) {
+        if (entityType == null) {
+            throw new UnsupportedOperationException("Entity type is required for in-memory filter matching");
+        }
+        checkAllowedFilterFields();
+        mapFilterByAllies();
+        Map<String, Boolean> groups = new HashMap<>();
+        for (String condition : filter) {
+            String group = conditionGroup(condition);
+            boolean matched = matchesCondition(entity, validateAndSplitFilter(condition));
+            if (group.isEmpty() && !matched) {
+                return false;
+            }
+            if (!group.isEmpty()) {
+                groups.merge(group, matched, Boolean::logicalOr);
+            }
+        }
+        return !groups.containsValue(false);
+    }
+
+    @SneakyThrows
+    private boolean matchesCondition(T entity, String[] parts) {
+        Field field = getInMemoryField(parts[0]);
+        String operation = parts[1].toLowerCase();
+        String stringValue = parts[2];
+        Object actual = field.get(entity);
+        Class<?> valueType = field.getType();
+        if (operation.equals("is")) {
+            return switch (stringValue) {
+                case "true" -> Boolean.TRUE.equals(actual);
+                case "false" -> Boolean.FALSE.equals(actual);
+                case "null" -> actual == null;
+                case "not_null" -> actual != null;
+                default -> throw new IllegalArgumentException("Invalid is-operation value: " + stringValue);
+            };
+        }
+        if (actual == null) {
+            return false;
+        }
+        return switch (operation) {
+            case "=" -> equalsInMemory(actual, convertValue(stringValue, valueType));
+            case "!=" -> !equalsInMemory(actual, convertValue(stringValue, valueType));
+            case ">" -> compareInMemory(actual, convertValue(stringValue, valueType)) > 0;
+            case "<" -> compareInMemory(actual, convertValue(stringValue, valueType)) < 0;
+            case ">=" -> compareInMemory(actual, convertValue(stringValue, valueType)) >= 0;
+            case "<=" -> compareInMemory(actual, convertValue(stringValue, valueType)) <= 0;
+            case "in" -> Arrays.stream(convertInValues(stringValue, valueType))
+                    .anyMatch(value -> equalsInMemory(actual, value));
+            case "between" -> {
+                String[] bounds = splitBetweenValue(stringValue);
+                yield compareInMemory(actual, convertValue(bounds[0], valueType)) >= 0
+                        && compareInMemory(actual, convertValue(bounds[1], valueType)) <= 0;
+            }
+            case "like" -> actual.toString().contains(stringValue);
+            case "startswith" -> actual.toString().startsWith(stringValue);
+            case "endswith" -> actual.toString().endsWith(stringValue);
+            case "ilike" -> actual.toString().toLowerCase(Locale.ROOT)
+                    .contains(stringValue.toLowerCase(Locale.ROOT));
+            case "eqi" -> actual.toString().toLowerCase(Locale.ROOT)
+                    .equals(stringValue.toLowerCase(Locale.ROOT));
+            default -> throw new IllegalArgumentException("Invalid filter operation: " + operation);
+        };
+    }
+
+    private Field getInMemoryField(String field) {
+        if (field.contains(".")) {
+            throw new UnsupportedOperationException("Nested field cannot be matched in memory: " + field);
+        }
+        Field reflectionField = FieldTypeUtils.getField(entityType, field);
+        if (Collection.class.isAssignableFrom(reflectionField.getType())) {
+            throw new UnsupportedOperationException("Collection field cannot be matched in memory: " + field);
+        }
+        return reflectionField;
+    }
+
+    /**
+     * Сравнение через compareTo, чтобы, как в БД, {@code BigDecimal} 1.0 и 1.00 считались равными
+     */
+    private static boolean equalsInMemory(Object actual, Object value) {
+        if (actual instanceof Comparable comparable && actual.getClass().isInstance(value)) {
+            return comparable.compareTo(value) == 0;
+        }
+        return actual.equals(value);
+    }
+
+    private static int compareInMemory(Object actual, Object value) {
+        if (actual instanceof Comparable comparable && actual.getClass().isInstance(value)) {
+            return comparable.compareTo(value);
+        }
+        throw new UnsupportedOperationException("Values cannot be ordered in memory: " + actual + ", " + value);
+    }
+
     private void checkAllowedFilterFields() {
         if (this.getClass() == Filter.class) {
             return;
@@ -608,6 +1216,68 @@ public class Filter<T> implements Specification<T> {
 
     //region Utility Methods
 
+    /**
+     * Форма фильтра - отсортированный список пар {@code поле:операция} без значений,
+     * например {@code "age:>,name:like"}. Запросы с одинаковой формой отличаются только
+     * значениями условий и используют одни и те же индексы.
+     */
+    @JsonIgnore
+    public String getShape() {
+        return filter.stream()
+                .map(Filter::conditionShape)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Условия в каноническом порядке: сначала условия вне групп, затем OR группы,
+     * внутри - по форме {@code поле:операция}, порядок условий
+     * с одинаковой формой сохраняется. Фильтры с одинаковой формой, заданные в разном порядке,
+     * дают одинаковый SQL и одинаковое дерево Criteria запроса, что позволяет
+     * переиспользовать планы запросов и подготовленные выражения.
+     */
+    @JsonIgnore
+    public List<String> getCanonicalFilter() {
+        return filter.stream()
+                .sorted(Comparator.comparing((String condition) -> conditionGroup(condition))
+                        .thenComparing(Filter::conditionShape))
+                .toList();
+    }
+
+    /**
+     * Группа условия {@code группа|поле:операция:значение}, пустая строка для условий вне групп
+     */
+    private static String conditionGroup(String condition) {
+        int separator = condition.indexOf(GROUP_SEPARATOR);
+        int colon = condition.indexOf(':');
+        if (separator < 0 || colon >= 0 && separator > colon) {
+            return "";
+        }
+        String group = condition.substring(0, separator);
+        if (!group.matches("[a-zA-Z0-9_]+")) {
+            throw new IllegalArgumentException("Invalid filter group: " + group);
+        }
+        return group;
+    }
+
+    private static String stripGroup(String condition) {
+        String group = conditionGroup(condition);
+        return group.isEmpty() ? condition : condition.substring(group.length() + 1);
+    }
+
+    private static String[] splitBetweenValue(String value) {
+        String[] bounds = value.split(";", -1);
+        if (bounds.length != 2 || bounds[0].isEmpty() || bounds[1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid between value, expected low;high: " + value);
+        }
+        return bounds;
+    }
+
+    private static String conditionShape(String condition) {
+        String[] parts = condition.split(":", 3);
+        return parts.length < 2 ? parts[0] : parts[0] + ":" + parts[1].toLowerCase();
+    }
+
     public static FilterBuilder builder() {
         return new FilterBuilder();
     }
@@ -683,6 +1353,42 @@ public class Filter<T> implements Specification<T> {
             return this;
         }
 
+        public FilterBuilder startsWith(String field, String value) {
+            filters.add(new FilterUnit(field, FilterOperation.STARTS_WITH, value));
+            return this;
+        }
+
+        public FilterBuilder endsWith(String field, String value) {
+            filters.add(new FilterUnit(field, FilterOperation.ENDS_WITH, value));
+            return this;
+        }
+
+        public FilterBuilder ilike(String field, String value) {
+            filters.add(new FilterUnit(field, FilterOperation.ILIKE, value));
+            return this;
+        }
+
+        public FilterBuilder equalsIgnoreCase(String field, String value) {
+            filters.add(new FilterUnit(field, FilterOperation.EQUALS_IGNORE_CASE, value));
+            return this;
+        }
+
+        public FilterBuilder between(String field, String low, String high) {
+            filters.add(new FilterUnit(field, FilterOperation.BETWEEN, low + ";" + high));
+            return this;
+        }
+
+        /**
+         * Условия, добавленные в consumer, объединяются через OR в группу с указанным именем
+         */
+        public FilterBuilder or(String group, Consumer<FilterBuilder> conditions) {
+            FilterBuilder groupBuilder = new FilterBuilder();
+            conditions.accept(groupBuilder);
+            groupBuilder.filters.forEach(unit -> filters.add(new FilterUnit(
+                    group + GROUP_SEPARATOR + unit.field(), unit.filterOperation(), unit.value())));
+            return this;
+        }
+
         public FilterBuilder in(String field, String... values) {
             filters.add(new FilterUnit(field, FilterOperation.IN, String.join(";", values)));
             return this;
@@ -726,10 +1432,15 @@ public class Filter<T> implements Specification<T> {
         SUM("sum()"),
         MAX("max()"),
         AVG("avg()"),
-        MIN("min()");
+        MIN("min()"),
+        COUNT("count()");
 
         private final String function;
 
+        public boolean isAggregate() {
+            return this != LENGTH && this != SIZE;
+        }
+
         public static Function parseByOperation(String operation) {
             for (Function func : values()) {
                 if (operation.equals(func.function)) {
@@ -761,6 +1472,11 @@ public class Filter<T> implements Specification<T> {
         LS("<"),
         LSE("<="),
         LIKE("like"),
+        STARTS_WITH("startswith"),
+        ENDS_WITH("endswith"),
+        ILIKE("ilike"),
+        EQUALS_IGNORE_CASE("eqi"),
+        BETWEEN("between"),
         IS("is"),
         IN("in");
 
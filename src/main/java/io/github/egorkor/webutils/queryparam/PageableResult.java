@@ -32,6 +32,14 @@ public class PageableResult<T> {
     private long count;
     private long pageCount;
     private long pageSize;
+    /**
+     * false, если count - оценка по статистике СУБД, а не точный {@code COUNT(*)}
+     */
+    private boolean exact;
+
+    public PageableResult(List<T> data, long count, long pageCount, long pageSize) {
+        this(data, count, pageCount, pageSize, true);
+    }
 
     public static <T> PageableResult<T> of(Page<T> page) {
         return of(page.stream().toList(), page.getTotalElements(), page.getTotalPages(), page.getSize());
@@ -45,11 +53,18 @@ public class PageableResult<T> {
         return new PageableResult<>(data, count, countPages(count, pageSize), pageSize);
     }
 
+    /**
+     * Результат с приблизительным кол-вом элементов
+     */
+    public static <T> PageableResult<T> ofEstimated(List<T> data, long estimatedCount, long pageSize) {
+        return new PageableResult<>(data, estimatedCount, countPages(estimatedCount, pageSize), pageSize, false);
+    }
+
     public static int countPages(long count, long pageSize) {
         return (int) Math.ceil((double) count / pageSize);
     }
 
     public <R> PageableResult<R> map(Function<? super List<T>, ? extends List<R>> mapper) {
-        return new PageableResult<>(mapper.apply(data), count, pageCount, pageSize);
+        return new PageableResult<>(mapper.apply(data), count, pageCount, pageSize, exact);
     }
 }
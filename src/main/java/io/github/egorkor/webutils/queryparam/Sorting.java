@@ -34,7 +34,6 @@ import static io.github.egorkor.webutils.queryparam.Filter.getNestedPath;
  * @author EgorKor
  * @since 2025
  */
-//TODO: group by
 @Data
 public class Sorting {
     private List<String> sort = new ArrayList<>();
@@ -33,4 +33,23 @@ public enum DatabaseType {
         }
         return OTHER;
     }
+
+    /**
+     * Определяет тип СУБД по имени продукта из {@link java.sql.DatabaseMetaData#getDatabaseProductName()}
+     */
+    public static DatabaseType fromProductName(String productName) {
+        if (productName == null) {
+            return OTHER;
+        }
+        String name = productName.toLowerCase();
+        if (name.contains("postgres")) return POSTGRESQL;
+        if (name.contains("mariadb")) return MARIADB;
+        if (name.contains("mysql")) return MYSQL;
+        if (name.contains("oracle")) return ORACLE;
+        if (name.contains("microsoft") || name.contains("sql server")) return SQL_SERVER;
+        if (name.startsWith("db2")) return DB2;
+        if (name.equals("h2")) return H2;
+        if (name.contains("sqlite")) return SQLITE;
+        return OTHER;
+    }
 }
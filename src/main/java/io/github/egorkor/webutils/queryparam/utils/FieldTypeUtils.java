@@ -4,6 +4,8 @@ import lombok.SneakyThrows;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -57,6 +59,20 @@ public class FieldTypeUtils {
         return field;
     }
 
+    /**
+     * Type of collection elements declared by the field's generic type, String if it cannot be resolved
+     */
+    public static Class<?> getCollectionElementType(Field field) {
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType parameterizedType) {
+            Type[] typeArgs = parameterizedType.getActualTypeArguments();
+            if (typeArgs.length > 0 && typeArgs[0] instanceof Class<?> elementType) {
+                return elementType;
+            }
+        }
+        return String.class;
+    }
+
     public static String getPureClassNameByGenericType(String input){
         return input.substring(
                 input.indexOf("<") + 1, input.length() - 1
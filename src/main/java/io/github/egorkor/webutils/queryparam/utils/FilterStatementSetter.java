@@ -0,0 +1,63 @@
+package io.github.egorkor.webutils.queryparam.utils;
+
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link PreparedStatementSetter} для типизированных значений
+ * {@link io.github.egorkor.webutils.queryparam.Filter#getFilterValues(DatabaseType)}.
+ * Значения вычисляются один раз, сам setter можно переиспользовать для повторных выполнений.
+ * Java массивы (стратегия {@link InListStrategy#ARRAY}) передаются как SQL массивы
+ * через {@link java.sql.Connection#createArrayOf(String, Object[])}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class FilterStatementSetter implements PreparedStatementSetter {
+    private static final Map<Class<?>, String> SQL_ARRAY_TYPES = Map.of(
+            String.class, "varchar",
+            Integer.class, "integer",
+            Long.class, "bigint",
+            Double.class, "float8",
+            Boolean.class, "boolean",
+            BigDecimal.class, "numeric",
+            UUID.class, "uuid",
+            LocalDate.class, "date",
+            LocalDateTime.class, "timestamp",
+            Instant.class, "timestamptz"
+    );
+
+    private final Object[] values;
+
+    public FilterStatementSetter(Object[] values) {
+        this.values = values.clone();
+    }
+
+    @Override
+    public void setValues(PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value instanceof Object[] array) {
+                String typeName = SQL_ARRAY_TYPES.getOrDefault(array.getClass().getComponentType(), "varchar");
+                ps.setArray(i + 1, ps.getConnection().createArrayOf(typeName, array));
+            } else {
+                StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, value);
+            }
+        }
+    }
+
+    public Object[] getValues() {
+        return values.clone();
+    }
+}
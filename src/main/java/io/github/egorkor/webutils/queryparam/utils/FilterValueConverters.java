@@ -0,0 +1,114 @@
+package io.github.egorkor.webutils.queryparam.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Реестр преобразователей строковых значений фильтра к типам полей сущностей.
+ * <p>
+ * Преобразователь ищется один раз на тип и кэшируется, для перечислений
+ * используется заранее построенная карта имя -> константа вместо {@link Enum#valueOf}.
+ * Собственные типы регистрируются через {@link #register(Class, Function)},
+ * регистрацию следует выполнять при старте приложения до первого использования фильтров.
+ * <pre>{@code
+ * FilterValueConverters.register(Money.class, Money::parse);
+ * }</pre>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public final class FilterValueConverters {
+    private static final Map<Class<?>, Function<String, ?>> REGISTERED = new ConcurrentHashMap<>();
+    private static final ClassValue<Function<String, Object>> RESOLVED = new ClassValue<>() {
+        @Override
+        protected Function<String, Object> computeValue(Class<?> type) {
+            return createConverter(type);
+        }
+    };
+
+    static {
+        register(String.class, Function.identity());
+        register(Integer.class, Integer::valueOf);
+        register(int.class, Integer::valueOf);
+        register(Long.class, Long::valueOf);
+        register(long.class, Long::valueOf);
+        register(Short.class, Short::valueOf);
+        register(short.class, Short::valueOf);
+        register(Double.class, Double::valueOf);
+        register(double.class, Double::valueOf);
+        register(Float.class, Float::valueOf);
+        register(float.class, Float::valueOf);
+        register(Boolean.class, Boolean::valueOf);
+        register(boolean.class, Boolean::valueOf);
+        register(BigDecimal.class, BigDecimal::new);
+        register(BigInteger.class, BigInteger::new);
+        register(UUID.class, UUID::fromString);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(Instant.class, Instant::parse);
+        register(OffsetDateTime.class, OffsetDateTime::parse);
+        register(ZonedDateTime.class, ZonedDateTime::parse);
+    }
+
+    private FilterValueConverters() {
+    }
+
+    /**
+     * Регистрирует (или заменяет) преобразователь для типа
+     */
+    public static <T> void register(Class<T> type, Function<String, ? extends T> converter) {
+        REGISTERED.put(type, converter);
+        RESOLVED.remove(type);
+    }
+
+    /**
+     * Удаляет зарегистрированный преобразователь для типа, например после тестов.
+     * Перечисления после удаления снова преобразуются по именам констант
+     */
+    public static void unregister(Class<?> type) {
+        REGISTERED.remove(type);
+        RESOLVED.remove(type);
+    }
+
+    /**
+     * Возвращает кэшированный преобразователь для типа
+     *
+     * @throws IllegalArgumentException если тип не поддерживается
+     */
+    public static Function<String, Object> forType(Class<?> type) {
+        return RESOLVED.get(type);
+    }
+
+    public static boolean supports(Class<?> type) {
+        return REGISTERED.containsKey(type) || type.isEnum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<String, Object> createConverter(Class<?> type) {
+        Function<String, ?> registered = REGISTERED.get(type);
+        if (registered != null) {
+            return (Function<String, Object>) registered;
+        }
+        if (type.isEnum()) {
+            Map<String, Object> constants = Arrays.stream(type.getEnumConstants())
+                    .collect(Collectors.toUnmodifiableMap(c -> ((Enum<?>) c).name(), c -> c));
+            return value -> {
+                Object constant = constants.get(value);
+                if (constant == null) {
+                    throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+                }
+                return constant;
+            };
+        }
+        throw new IllegalArgumentException("Unsupported target type: " + type.getName());
+    }
+}
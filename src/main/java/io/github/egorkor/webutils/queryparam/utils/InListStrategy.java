@@ -0,0 +1,152 @@
+package io.github.egorkor.webutils.queryparam.utils;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Стратегии отображения условия {@code IN} в нативный SQL
+ * <ul>
+ *     <li>{@link #EXPANDED} - {@code field IN (?,?,?)}, по параметру на значение</li>
+ *     <li>{@link #PADDED} - то же, но кол-во параметров дополняется до степени двойки
+ *     повтором последнего значения, чтобы списки разной длины давали ограниченное число
+ *     различных SQL строк и переиспользовали планы</li>
+ *     <li>{@link #CHUNKED} - {@code (field IN (...) OR field IN (...))} порциями
+ *     по {@link #CHUNK_SIZE}, т.к. Oracle ограничивает список IN 1000 элементами</li>
+ *     <li>{@link #ARRAY} - {@code field = ANY(?)} с одним параметром-массивом (PostgreSQL),
+ *     одна SQL строка для любого кол-ва значений</li>
+ *     <li>{@link #JSON_TABLE} - {@code field IN (SELECT value FROM OPENJSON(?))} с одним параметром,
+ *     содержащим JSON массив значений (SQL Server ограничивает запрос 2100 параметрами)</li>
+ * </ul>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public enum InListStrategy {
+    EXPANDED, PADDED, CHUNKED, ARRAY, JSON_TABLE;
+
+    /**
+     * Списки длиннее порога дополняются до степени двойки
+     */
+    public static final int PADDING_THRESHOLD = 10;
+    /**
+     * Максимальный размер одного списка IN
+     */
+    public static final int CHUNK_SIZE = 1000;
+    /**
+     * Для SQL Server списки длиннее порога передаются одним JSON параметром
+     */
+    public static final int JSON_TABLE_THRESHOLD = 2000;
+
+    public static InListStrategy resolve(DatabaseType dbType, int size) {
+        if (dbType == DatabaseType.POSTGRESQL) {
+            return ARRAY;
+        }
+        if (dbType == DatabaseType.SQL_SERVER && size > JSON_TABLE_THRESHOLD) {
+            return JSON_TABLE;
+        }
+        if (size > CHUNK_SIZE) {
+            return CHUNKED;
+        }
+        return size > PADDING_THRESHOLD ? PADDED : EXPANDED;
+    }
+
+    public String toSQL(String field, int size) {
+        return switch (this) {
+            case EXPANDED -> inList(field, size);
+            case PADDED -> inList(field, paddedSize(size));
+            case CHUNKED -> {
+                List<String> chunks = new ArrayList<>();
+                for (int from = 0; from < size; from += CHUNK_SIZE) {
+                    int chunk = Math.min(CHUNK_SIZE, size - from);
+                    chunks.add(inList(field, from + chunk == size ? paddedSize(chunk) : chunk));
+                }
+                yield "(" + String.join(" OR ", chunks) + ")";
+            }
+            case ARRAY -> "%s = ANY(?)".formatted(field);
+            case JSON_TABLE -> "%s IN (SELECT value FROM OPENJSON(?))".formatted(field);
+        };
+    }
+
+    /**
+     * Параметры PreparedStatement для значений списка в порядке плейсхолдеров {@link #toSQL}
+     */
+    public List<Object> toParameters(List<?> values) {
+        return switch (this) {
+            case EXPANDED -> new ArrayList<>(values);
+            case PADDED -> pad(values, paddedSize(values.size()));
+            case CHUNKED -> {
+                int lastChunk = values.size() % CHUNK_SIZE == 0 ? CHUNK_SIZE : values.size() % CHUNK_SIZE;
+                yield pad(values, values.size() - lastChunk + paddedSize(lastChunk));
+            }
+            case ARRAY -> List.of(toTypedArray(values));
+            case JSON_TABLE -> List.of(values.stream()
+                    .map(v -> v == null ? "null" : "\"" + escapeJson(String.valueOf(v)) + "\"")
+                    .collect(Collectors.joining(",", "[", "]")));
+        };
+    }
+
+    /**
+     * Ближайшая степень двойки не меньше size, но не больше {@link #CHUNK_SIZE}
+     */
+    public static int paddedSize(int size) {
+        if (size <= PADDING_THRESHOLD) {
+            return size;
+        }
+        return Math.min(Integer.highestOneBit(size - 1) << 1, CHUNK_SIZE);
+    }
+
+    /**
+     * Разбивает значения на порции не больше {@link #CHUNK_SIZE} для отдельных запросов
+     * {@code id IN (...)}, укладывающихся в ограничения Oracle и SQL Server
+     */
+    public static <V> List<List<V>> chunks(List<V> values) {
+        List<List<V>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Массив с типом элементов списка, чтобы драйвер мог определить тип SQL массива
+     */
+    private static Object toTypedArray(List<?> values) {
+        Class<?> componentType = values.stream()
+                .filter(Objects::nonNull)
+                .map(Object::getClass)
+                .reduce((a, b) -> a == b ? a : Object.class)
+                .orElse(Object.class);
+        Object array = Array.newInstance(componentType, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Array.set(array, i, values.get(i));
+        }
+        return array;
+    }
+
+    private static String inList(String field, int size) {
+        return "%s IN (%s)".formatted(field, String.join(",", Collections.nCopies(size, "?")));
+    }
+
+    private static List<Object> pad(List<?> values, int size) {
+        List<Object> padded = new ArrayList<>(size);
+        padded.addAll(values);
+        Object last = values.get(values.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    private static String escapeJson(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t");
+    }
+}
@@ -7,7 +7,6 @@ import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class ParamValidationUtils {
@@ -90,13 +89,14 @@ public class ParamValidationUtils {
             }
             String alliesName = fieldParamMapping.sqlMapping();
             String fieldName = Objects.equals(fieldParamMapping.requestParamMapping(), FieldParamMapping.NO_MAPPING) ? field.getName() : fieldParamMapping.requestParamMapping();
-            String regexSafeFieldName = Pattern.quote(fieldName);
             for (int i = 0; i < params.size(); i++) {
-                String filterFieldName = validationFunc.apply(params.get(i))[0];
-                if (fieldName.equals(filterFieldName)) {
-                    params.set(i, params.get(i)
-                            .replaceFirst(regexSafeFieldName, alliesName));
-                    break;
+                String param = params.get(i);
+                String[] parts = validationFunc.apply(param);
+                if (fieldName.equals(parts[0])) {
+                    // поле стоит после возможного префикса группы условия
+                    int fieldStart = param.length() - String.join(":", parts).length();
+                    params.set(i, param.substring(0, fieldStart) + alliesName
+                            + param.substring(fieldStart + fieldName.length()));
                 }
             }
         }
@@ -82,4 +82,15 @@ public interface AsyncCrudBatchService<T, ID> extends AsyncCrudService<T, ID> {
      * выполнение прерывается, транзакция откатывается
      */
     CompletableFuture<Void> batchDeleteAtomicAsync(List<ID> ids, int batchSize);
+
+    /**
+     * Асинхронная атомарная пакетная вставка-или-обновление (upsert)
+     */
+    CompletableFuture<List<T>> batchUpsertAsync(List<T> models);
+
+    /**
+     * Асинхронная атомарная пакетная вставка-или-обновление (upsert)
+     * с явным размером JDBC пакета
+     */
+    CompletableFuture<List<T>> batchUpsertAsync(List<T> models, int batchSize);
 }
@@ -5,6 +5,7 @@ import io.github.egorkor.webutils.queryparam.PageableResult;
 import io.github.egorkor.webutils.queryparam.Pagination;
 import io.github.egorkor.webutils.queryparam.Sorting;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 
@@ -24,6 +25,7 @@ public interface AsyncCrudService<T, ID> {
 
     CompletableFuture<T> fullUpdateAsync(T model);
     CompletableFuture<T> patchUpdateAsync(ID id, T model);
+    CompletableFuture<Integer> updateByFilterAsync(Filter<T> filter, Map<String, Object> assignments);
 
     CompletableFuture<Void> deleteByIdAsync(ID id);
     CompletableFuture<Void> deleteAllAsync();
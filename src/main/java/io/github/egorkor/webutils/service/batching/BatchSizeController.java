@@ -0,0 +1,38 @@
+package io.github.egorkor.webutils.service.batching;
+
+/**
+ * Контроллер размера пакета (chunk), определяющий через какое кол-во
+ * обработанных записей выполняется flush/clear контекста персистентности
+ * при пакетных операциях.
+ * <p>
+ * После каждого сброса пакета реализация получает замеры
+ * через {@link #onChunkFlushed(int, long, long)} и может скорректировать
+ * размер следующего пакета.
+ * </p>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @see io.github.egorkor.webutils.template.batching.FixedBatchSizeController
+ * @see io.github.egorkor.webutils.template.batching.AimdBatchSizeController
+ * @since 2025
+ */
+public interface BatchSizeController {
+    /**
+     * Текущий размер пакета
+     */
+    int getBatchSize();
+
+    /**
+     * Обратная связь после сброса пакета
+     *
+     * @param rows           кол-во записей в пакете
+     * @param flushNanos     длительность flush/clear в наносекундах
+     * @param chunkNanos     длительность обработки всего пакета, включая flush, в наносекундах
+     */
+    void onChunkFlushed(int rows, long flushNanos, long chunkNanos);
+
+    /**
+     * Снимок метрик контроллера
+     */
+    BatchSizeStatistics getStatistics();
+}
@@ -0,0 +1,24 @@
+package io.github.egorkor.webutils.service.batching;
+
+/**
+ * Снимок метрик контроллера размера пакета {@link BatchSizeController}
+ *
+ * @param currentBatchSize     текущий размер пакета
+ * @param minBatchSize         минимальный выбранный размер пакета
+ * @param maxBatchSize         максимальный выбранный размер пакета
+ * @param flushedChunks        кол-во сброшенных пакетов
+ * @param flushedRows          кол-во записей в сброшенных пакетах
+ * @param lastFlushNanos       длительность последнего flush в наносекундах
+ * @param lastThroughput       пропускная способность последнего пакета, записей в секунду
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public record BatchSizeStatistics(int currentBatchSize,
+                                  int minBatchSize,
+                                  int maxBatchSize,
+                                  long flushedChunks,
+                                  long flushedRows,
+                                  long lastFlushNanos,
+                                  double lastThroughput) {
+}
@@ -35,4 +35,17 @@ public interface CrudBatchService<T, ID> extends CrudService<T, ID> {
 
     void batchDeleteAtomic(List<ID> ids, int batchSize);
 
+    /**
+     * Атомарная пакетная вставка-или-обновление (upsert) одним SQL выражением
+     * на запись, без предварительного SELECT. Выполняется JDBC пакетами,
+     * при провале одной операции транзакция откатывается. Идентификаторы сущностей
+     * должны быть заданы до вызова, версионируемые сущности не поддерживаются.
+     */
+    List<T> batchUpsert(List<T> models);
+
+    /**
+     * Атомарная пакетная вставка-или-обновление (upsert) с явным размером JDBC пакета
+     */
+    List<T> batchUpsert(List<T> models, int batchSize);
+
 }
@@ -9,6 +9,8 @@ import io.github.egorkor.webutils.queryparam.Pagination;
 import io.github.egorkor.webutils.queryparam.Sorting;
 import jakarta.persistence.LockModeType;
 
+import java.util.Map;
+
 /**
  * Интерфейс базового CRUD параметризованного сервиса
  * <p>
@@ -22,9 +24,12 @@ import jakarta.persistence.LockModeType;
  *         <li>{@link #create(T)}</li>
  *         <li>{@link #fullUpdate(T)}</li>
  *         <li>{@link #patchUpdate(ID, T)}</li>
+ *         <li>{@link #updateByFilter(Filter, Map)}</li>
+ *         <li>{@link #updateByFilter(Filter, Map, boolean)}</li>
  *         <li>{@link #deleteAll()}</li>
  *         <li>{@link #deleteById(ID)}</li>
  *         <li>{@link #deleteByFilter(Filter)}</li>
+ *         <li>{@link #deleteByFilter(Filter, int)}</li>
  *         <li>{@link #countAll()}</li>
  *         <li>{@link #countByFilter(Filter)}</li>
  *         <li>{@link #existsById(ID)}</li>
@@ -130,6 +135,28 @@ public interface CrudService<T, ID> {
      */
     T patchUpdate(ID id, T model) throws ResourceNotFoundException, EntityProcessingException;
 
+    /**
+     * Массовое обновление полей всех сущностей, удовлетворяющих условиям фильтра,
+     * одним выражением UPDATE без загрузки сущностей.
+     * Строковые значения приводятся к типу поля так же, как значения фильтра.
+     *
+     * @param filter      параметр запроса фильтрации
+     * @param assignments имя поля -> новое значение
+     * @return кол-во обновлённых записей
+     */
+    int updateByFilter(Filter<T> filter, Map<String, Object> assignments) throws EntityProcessingException;
+
+    /**
+     * Массовое обновление полей по условию фильтра с возможностью
+     * инкремента поля версии (@Version) для оптимистичной блокировки
+     *
+     * @param filter           параметр запроса фильтрации
+     * @param assignments      имя поля -> новое значение
+     * @param incrementVersion увеличить версию обновлённых записей
+     * @return кол-во обновлённых записей
+     */
+    int updateByFilter(Filter<T> filter, Map<String, Object> assignments, boolean incrementVersion) throws EntityProcessingException;
+
     /**
      * Физическое удаление сущности по ID
      *
@@ -149,6 +176,17 @@ public interface CrudService<T, ID> {
      */
     void deleteByFilter(Filter<T> filter) throws EntityProcessingException;
 
+    /**
+     * Физическое удаление сущностей с учётом фильтрации порциями по диапазонам идентификаторов,
+     * каждая порция удаляется в отдельной транзакции. Позволяет ограничить время
+     * блокировок и объём журнала отката при удалении из больших таблиц.
+     *
+     * @param filter    параметр запроса фильтрации
+     * @param chunkSize максимальное кол-во записей в одной порции
+     * @return кол-во удалённых записей
+     */
+    long deleteByFilter(Filter<T> filter, int chunkSize) throws EntityProcessingException;
+
     /**
      * Кол-во сущностей с учётом фильтрации
      *
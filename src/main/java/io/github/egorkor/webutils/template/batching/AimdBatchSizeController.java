@@ -0,0 +1,126 @@
+package io.github.egorkor.webutils.template.batching;
+
+import io.github.egorkor.webutils.service.batching.BatchSizeController;
+import io.github.egorkor.webutils.service.batching.BatchSizeStatistics;
+import java.time.Duration;
+
+/**
+ * Адаптивный контроллер размера пакета по принципу AIMD
+ * (additive increase / multiplicative decrease) с элементами hill-climbing.
+ * <p>
+ * После каждого сброса пакета контроллер сравнивает длительность flush с целевой
+ * задержкой и пропускную способность (записей в секунду) с предыдущим пакетом:
+ * <ul>
+ *     <li>flush дольше целевой задержки - размер умножается на {@code decreaseFactor}</li>
+ *     <li>пропускная способность упала больше чем на {@code throughputTolerance} -
+ *     размер уменьшается на {@code step}</li>
+ *     <li>иначе - размер увеличивается на {@code step}</li>
+ * </ul>
+ * Размер всегда остаётся в границах [{@code minBatchSize}, {@code maxBatchSize}].
+ * </p>
+ * <pre>
+ *     {@code
+ *     userService.setBatchSizeController(new AimdBatchSizeController(20, 2000));
+ *     }
+ * </pre>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class AimdBatchSizeController implements BatchSizeController {
+    public static final int DEFAULT_STEP = 10;
+    public static final double DEFAULT_DECREASE_FACTOR = 0.5;
+    public static final double DEFAULT_THROUGHPUT_TOLERANCE = 0.1;
+    public static final Duration DEFAULT_TARGET_FLUSH_LATENCY = Duration.ofMillis(200);
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int step;
+    private final double decreaseFactor;
+    private final double throughputTolerance;
+    private final long targetFlushNanos;
+
+    private volatile int batchSize;
+    private int minChosenBatchSize;
+    private int maxChosenBatchSize;
+    private long flushedChunks;
+    private long flushedRows;
+    private long lastFlushNanos;
+    private double lastThroughput;
+
+    public AimdBatchSizeController(int minBatchSize, int maxBatchSize) {
+        this(minBatchSize, maxBatchSize, minBatchSize, DEFAULT_STEP, DEFAULT_DECREASE_FACTOR,
+                DEFAULT_THROUGHPUT_TOLERANCE, DEFAULT_TARGET_FLUSH_LATENCY);
+    }
+
+    public AimdBatchSizeController(int minBatchSize,
+                                   int maxBatchSize,
+                                   int initialBatchSize,
+                                   int step,
+                                   double decreaseFactor,
+                                   double throughputTolerance,
+                                   Duration targetFlushLatency) {
+        if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds: [%d, %d]"
+                    .formatted(minBatchSize, maxBatchSize));
+        }
+        if (initialBatchSize < minBatchSize || initialBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Initial batch size %d is out of bounds [%d, %d]"
+                    .formatted(initialBatchSize, minBatchSize, maxBatchSize));
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step should be positive: " + step);
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Decrease factor should be in (0, 1): " + decreaseFactor);
+        }
+        if (!(throughputTolerance >= 0 && throughputTolerance < 1)) {
+            throw new IllegalArgumentException("Throughput tolerance should be in [0, 1): " + throughputTolerance);
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.step = step;
+        this.decreaseFactor = decreaseFactor;
+        this.throughputTolerance = throughputTolerance;
+        this.targetFlushNanos = targetFlushLatency.toNanos();
+        this.batchSize = initialBatchSize;
+        this.minChosenBatchSize = initialBatchSize;
+        this.maxChosenBatchSize = initialBatchSize;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public synchronized void onChunkFlushed(int rows, long flushNanos, long chunkNanos) {
+        double throughput = throughput(rows, chunkNanos);
+        int next;
+        if (flushNanos > targetFlushNanos) {
+            next = (int) (batchSize * decreaseFactor);
+        } else if (flushedChunks > 0 && throughput < lastThroughput * (1 - throughputTolerance)) {
+            next = batchSize - step;
+        } else {
+            next = batchSize + step;
+        }
+        batchSize = Math.clamp(next, minBatchSize, maxBatchSize);
+        minChosenBatchSize = Math.min(minChosenBatchSize, batchSize);
+        maxChosenBatchSize = Math.max(maxChosenBatchSize, batchSize);
+        flushedChunks++;
+        flushedRows += rows;
+        lastFlushNanos = flushNanos;
+        lastThroughput = throughput;
+    }
+
+    @Override
+    public synchronized BatchSizeStatistics getStatistics() {
+        return new BatchSizeStatistics(batchSize, minChosenBatchSize, maxChosenBatchSize,
+                flushedChunks, flushedRows, lastFlushNanos, lastThroughput);
+    }
+
+    static double throughput(int rows, long chunkNanos) {
+        return chunkNanos <= 0 ? 0 : rows * 1_000_000_000.0 / chunkNanos;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.egorkor.webutils.template.batching;
+
+import io.github.egorkor.webutils.service.batching.BatchSizeController;
+import io.github.egorkor.webutils.service.batching.BatchSizeStatistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Контроллер с фиксированным размером пакета.
+ * Используется по умолчанию в {@link io.github.egorkor.webutils.template.jpa.JpaBatchCrudService}
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public class FixedBatchSizeController implements BatchSizeController {
+    private final int batchSize;
+    private final AtomicLong flushedChunks = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile double lastThroughput;
+
+    public FixedBatchSizeController(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void onChunkFlushed(int rows, long flushNanos, long chunkNanos) {
+        flushedChunks.incrementAndGet();
+        flushedRows.addAndGet(rows);
+        lastFlushNanos = flushNanos;
+        lastThroughput = AimdBatchSizeController.throughput(rows, chunkNanos);
+    }
+
+    @Override
+    public BatchSizeStatistics getStatistics() {
+        return new BatchSizeStatistics(batchSize, batchSize, batchSize,
+                flushedChunks.get(), flushedRows.get(), lastFlushNanos, lastThroughput);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.metrics.jfr.BatchChunkFlushEvent;
+import io.github.egorkor.webutils.service.batching.BatchSizeController;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Отслеживает заполнение текущего пакета в рамках одной пакетной операции
+ * и выполняет flush/clear контекста персистентности, когда пакет
+ * достигает размера, заданного {@link BatchSizeController}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class BatchChunkFlusher {
+    private final EntityManager entityManager;
+    private final BatchSizeController controller;
+    private final Class<?> entityType;
+    private int rows;
+    private long chunkStartedAt = System.nanoTime();
+
+    BatchChunkFlusher(EntityManager entityManager, BatchSizeController controller, Class<?> entityType) {
+        this.entityManager = entityManager;
+        this.controller = controller;
+        this.entityType = entityType;
+    }
+
+    /**
+     * Отмечает обработку очередной записи и сбрасывает пакет при его заполнении
+     */
+    void next() {
+        if (++rows >= controller.getBatchSize()) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        BatchChunkFlushEvent event = new BatchChunkFlushEvent();
+        event.begin();
+        long flushStartedAt = System.nanoTime();
+        entityManager.flush();
+        entityManager.clear();
+        long flushedAt = System.nanoTime();
+        event.end();
+        if (event.shouldCommit()) {
+            event.entity = entityType.getName();
+            event.batchSize = controller.getBatchSize();
+            event.rows = rows;
+            event.commit();
+        }
+        controller.onChunkFlushed(rows, flushedAt - flushStartedAt, flushedAt - chunkStartedAt);
+        rows = 0;
+        chunkStartedAt = flushedAt;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Задача сверки кешируемых счётчиков с БД, см. {@link JpaCrudService#reconcileCachedCounts()}.
+ * Исправляет расхождения от записей в обход сервиса и от изменений, выполненных
+ * во время пересчёта счётчика. Интервал задаёт допустимое время расхождения;
+ * каждая сверка выполняет по одному запросу COUNT на зарегистрированный счётчик.
+ * <pre>
+ *     {@code
+ *     @Scheduled(fixedDelay = 60_000)
+ *     public void reconcileUserCounts() {
+ *         userCountReconcileTask.run();
+ *     }
+ *     }
+ * </pre>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+public class CachedCountReconcileTask extends JpaServiceMaintenanceTask {
+
+    public CachedCountReconcileTask(JpaCrudService<?, ?> service) {
+        super(service);
+    }
+
+    @Override
+    protected void execute() {
+        int drifted = service.reconcileCachedCounts();
+        if (drifted > 0) {
+            log.info("{} - {} cached counters corrected by reconciliation", service.getEntityTypeName(), drifted);
+        }
+    }
+
+    @Override
+    protected String getOperationName() {
+        return "cached counters reconciliation";
+    }
+}
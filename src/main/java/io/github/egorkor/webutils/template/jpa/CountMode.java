@@ -0,0 +1,19 @@
+package io.github.egorkor.webutils.template.jpa;
+
+/**
+ * Режим подсчёта кол-ва сущностей в {@link JpaCrudService}
+ * <ul>
+ *     <li>{@link #EXACT} - всегда точный {@code COUNT(*)}</li>
+ *     <li>{@link #APPROXIMATE} - оценка по статистике СУБД: для запросов без условий - по каталогу
+ *     ({@code pg_class.reltuples}, {@code information_schema.tables.table_rows}), с условиями - по
+ *     {@code EXPLAIN}. Если СУБД не поддерживает оценку (например H2) или условие нельзя
+ *     отобразить в SQL, выполняется точный подсчёт</li>
+ * </ul>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public enum CountMode {
+    EXACT, APPROXIMATE
+}
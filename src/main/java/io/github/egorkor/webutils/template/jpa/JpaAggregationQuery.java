@@ -0,0 +1,178 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.Aggregation;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Агрегирующий запрос {@code SELECT <группы>, <агрегаты> ... WHERE <фильтр> GROUP BY <группы>
+ * HAVING <условие> ORDER BY ... LIMIT/OFFSET}. Строки результата - компактные
+ * {@code Map} из полей группировки и псевдонимов агрегатов, вычисленные в БД.
+ * Кол-во групп для постраничного запроса считается запросом {@code COUNT(*)} над
+ * подзапросом группировки.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class JpaAggregationQuery<T> {
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+
+    JpaAggregationQuery(EntityManager entityManager, Class<T> entityType) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+    }
+
+    /**
+     * @param groupBy    поля группировки в запросе клиента, используются как псевдонимы колонок
+     * @param groupPaths проверенные пути полей группировки в сущности, в порядке groupBy
+     * @param aggregates агрегаты с проверенными путями полей сущности
+     * @param having     условие HAVING с проверенными путями полей сущности
+     */
+    PageableResult<Map<String, Object>> execute(List<String> groupBy,
+                                                List<String> groupPaths,
+                                                List<Aggregation.Aggregate> aggregates,
+                                                Filter<T> having,
+                                                Filter<T> filter,
+                                                Sorting sorting,
+                                                Pagination pagination) {
+        if (aggregates.isEmpty() && groupBy.isEmpty()) {
+            throw new IllegalArgumentException("Aggregation must declare group by fields or aggregates");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<T> root = cq.from(entityType);
+        Map<String, Expression<?>> selections = new LinkedHashMap<>();
+        List<Expression<?>> groups = groupExpressions(root, groupPaths);
+        for (int i = 0; i < groupBy.size(); i++) {
+            selections.put(groupBy.get(i), groups.get(i));
+        }
+        for (Aggregation.Aggregate aggregate : aggregates) {
+            if (selections.putIfAbsent(aggregate.alias(), aggregateExpression(cb, root, aggregate)) != null) {
+                throw new IllegalArgumentException("Duplicate aggregation alias: " + aggregate.alias());
+            }
+        }
+        List<Selection<?>> aliased = new ArrayList<>();
+        selections.forEach((alias, expression) -> aliased.add(expression.alias(alias)));
+        cq.multiselect(aliased)
+                .where(filter.toPredicate(root, cq, cb, false))
+                .groupBy(groups)
+                .orderBy(orders(cb, sorting, selections));
+        if (having.isFiltered()) {
+            cq.having(having.toHavingPredicate(root, cq, cb));
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(cq);
+        if (!pagination.isUnpaged()) {
+            query.setFirstResult(pagination.getPage() * pagination.getSize());
+            query.setMaxResults(pagination.getSize());
+        }
+        List<Map<String, Object>> rows = query.getResultList().stream()
+                .map(JpaAggregationQuery::toRow)
+                .toList();
+        if (pagination.isUnpaged()) {
+            return PageableResult.of(rows, rows.size(), 1, rows.size());
+        }
+        long count = pagination.getPage() == 0 && rows.size() < pagination.getSize()
+                ? rows.size()
+                : countGroups(groupPaths, filter, having);
+        return PageableResult.of(rows, count, pagination.getSize());
+    }
+
+    private static List<Expression<?>> groupExpressions(Root<?> root, List<String> groupBy) {
+        List<Expression<?>> groups = new ArrayList<>();
+        groupBy.forEach(field -> groups.add(Filter.getNestedPath(root, field)));
+        return groups;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<?> aggregateExpression(CriteriaBuilder cb, Root<?> root, Aggregation.Aggregate aggregate) {
+        Path<?> path = Filter.getNestedPath(root, aggregate.field());
+        return switch (aggregate.function()) {
+            case SUM -> cb.sum((Expression<Number>) path);
+            case AVG -> cb.avg((Expression<Number>) path);
+            case MIN -> least(cb, path);
+            case MAX -> greatest(cb, path);
+            case COUNT -> cb.count(path);
+            default -> throw new IllegalArgumentException("Invalid aggregate function: " + aggregate.function());
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X extends Comparable<? super X>> Expression<X> least(CriteriaBuilder cb, Path<?> path) {
+        return cb.least((Expression<X>) path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X extends Comparable<? super X>> Expression<X> greatest(CriteriaBuilder cb, Path<?> path) {
+        return cb.greatest((Expression<X>) path);
+    }
+
+    /**
+     * Сортировка по полям группировки и псевдонимам агрегатов
+     */
+    private static List<Order> orders(CriteriaBuilder cb, Sorting sorting, Map<String, Expression<?>> selections) {
+        sorting.checkAllowedSortFields();
+        List<Order> orders = new ArrayList<>();
+        for (String sort : sorting.getSort()) {
+            String[] parts = sort.split(":");
+            Expression<?> expression = parts.length == 2 ? selections.get(parts[0]) : null;
+            if (expression == null) {
+                throw new IllegalArgumentException("Aggregation can be sorted only by group by fields " +
+                        "and aggregate aliases: " + sort);
+            }
+            switch (parts[1].toLowerCase()) {
+                case "asc" -> orders.add(cb.asc(expression));
+                case "desc" -> orders.add(cb.desc(expression));
+                default -> throw new IllegalArgumentException("Invalid sort order: " + sort);
+            }
+        }
+        return orders;
+    }
+
+    private long countGroups(List<String> groupBy, Filter<T> filter, Filter<T> having) {
+        if (groupBy.isEmpty()) {
+            return 1;
+        }
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        JpaSubQuery<Tuple> groupsQuery = countQuery.subquery(Tuple.class);
+        JpaRoot<T> root = groupsQuery.from(entityType);
+        List<Expression<?>> groups = groupExpressions(root, groupBy);
+        groupsQuery.multiselect(groups.getFirst().alias("g"))
+                .where(filter.toPredicate(root, groupsQuery, cb, false))
+                .groupBy(groups);
+        if (having.isFiltered()) {
+            groupsQuery.having(having.toHavingPredicate(root, groupsQuery, cb));
+        }
+        countQuery.from(groupsQuery);
+        countQuery.select(cb.count());
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return row;
+    }
+}
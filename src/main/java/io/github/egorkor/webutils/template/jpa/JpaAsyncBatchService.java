@@ -2,7 +2,9 @@ package io.github.egorkor.webutils.template.jpa;
 
 import io.github.egorkor.webutils.service.async.AsyncCrudBatchService;
 import io.github.egorkor.webutils.service.batching.BatchResultWithData;
+import io.github.egorkor.webutils.service.batching.BatchSizeController;
 import jakarta.persistence.EntityManager;
+import lombok.NonNull;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -22,9 +24,7 @@ import java.util.function.Supplier;
 public abstract class JpaAsyncBatchService<T, ID> extends JpaAsyncCrudService<T, ID>
         implements AsyncCrudBatchService<T, ID> {
 
-    private static final int DEFAULT_BATCH_SIZE = 100;
-
-    private final JpaBatchCrudService batchCrudService;
+    private final JpaBatchCrudService<T, ID> batchCrudService;
 
     public JpaAsyncBatchService(JpaRepository<T, ID> jpaRepository,
                                 JpaSpecificationExecutor<T> jpaSpecificationExecutor,
@@ -33,15 +33,32 @@ public abstract class JpaAsyncBatchService<T, ID> extends JpaAsyncCrudService<T,
                                 ThreadPoolTaskExecutor executor) {
         super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate, executor);
         Supplier<EntityManager> entityManagerSupplier = this::getPersistenceAnnotatedEntityManager;
-        this.batchCrudService = new JpaBatchCrudService(jpaRepository,
+        this.batchCrudService = new JpaBatchCrudService<>(jpaRepository,
                 jpaSpecificationExecutor,
                 eventPublisher,
-                transactionTemplate) {
+                transactionTemplate,
+                entityType) {
             @Override
             public EntityManager getPersistenceAnnotatedEntityManager() {
                 return entityManagerSupplier.get();
             }
         };
+        //пакетные операции должны обновлять счётчики, зарегистрированные в этом сервисе
+        this.batchCrudService.cachedCounters = this.cachedCounters;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        batchCrudService.afterPropertiesSet();
+    }
+
+    public BatchSizeController getBatchSizeController() {
+        return batchCrudService.getBatchSizeController();
+    }
+
+    public void setBatchSizeController(@NonNull BatchSizeController batchSizeController) {
+        batchCrudService.setBatchSizeController(batchSizeController);
     }
 
 
@@ -83,31 +100,41 @@ public abstract class JpaAsyncBatchService<T, ID> extends JpaAsyncCrudService<T,
 
     @Override
     public CompletableFuture<List<BatchResultWithData<T>>> batchCreateAsync(List<T> models) {
-        return batchCreateAsync(models, DEFAULT_BATCH_SIZE);
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchCreate(models), executor);
     }
 
     @Override
     public CompletableFuture<List<BatchResultWithData<T>>> batchUpdateAsync(List<T> models) {
-        return batchUpdateAsync(models, DEFAULT_BATCH_SIZE);
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchUpdate(models), executor);
     }
 
     @Override
     public CompletableFuture<List<BatchResultWithData<ID>>> batchDeleteAsync(List<ID> ids) {
-        return batchDeleteAsync(ids, DEFAULT_BATCH_SIZE);
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchDelete(ids), executor);
     }
 
     @Override
     public CompletableFuture<List<T>> batchCreateAtomicAsync(List<T> models) {
-        return batchCreateAtomicAsync(models, DEFAULT_BATCH_SIZE);
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchCreateAtomic(models), executor);
     }
 
     @Override
     public CompletableFuture<List<T>> batchUpdateAtomicAsync(List<T> models) {
-        return batchUpdateAtomicAsync(models, DEFAULT_BATCH_SIZE);
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchUpdateAtomic(models), executor);
     }
 
     @Override
     public CompletableFuture<Void> batchDeleteAtomicAsync(List<ID> ids) {
-        return batchDeleteAtomicAsync(ids, DEFAULT_BATCH_SIZE);
+        return CompletableFuture.runAsync(() -> batchCrudService.batchDeleteAtomic(ids), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<T>> batchUpsertAsync(List<T> models) {
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchUpsert(models), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<T>> batchUpsertAsync(List<T> models, int batchSize) {
+        return CompletableFuture.supplyAsync(() -> batchCrudService.batchUpsert(models, batchSize), executor);
     }
 }
@@ -5,6 +5,7 @@ import io.github.egorkor.webutils.queryparam.PageableResult;
 import io.github.egorkor.webutils.queryparam.Pagination;
 import io.github.egorkor.webutils.queryparam.Sorting;
 import io.github.egorkor.webutils.service.async.AsyncCrudService;
+import lombok.Getter;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -12,6 +13,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 
@@ -21,6 +23,7 @@ import java.util.concurrent.CompletableFuture;
  * @since 2025
  */
 public abstract class JpaAsyncCrudService<T, ID> extends JpaCrudService<T, ID> implements AsyncCrudService<T, ID> {
+    @Getter
     protected final ThreadPoolTaskExecutor executor;
 
     public JpaAsyncCrudService(JpaRepository<T, ID> jpaRepository,
@@ -129,6 +132,12 @@ public abstract class JpaAsyncCrudService<T, ID> extends JpaCrudService<T, ID> i
         return CompletableFuture.supplyAsync(() -> this.patchUpdate(id, model));
     }
 
+    @Async
+    @Override
+    public CompletableFuture<Integer> updateByFilterAsync(Filter<T> filter, Map<String, Object> assignments) {
+        return CompletableFuture.supplyAsync(() -> this.updateByFilter(filter, assignments), executor);
+    }
+
     @Async
     @Override
     public CompletableFuture<T> getByFilterAsync(Filter<T> filter) {
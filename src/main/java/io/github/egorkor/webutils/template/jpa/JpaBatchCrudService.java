@@ -2,23 +2,41 @@ package io.github.egorkor.webutils.template.jpa;
 
 import io.github.egorkor.webutils.event.batching.*;
 import io.github.egorkor.webutils.exception.BatchOperationException;
+import io.github.egorkor.webutils.exception.EntityOperation;
+import io.github.egorkor.webutils.exception.EntityProcessingException;
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
 import io.github.egorkor.webutils.service.batching.BatchOperationStatus;
 import io.github.egorkor.webutils.service.batching.BatchResultWithData;
+import io.github.egorkor.webutils.service.batching.BatchSizeController;
 import io.github.egorkor.webutils.service.sync.CrudBatchService;
 import io.github.egorkor.webutils.template.BatchResultWithDataImpl;
-import jakarta.persistence.EntityManager;
+import io.github.egorkor.webutils.template.batching.FixedBatchSizeController;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
 import java.util.ArrayList;
 import java.util.List;
 
 
 /**
+ * Пакетные операции выполняются в одной транзакции со сбросом (flush/clear)
+ * контекста персистентности по заполнению пакета. Размер пакета для методов
+ * без явного параметра batchSize определяется {@link BatchSizeController}:
+ * по умолчанию {@link FixedBatchSizeController} на {@value #DEFAULT_BATCH_SIZE} записей,
+ * для адаптивного подбора размера можно установить
+ * {@link io.github.egorkor.webutils.template.batching.AimdBatchSizeController}
+ * через {@link #setBatchSizeController(BatchSizeController)}.
+ *
  * @author EgorKor
  * @version 1.0
  * @since 2025
@@ -27,9 +45,13 @@ import java.util.List;
 public abstract class JpaBatchCrudService<T, ID>
         extends JpaCrudService<T, ID>
         implements CrudBatchService<T, ID>, InitializingBean {
-    private static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_BATCH_SIZE = 100;
 
-    private EntityManager entityManager;
+    @Getter
+    @Setter
+    @NonNull
+    protected BatchSizeController batchSizeController = new FixedBatchSizeController(DEFAULT_BATCH_SIZE);
+    private volatile JpaUpsertOperation<T> upsertOperation;
 
     public JpaBatchCrudService(JpaRepository<T, ID> jpaRepository,
                                JpaSpecificationExecutor<T> jpaSpecificationExecutor,
@@ -38,46 +60,63 @@ public abstract class JpaBatchCrudService<T, ID>
         super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate);
     }
 
+    protected JpaBatchCrudService(JpaRepository<T, ID> jpaRepository,
+                                  JpaSpecificationExecutor<T> jpaSpecificationExecutor,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  Class<T> entityType) {
+        super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate, entityType);
+    }
+
 
     @Override
     public List<BatchResultWithData<T>> batchCreate(List<T> models) {
-        return batchCreate(models, DEFAULT_BATCH_SIZE);
+        return batchCreate(models, batchSizeController);
     }
 
     @Override
     public List<BatchResultWithData<T>> batchUpdate(List<T> models) {
-        return batchUpdate(models, DEFAULT_BATCH_SIZE);
+        return batchUpdate(models, batchSizeController);
     }
 
     @Override
     public List<BatchResultWithData<ID>> batchDelete(List<ID> ids) {
-        return batchDelete(ids, DEFAULT_BATCH_SIZE);
+        return batchDelete(ids, batchSizeController);
     }
 
     @Override
     public List<T> batchCreateAtomic(List<T> models) {
-        return batchCreateAtomic(models, DEFAULT_BATCH_SIZE);
+        return batchCreateAtomic(models, batchSizeController);
     }
 
     @Override
     public List<T> batchUpdateAtomic(List<T> models) {
-        return batchUpdateAtomic(models, DEFAULT_BATCH_SIZE);
+        return batchUpdateAtomic(models, batchSizeController);
 
     }
 
     @Override
     public void batchDeleteAtomic(List<ID> ids) {
-        batchDeleteAtomic(ids, DEFAULT_BATCH_SIZE);
+        batchDeleteAtomic(ids, batchSizeController);
+    }
+
+    @Override
+    public List<T> batchUpsert(List<T> models) {
+        return batchUpsert(models, batchSizeController);
     }
 
     @Override
     public List<BatchResultWithData<T>> batchCreate(List<T> models, int batchSize) {
+        return batchCreate(models, new FixedBatchSizeController(batchSize));
+    }
+
+    protected List<BatchResultWithData<T>> batchCreate(List<T> models, BatchSizeController controller) {
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchCreatingEvent<>(this, models));
         }
         var batchResult = transactionTemplate.execute(status -> {
             List<BatchResultWithData<T>> results = new ArrayList<>();
-            int counter = 0;
+            BatchChunkFlusher chunkFlusher = new BatchChunkFlusher(entityManager, controller, entityType);
             for (T model : models) {
                 try {
                     model = jpaRepository.save(model);
@@ -97,13 +136,11 @@ public abstract class JpaBatchCrudService<T, ID>
                             .build();
                     results.add(result);
                 }
-                if (++counter % batchSize == 0) {
-                    entityManager.flush();
-                    entityManager.clear();
-                }
+                chunkFlusher.next();
             }
             return results;
         });
+        cachedCounters.created(getSucceededData(batchResult));
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchCreatedEvent<>(this, batchResult));
         }
@@ -112,12 +149,16 @@ public abstract class JpaBatchCrudService<T, ID>
 
     @Override
     public List<BatchResultWithData<T>> batchUpdate(List<T> models, int batchSize) {
+        return batchUpdate(models, new FixedBatchSizeController(batchSize));
+    }
+
+    protected List<BatchResultWithData<T>> batchUpdate(List<T> models, BatchSizeController controller) {
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchUpdatingEvent(this, models));
         }
         var batchResult = transactionTemplate.execute(status -> {
             List<BatchResultWithData<T>> results = new ArrayList<>();
-            int counter = 0;
+            BatchChunkFlusher chunkFlusher = new BatchChunkFlusher(entityManager, controller, entityType);
             for (T model : models) {
                 try {
                     model = jpaRepository.save(model);
@@ -138,13 +179,11 @@ public abstract class JpaBatchCrudService<T, ID>
                             .build();
                     results.add(result);
                 }
-                if (++counter % batchSize == 0) {
-                    entityManager.flush();
-                    entityManager.clear();
-                }
+                chunkFlusher.next();
             }
             return results;
         });
+        cachedCounters.invalidate(null);
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchUpdatedEvent<>(this, batchResult));
         }
@@ -153,12 +192,17 @@ public abstract class JpaBatchCrudService<T, ID>
 
     @Override
     public List<BatchResultWithData<ID>> batchDelete(List<ID> ids, int batchSize) {
+        return batchDelete(ids, new FixedBatchSizeController(batchSize));
+    }
+
+    protected List<BatchResultWithData<ID>> batchDelete(List<ID> ids, BatchSizeController controller) {
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchDeletingEvent<>(this, ids, entityType));
         }
+        List<T> counted = findCountedEntities(ids);
         var batchResult = transactionTemplate.execute(status -> {
             List<BatchResultWithData<ID>> results = new ArrayList<>();
-            int counter = 0;
+            BatchChunkFlusher chunkFlusher = new BatchChunkFlusher(entityManager, controller, entityType);
             for (ID id : ids) {
                 try {
                     jpaRepository.deleteById(id);
@@ -176,13 +220,15 @@ public abstract class JpaBatchCrudService<T, ID>
                             .build();
                     results.add(result);
                 }
-                if (++counter % batchSize == 0) {
-                    entityManager.flush();
-                    entityManager.clear();
-                }
+                chunkFlusher.next();
             }
             return results;
         });
+        List<ID> deletedIds = getSucceededData(batchResult);
+        PersistenceUnitUtil unitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        cachedCounters.deleted(counted.stream()
+                .filter(entity -> deletedIds.contains(unitUtil.getIdentifier(entity)))
+                .toList());
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchDeletedEvent<>(this, batchResult, entityType));
         }
@@ -191,12 +237,16 @@ public abstract class JpaBatchCrudService<T, ID>
 
     @Override
     public List<T> batchCreateAtomic(List<T> models, int batchSize) {
+        return batchCreateAtomic(models, new FixedBatchSizeController(batchSize));
+    }
+
+    protected List<T> batchCreateAtomic(List<T> models, BatchSizeController controller) {
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchCreatingEvent<>(this, models));
         }
         var batchResults = transactionTemplate.execute((status) -> {
             List<T> results = new ArrayList<>();
-            int counter = 0;
+            BatchChunkFlusher chunkFlusher = new BatchChunkFlusher(entityManager, controller, entityType);
             for (T model : models) {
                 try {
                     results.add(jpaRepository.save(model));
@@ -205,13 +255,11 @@ public abstract class JpaBatchCrudService<T, ID>
                     status.setRollbackOnly();
                     throw new BatchOperationException(e.getMessage());
                 }
-                if (++counter % batchSize == 0) {
-                    entityManager.flush();
-                    entityManager.clear();
-                }
+                chunkFlusher.next();
             }
             return results;
         });
+        cachedCounters.created(batchResults);
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchCreatedAtomicEvent<>(this, batchResults));
         }
@@ -220,12 +268,16 @@ public abstract class JpaBatchCrudService<T, ID>
 
     @Override
     public List<T> batchUpdateAtomic(List<T> models, int batchSize) {
+        return batchUpdateAtomic(models, new FixedBatchSizeController(batchSize));
+    }
+
+    protected List<T> batchUpdateAtomic(List<T> models, BatchSizeController controller) {
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchUpdatingEvent(this, models));
         }
         var batchResult = transactionTemplate.execute(status -> {
             List<T> results = new ArrayList<>();
-            int counter = 0;
+            BatchChunkFlusher chunkFlusher = new BatchChunkFlusher(entityManager, controller, entityType);
             for (T model : models) {
                 try {
                     results.add(jpaRepository.save(model));
@@ -237,13 +289,11 @@ public abstract class JpaBatchCrudService<T, ID>
                     status.setRollbackOnly();
                     throw new BatchOperationException(e.getMessage());
                 }
-                if (++counter % batchSize == 0) {
-                    entityManager.flush();
-                    entityManager.clear();
-                }
+                chunkFlusher.next();
             }
             return results;
         });
+        cachedCounters.invalidate(null);
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchUpdatedAtomicEvent<>(this, batchResult));
         }
@@ -252,11 +302,16 @@ public abstract class JpaBatchCrudService<T, ID>
 
     @Override
     public void batchDeleteAtomic(List<ID> ids, int batchSize) {
+        batchDeleteAtomic(ids, new FixedBatchSizeController(batchSize));
+    }
+
+    protected void batchDeleteAtomic(List<ID> ids, BatchSizeController controller) {
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchDeletingEvent<>(this, ids, entityType));
         }
+        List<T> counted = findCountedEntities(ids);
         transactionTemplate.executeWithoutResult(status -> {
-            int counter = 0;
+            BatchChunkFlusher chunkFlusher = new BatchChunkFlusher(entityManager, controller, entityType);
             for (ID id : ids) {
                 try {
                     jpaRepository.deleteById(id);
@@ -268,16 +323,98 @@ public abstract class JpaBatchCrudService<T, ID>
                     status.setRollbackOnly();
                     throw new BatchOperationException(e.getMessage());
                 }
-                if (++counter % batchSize == 0) {
-                    jpaRepository.flush();
-                    entityManager.clear();
-                }
+                chunkFlusher.next();
             }
         });
+        cachedCounters.deleted(counted);
         if (eventPublisher != null) {
             eventPublisher.publishEvent(new BatchDeletedAtomicEvent<>(this, ids, entityType));
         }
 
     }
 
+    @Override
+    public List<T> batchUpsert(List<T> models, int batchSize) {
+        return batchUpsert(models, new FixedBatchSizeController(batchSize));
+    }
+
+    /**
+     * Выполняет upsert сгенерированным по метаданным сущности SQL выражением
+     * для активной СУБД. Сущности не присоединяются к контексту персистентности,
+     * значения генерируемые Hibernate (например, {@code @CreationTimestamp}) не заполняются.
+     * Идентификаторы всех сущностей должны быть заданы, версионируемые ({@code @Version})
+     * сущности не поддерживаются.
+     *
+     * @throws EntityProcessingException если у сущности не задан идентификатор
+     */
+    protected List<T> batchUpsert(List<T> models, BatchSizeController controller) {
+        JpaUpsertOperation<T> operation = getUpsertOperation();
+        for (T model : models) {
+            if (!operation.hasIdentifier(model)) {
+                throw new EntityProcessingException("Upsert requires assigned id, generated ids (@GeneratedValue) are not supported: " + model,
+                        null, entityType, EntityOperation.CREATE);
+            }
+        }
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new BatchUpsertingEvent<>(this, models));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.flush();
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                DatabaseType dbType = DatabaseType.fromProductName(
+                        connection.getMetaData().getDatabaseProductName());
+                try (PreparedStatement statement = connection.prepareStatement(operation.getSql(dbType))) {
+                    int rows = 0;
+                    long chunkStartedAt = System.nanoTime();
+                    for (int i = 0; i < models.size(); i++) {
+                        operation.bind(statement, models.get(i));
+                        statement.addBatch();
+                        if (++rows >= controller.getBatchSize() || i == models.size() - 1) {
+                            long executeStartedAt = System.nanoTime();
+                            statement.executeBatch();
+                            long executedAt = System.nanoTime();
+                            controller.onChunkFlushed(rows, executedAt - executeStartedAt, executedAt - chunkStartedAt);
+                            rows = 0;
+                            chunkStartedAt = executedAt;
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("upsert operation fails for entities of type: {} \ncause: {}",
+                            getEntityTypeName(),
+                            e.getMessage(),
+                            e);
+                    status.setRollbackOnly();
+                    throw new BatchOperationException(e.getMessage());
+                }
+            });
+        });
+        cachedCounters.invalidateAll();
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new BatchUpsertedEvent<>(this, models));
+        }
+        return models;
+    }
+
+    /**
+     * Состояние удаляемых сущностей до удаления для кешируемых счётчиков,
+     * загружается только при зарегистрированных счётчиках
+     */
+    private List<T> findCountedEntities(List<ID> ids) {
+        return cachedCounters.isEmpty() ? List.of() : jpaRepository.findAllById(ids);
+    }
+
+    private static <R> List<R> getSucceededData(List<? extends BatchResultWithData<R>> results) {
+        return results.stream()
+                .filter(result -> result.getStatus() == BatchOperationStatus.SUCCESS)
+                .map(BatchResultWithData::getData)
+                .toList();
+    }
+
+    private JpaUpsertOperation<T> getUpsertOperation() {
+        if (upsertOperation == null) {
+            upsertOperation = new JpaUpsertOperation<>(entityManager.getEntityManagerFactory(), entityType);
+        }
+        return upsertOperation;
+    }
+
 }
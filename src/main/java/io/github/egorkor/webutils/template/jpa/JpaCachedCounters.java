@@ -0,0 +1,320 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Кешируемые счётчики сервиса: кол-во записей по фиксированным фильтрам, вычисленное
+ * запросом COUNT при регистрации и далее поддерживаемое в памяти по операциям сервиса.
+ * <ul>
+ *     <li>создание, удаление, мягкое удаление и восстановление одной сущности меняют
+ *     счётчик на 1, если сущность удовлетворяет его фильтру ({@link Filter#matches(Object)})
+ *     до или после операции</li>
+ *     <li>массовые операции применяют кол-во затронутых строк к счётчикам без условий,
+ *     удаление всех записей обнуляет счётчики</li>
+ *     <li>остальные изменения помечают счётчик устаревшим, он пересчитывается при следующем чтении</li>
+ * </ul>
+ * Изменения применяются после фиксации транзакции. Записи в обход сервиса не отслеживаются
+ * и исправляются сверкой {@link #reconcile()}.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+class JpaCachedCounters<T> {
+    private final Map<String, Counter<T>> counters = new ConcurrentHashMap<>();
+    private final ToLongFunction<Filter<T>> exactCount;
+
+    /**
+     * @param exactCount точный подсчёт записей по фильтру счётчика
+     */
+    JpaCachedCounters(ToLongFunction<Filter<T>> exactCount) {
+        this.exactCount = exactCount;
+    }
+
+    /**
+     * @param filter фильтр с отображёнными именами полей и условием мягкого удаления
+     */
+    void register(String name, Filter<T> filter) {
+        Counter<T> counter = new Counter<>(filter);
+        counter.value.set(exactCount.applyAsLong(filter));
+        if (counters.putIfAbsent(name, counter) != null) {
+            throw new IllegalArgumentException("Counter is already registered: " + name);
+        }
+    }
+
+    void unregister(String name) {
+        counters.remove(name);
+    }
+
+    boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    Set<String> names() {
+        return Set.copyOf(counters.keySet());
+    }
+
+    long get(String name) {
+        Counter<T> counter = counters.get(name);
+        if (counter == null) {
+            throw new IllegalArgumentException("Counter is not registered: " + name);
+        }
+        if (counter.stale) {
+            synchronized (counter) {
+                if (counter.stale) {
+                    refresh(counter);
+                }
+            }
+        }
+        return counter.value.get();
+    }
+
+    /**
+     * Пересчитывает все счётчики запросом COUNT
+     *
+     * @return кол-во счётчиков, значение которых разошлось с БД
+     */
+    int reconcile() {
+        int drifted = 0;
+        for (Map.Entry<String, Counter<T>> entry : counters.entrySet()) {
+            Counter<T> counter = entry.getValue();
+            long cached = counter.value.get();
+            boolean stale = counter.stale;
+            synchronized (counter) {
+                refresh(counter);
+            }
+            if (!stale && cached != counter.value.get()) {
+                log.debug("Cached counter '{}' drifted: cached {}, actual {}", entry.getKey(), cached, counter.value.get());
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private void refresh(Counter<T> counter) {
+        counter.stale = false;
+        counter.value.set(exactCount.applyAsLong(counter.filter));
+    }
+
+    /**
+     * Фиксирует соответствие сущности фильтрам счётчиков до изменения
+     *
+     * @param before состояние сущности до операции, null - сущность не существовала
+     */
+    Transition<T> before(T before) {
+        Map<Counter<T>, Boolean> matched = new HashMap<>();
+        counters.values().forEach(counter -> matched.put(counter, counter.matchesSafely(before)));
+        return new Transition<>(matched);
+    }
+
+    /**
+     * Создание сущностей
+     */
+    void created(List<T> entities) {
+        applyEach(entities, 1);
+    }
+
+    /**
+     * Удаление сущностей
+     *
+     * @param entities состояние удалённых сущностей до удаления
+     */
+    void deleted(List<T> entities) {
+        applyEach(entities, -1);
+    }
+
+    private void applyEach(List<T> entities, long sign) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Map<Counter<T>, Long> deltas = new HashMap<>();
+        for (Counter<T> counter : counters.values()) {
+            Long delta = 0L;
+            for (T entity : entities) {
+                Boolean matched = counter.matchesSafely(entity);
+                if (matched == null) {
+                    delta = null;
+                    break;
+                }
+                delta += matched ? sign : 0;
+            }
+            deltas.put(counter, delta);
+        }
+        afterCommit(() -> deltas.forEach((counter, delta) -> counter.apply(delta)));
+    }
+
+    /**
+     * Удаление или мягкое удаление всех строк таблицы
+     */
+    void deletedAll() {
+        afterCommit(() -> counters.values().forEach(Counter::reset));
+    }
+
+    /**
+     * Массовое удаление или мягкое удаление строк по фильтру: кол-во удалённых строк
+     * вычитается из счётчиков без условий, остальные счётчики помечаются устаревшими
+     *
+     * @param unfiltered удаление всех строк таблицы
+     * @param count      кол-во удалённых строк
+     */
+    void bulkDeleted(boolean unfiltered, long count) {
+        if (unfiltered) {
+            deletedAll();
+            return;
+        }
+        if (count == 0) {
+            return;
+        }
+        afterCommit(() -> counters.values().forEach(counter -> {
+            if (counter.filter.isUnfiltered()) {
+                counter.value.addAndGet(-count);
+            } else {
+                counter.stale = true;
+            }
+        }));
+    }
+
+    /**
+     * Массовое обновление или восстановление строк по фильтру
+     *
+     * @param fields изменённые поля
+     * @param count  кол-во обновлённых строк
+     */
+    void bulkUpdated(Collection<String> fields, long count) {
+        if (count != 0) {
+            invalidate(fields);
+        }
+    }
+
+    /**
+     * Изменение, последствия которого для счётчиков неизвестны: счётчики с условиями
+     * на изменённые поля помечаются устаревшими
+     *
+     * @param fields изменённые поля, null - любые поля
+     */
+    void invalidate(Collection<String> fields) {
+        afterCommit(() -> counters.values().stream()
+                .filter(counter -> counter.dependsOn(fields))
+                .forEach(counter -> counter.stale = true));
+    }
+
+    /**
+     * Изменение, которое может затронуть любые счётчики, например вставка или обновление
+     */
+    void invalidateAll() {
+        afterCommit(() -> counters.values().forEach(counter -> counter.stale = true));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Переход одной сущности между состояниями: счётчик меняется на 1, если
+     * соответствие сущности его фильтру изменилось
+     */
+    static class Transition<T> {
+        private final Map<Counter<T>, Boolean> before;
+
+        private Transition(Map<Counter<T>, Boolean> before) {
+            this.before = before;
+        }
+
+        /**
+         * @param after состояние сущности после операции, null - сущность удалена
+         */
+        void after(T after) {
+            Map<Counter<T>, Long> deltas = new HashMap<>();
+            before.forEach((counter, matchedBefore) -> {
+                Boolean matchedAfter = counter.matchesSafely(after);
+                if (matchedBefore == null || matchedAfter == null) {
+                    deltas.put(counter, null);
+                } else if (!matchedBefore.equals(matchedAfter)) {
+                    deltas.put(counter, matchedAfter ? 1L : -1L);
+                }
+            });
+            afterCommit(() -> deltas.forEach((counter, delta) -> counter.apply(delta)));
+        }
+    }
+
+    private static class Counter<T> {
+        private final Filter<T> filter;
+        private final boolean matchable;
+        private final Set<String> fields;
+        private final AtomicLong value = new AtomicLong();
+        private volatile boolean stale;
+
+        private Counter(Filter<T> filter) {
+            this.filter = filter;
+            this.matchable = filter.isMatchableInMemory();
+            this.fields = filter.getConditionFields().stream()
+                    .map(field -> field.split("\\.")[0])
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+
+        /**
+         * @return соответствие сущности фильтру, null - если его нельзя проверить в памяти
+         */
+        private Boolean matchesSafely(T entity) {
+            if (entity == null) {
+                return false;
+            }
+            if (!matchable) {
+                return null;
+            }
+            try {
+                return filter.matches(entity);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        private boolean dependsOn(Collection<String> changedFields) {
+            if (changedFields == null) {
+                return !fields.isEmpty();
+            }
+            return changedFields.stream()
+                    .map(field -> field.split("\\.")[0])
+                    .anyMatch(fields::contains);
+        }
+
+        /**
+         * @param delta изменение значения, null - значение неизвестно и будет пересчитано
+         */
+        private void apply(Long delta) {
+            if (delta == null) {
+                stale = true;
+            } else if (delta != 0) {
+                value.addAndGet(delta);
+            }
+        }
+
+        private void reset() {
+            value.set(0);
+            stale = false;
+        }
+    }
+}
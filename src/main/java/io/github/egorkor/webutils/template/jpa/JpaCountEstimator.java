@@ -0,0 +1,126 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+import io.github.egorkor.webutils.queryparam.utils.FilterStatementSetter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.BasicValuedModelPart;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Приблизительный подсчёт сущностей по статистике СУБД ({@link CountMode#APPROXIMATE}):
+ * <ul>
+ *     <li>без условий - по каталогу: {@code pg_class.reltuples} в PostgreSQL,
+ *     {@code information_schema.tables.table_rows} в MySQL/MariaDB</li>
+ *     <li>с условиями - по оценке планировщика из {@code EXPLAIN} запроса
+ *     {@code SELECT 1 FROM <таблица> WHERE <фильтр>}, поля фильтра отображаются в колонки</li>
+ * </ul>
+ * Для остальных СУБД, полей через связи или функции и при любой ошибке возвращается пустой результат,
+ * вызывающий код выполняет точный подсчёт.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+class JpaCountEstimator<T> {
+    private static final Pattern PG_PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*([0-9.eE+]+)");
+
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+    private final DatabaseType dbType;
+
+    JpaCountEstimator(EntityManager entityManager, Class<T> entityType, DatabaseType dbType) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+        this.dbType = dbType;
+    }
+
+    OptionalLong estimate(Filter<T> filter) {
+        if (dbType != DatabaseType.POSTGRESQL && dbType != DatabaseType.MYSQL && dbType != DatabaseType.MARIADB) {
+            return OptionalLong.empty();
+        }
+        try {
+            AbstractEntityPersister persister = persister();
+            return filter.isUnfiltered()
+                    ? catalogEstimate(persister.getTableName())
+                    : explainEstimate(persister, filter);
+        } catch (Exception e) {
+            log.debug("Cannot estimate count of {}, falling back to exact count", entityType.getSimpleName(), e);
+            return OptionalLong.empty();
+        }
+    }
+
+    private OptionalLong catalogEstimate(String tableName) {
+        String sql = dbType == DatabaseType.POSTGRESQL
+                ? "SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)"
+                : "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?";
+        String table = dbType == DatabaseType.POSTGRESQL ? tableName : tableName.substring(tableName.lastIndexOf('.') + 1);
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, table);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        return OptionalLong.empty();
+                    }
+                    double rows = rs.getDouble(1);
+                    // reltuples = -1 для таблиц, по которым ещё не собрана статистика
+                    return rs.wasNull() || rows < 0 ? OptionalLong.empty() : OptionalLong.of(Math.round(rows));
+                }
+            }
+        });
+    }
+
+    private OptionalLong explainEstimate(AbstractEntityPersister persister, Filter<T> filter) {
+        Filter<T> columnFilter = filter.mapFieldNames(field -> toColumn(persister, field));
+        String select = "SELECT 1 FROM %s %s".formatted(persister.getTableName(), columnFilter.toSQLFilter("", dbType));
+        String sql = dbType == DatabaseType.POSTGRESQL ? "EXPLAIN (FORMAT JSON) " + select : "EXPLAIN " + select;
+        FilterStatementSetter setter = new FilterStatementSetter(columnFilter.getFilterValues(dbType));
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                setter.setValues(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        return OptionalLong.empty();
+                    }
+                    if (dbType == DatabaseType.POSTGRESQL) {
+                        Matcher matcher = PG_PLAN_ROWS.matcher(rs.getString(1));
+                        return matcher.find()
+                                ? OptionalLong.of(Math.round(Double.parseDouble(matcher.group(1))))
+                                : OptionalLong.empty();
+                    }
+                    // MySQL: оценка строк первой таблицы с учётом доли прошедших условие
+                    return OptionalLong.of(Math.round(rs.getDouble("rows") * rs.getDouble("filtered") / 100));
+                }
+            }
+        });
+    }
+
+    private static String toColumn(AbstractEntityPersister persister, String field) {
+        if (field.equals(persister.getIdentifierPropertyName())) {
+            return persister.getIdentifierColumnNames()[0];
+        }
+        if (field.contains(".")
+                || !(persister.findAttributeMapping(field) instanceof BasicValuedModelPart attribute)
+                || attribute.isFormula()) {
+            throw new IllegalArgumentException("Field " + field + " cannot be mapped to a column");
+        }
+        return attribute.getSelectionExpression();
+    }
+
+    private AbstractEntityPersister persister() {
+        return (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType);
+    }
+}
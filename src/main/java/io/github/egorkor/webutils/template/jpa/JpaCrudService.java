@@ -6,19 +6,27 @@ import io.github.egorkor.webutils.exception.EntityOperation;
 import io.github.egorkor.webutils.exception.EntityProcessingException;
 import io.github.egorkor.webutils.exception.ResourceNotFoundException;
 import io.github.egorkor.webutils.exception.SoftDeleteUnsupportedException;
+import io.github.egorkor.webutils.metrics.QueryShapeStatistics;
+import io.github.egorkor.webutils.metrics.jfr.QueryExecutionEvent;
+import io.github.egorkor.webutils.queryparam.Aggregation;
+import io.github.egorkor.webutils.queryparam.FacetCount;
 import io.github.egorkor.webutils.queryparam.Filter;
 import io.github.egorkor.webutils.queryparam.PageableResult;
 import io.github.egorkor.webutils.queryparam.Pagination;
 import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+import io.github.egorkor.webutils.queryparam.utils.DriverUtils;
+import io.github.egorkor.webutils.queryparam.utils.FieldTypeUtils;
 import io.github.egorkor.webutils.service.sync.CrudService;
 import jakarta.persistence.*;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.CriteriaUpdate;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.*;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.SneakyThrows;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.EntityDiscriminatorMapping;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
@@ -34,7 +42,10 @@ import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.*;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 
 /**
@@ -77,6 +88,10 @@ import java.util.function.Supplier;
  *         <td>{@link EntityUpdatingEvent} {@link EntityUpdatedEvent}</td>
  *     </tr>
  *     <tr>
+ *         <td>{@link #updateByFilter(Filter, Map, boolean)}</td>
+ *         <td>{@link EntityBulkUpdatedEvent}</td>
+ *     </tr>
+ *     <tr>
  *         <td>{@link #deleteById(Object)}</td>
  *         <td>{@link EntityDeletingEvent} {@link EntityDeletedEvent}</td>
  *     </tr>
@@ -85,6 +100,12 @@ import java.util.function.Supplier;
  *         <td>{@link EntitySoftDeletingEvent} {@link EntitySoftDeletedEvent}</td>
  *     </tr>
  * </table>
+ * <p>
+ * Физическое удаление {@link #deleteAll()} и {@link #deleteByFilter(Filter)} выполняется
+ * одним выражением DELETE без загрузки сущностей. Если сущность имеет каскадное удаление,
+ * orphanRemoval связи или обработчики {@link PreRemove}/{@link PostRemove}/{@link EntityListeners},
+ * удаление выполняется через загрузку сущностей, см. {@link #isEntityLoadingDeleteRequired()}.
+ * </p>
  *
  * @author EgorKor
  * @version 1.0
@@ -149,6 +170,16 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
             Date.class, () -> null
     );
 
+    private static final Map<Class<?>, Function<Instant, Object>> PURGE_CUTOFF_MAPPING = Map.of(
+            Timestamp.class, Timestamp::from,
+            LocalDateTime.class, i -> LocalDateTime.ofInstant(i, ZoneId.systemDefault()),
+            LocalDate.class, i -> LocalDate.ofInstant(i, ZoneId.systemDefault()),
+            Instant.class, i -> i,
+            OffsetDateTime.class, i -> OffsetDateTime.ofInstant(i, ZoneId.systemDefault()),
+            Date.class, i -> new Date(i.toEpochMilli())
+    );
+    private static final String TABLE_NAME_REGEX = "[a-zA-Z0-9_.]+";
+
     protected final JpaRepository<T, ID> jpaRepository;
     protected final JpaSpecificationExecutor<T> jpaSpecificationExecutor;
     protected final ApplicationEventPublisher eventPublisher;
@@ -156,21 +187,47 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
     protected final Class<T> entityType;
     @Setter
     protected EntityManager entityManager;
+    @Getter
     protected boolean isSoftDeleteSupported = false;
     protected Field softDeleteField;
     protected Field idField;
+    protected Field versionField;
+    protected boolean isEntityLoadingDeleteRequired;
+    @Getter
+    protected final SoftDeletePurgeProgress softDeletePurgeProgress = new SoftDeletePurgeProgress();
+    @Getter
+    @Setter
+    protected PaginationStrategy paginationStrategy = PaginationStrategy.AUTO;
+    @Getter
+    @Setter
+    protected CountMode countMode = CountMode.EXACT;
+    protected JpaCachedCounters<T> cachedCounters;
 
     public JpaCrudService(JpaRepository<T, ID> jpaRepository,
                           JpaSpecificationExecutor<T> jpaSpecificationExecutor,
                           ApplicationEventPublisher eventPublisher,
                           TransactionTemplate transactionTemplate) {
+        this(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate, null);
+    }
+
+    /**
+     * @param entityType класс сущности, если он не может быть определён по параметру типа
+     *                   наследника (например, у обобщённых внутренних сервисов), null - определяется по наследнику
+     */
+    protected JpaCrudService(JpaRepository<T, ID> jpaRepository,
+                             JpaSpecificationExecutor<T> jpaSpecificationExecutor,
+                             ApplicationEventPublisher eventPublisher,
+                             TransactionTemplate transactionTemplate,
+                             Class<T> entityType) {
         this.jpaRepository = jpaRepository;
         this.jpaSpecificationExecutor = jpaSpecificationExecutor;
         this.eventPublisher = eventPublisher;
         this.transactionTemplate = transactionTemplate;
 
         //initialize entity class definition
-        {
+        if (entityType != null) {
+            this.entityType = entityType;
+        } else {
             Type superclass = getClass().getGenericSuperclass();
             ParameterizedType parameterizedType = (ParameterizedType) superclass;
             Type typeArgument = parameterizedType.getActualTypeArguments()[0];
@@ -178,6 +235,9 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
         }
         defineSoftDeleteSupport();
         defineIdField();
+        defineVersionField();
+        defineEntityLoadingDeleteRequirement();
+        this.cachedCounters = new JpaCachedCounters<>(filter -> this.jpaSpecificationExecutor.count(filter));
     }
 
     @SneakyThrows
@@ -230,6 +290,40 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                 );
     }
 
+    private void defineVersionField() {
+        this.versionField = Arrays.stream(entityType.getDeclaredFields())
+                .filter((f) -> f.isAnnotationPresent(Version.class)
+                        || f.isAnnotationPresent(org.springframework.data.annotation.Version.class))
+                .findAny().orElse(null);
+    }
+
+    private void defineEntityLoadingDeleteRequirement() {
+        boolean hasRemoveCascade = Arrays.stream(entityType.getDeclaredFields())
+                .anyMatch(this::isRemoveCascaded);
+        boolean hasRemoveCallbacks = entityType.isAnnotationPresent(EntityListeners.class)
+                || Arrays.stream(entityType.getDeclaredMethods())
+                .anyMatch(m -> m.isAnnotationPresent(PreRemove.class) || m.isAnnotationPresent(PostRemove.class));
+        this.isEntityLoadingDeleteRequired = hasRemoveCascade || hasRemoveCallbacks;
+    }
+
+    private boolean isRemoveCascaded(Field field) {
+        CascadeType[] cascade = new CascadeType[0];
+        boolean orphanRemoval = false;
+        if (field.isAnnotationPresent(OneToMany.class)) {
+            cascade = field.getAnnotation(OneToMany.class).cascade();
+            orphanRemoval = field.getAnnotation(OneToMany.class).orphanRemoval();
+        } else if (field.isAnnotationPresent(OneToOne.class)) {
+            cascade = field.getAnnotation(OneToOne.class).cascade();
+            orphanRemoval = field.getAnnotation(OneToOne.class).orphanRemoval();
+        } else if (field.isAnnotationPresent(ManyToMany.class)) {
+            cascade = field.getAnnotation(ManyToMany.class).cascade();
+        } else if (field.isAnnotationPresent(ManyToOne.class)) {
+            cascade = field.getAnnotation(ManyToOne.class).cascade();
+        }
+        return orphanRemoval || Arrays.stream(cascade)
+                .anyMatch(c -> c == CascadeType.ALL || c == CascadeType.REMOVE);
+    }
+
     private Filter<T> getSoftDeleteSupportedFilter(@NonNull Filter<T> filter) {
         if (!isSoftDeleteSupported) {
             return filter;
@@ -250,8 +344,212 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                                     @NonNull Sorting sorting,
                                     @NonNull Pagination pagination) {
         filter.setEntityType(entityType);
-        return PageableResult.of(jpaSpecificationExecutor.findAll(getSoftDeleteSupportedFilter(filter),
-                pagination.toJpaPageable(sorting)));
+        if (filter.hasFetchPlan()) {
+            return transactionTemplate.execute(status -> {
+                PageableResult<T> page = findPage(filter, sorting, pagination);
+                return page.map(data -> createFetchPlanLoader().load(data, filter));
+            });
+        }
+        return findPage(filter, sorting, pagination);
+    }
+
+    private PageableResult<T> findPage(Filter<T> filter, Sorting sorting, Pagination pagination) {
+        QueryShapeStatistics statistics = QueryShapeStatistics.current();
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        if (statistics == null && !event.isEnabled()) {
+            return executePageQuery(getSoftDeleteSupportedFilter(filter), sorting, pagination);
+        }
+        Filter<T> resultFilter = getSoftDeleteSupportedFilter(filter);
+        PageableResult<T> result = null;
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            result = executePageQuery(resultFilter, sorting, pagination);
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (statistics != null) {
+                statistics.recordQuery(entityType, resultFilter.getShape(), sorting, pagination, nanos);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.entity = entityType.getName();
+                event.operation = "getAll";
+                event.shape = resultFilter.getShape();
+                event.sort = String.join(",", sorting.getSort());
+                event.pageSize = pagination.getSize();
+                event.resultCount = result == null ? 0 : result.getData().size();
+                event.commit();
+            }
+        }
+    }
+
+    private PageableResult<T> executePageQuery(Filter<T> filter, Sorting sorting, Pagination pagination) {
+        if (isIdsFirstPagination(filter, pagination)) {
+            return new JpaIdsFirstPageQuery<>(entityManager, entityType, idField.getName())
+                    .execute(filter, sorting, pagination);
+        }
+        if (countMode == CountMode.APPROXIMATE && !pagination.isUnpaged()) {
+            return executeEstimatedPageQuery(filter, sorting, pagination);
+        }
+        return PageableResult.of(jpaSpecificationExecutor.findAll(filter, pagination.toJpaPageable(sorting)));
+    }
+
+    /**
+     * Страница без запроса {@code COUNT(*)}: кол-во точно известно для неполной первой страницы,
+     * иначе берётся оценка СУБД, не меньшая уже просмотренных строк
+     */
+    private PageableResult<T> executeEstimatedPageQuery(Filter<T> filter, Sorting sorting, Pagination pagination) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(entityType);
+        Root<T> root = cq.from(entityType);
+        cq.where(filter.toPredicate(root, cq, cb)).orderBy(sorting.toCriteriaOrderList(root, cb));
+        int offset = pagination.getPage() * pagination.getSize();
+        List<T> data = entityManager.createQuery(cq)
+                .setFirstResult(offset)
+                .setMaxResults(pagination.getSize())
+                .getResultList();
+        if (pagination.getPage() == 0 && data.size() < pagination.getSize()) {
+            return PageableResult.of(data, data.size(), pagination.getSize());
+        }
+        OptionalLong estimate = createCountEstimator().estimate(filter);
+        if (estimate.isEmpty()) {
+            return PageableResult.of(data, jpaSpecificationExecutor.count(filter), pagination.getSize());
+        }
+        return PageableResult.ofEstimated(data, Math.max(estimate.getAsLong(), offset + data.size()),
+                pagination.getSize());
+    }
+
+    private JpaCountEstimator<T> createCountEstimator() {
+        return new JpaCountEstimator<>(entityManager, entityType, getDatabaseType());
+    }
+
+    /**
+     * Тип СУБД для приблизительного подсчёта, по умолчанию по доступному JDBC драйверу
+     */
+    protected DatabaseType getDatabaseType() {
+        return DriverUtils.getActiveDatabaseType();
+    }
+
+    /**
+     * Агрегирующий запрос: группировка, агрегатные функции и {@code HAVING} вычисляются в БД,
+     * строки результата содержат поля группировки и псевдонимы агрегатов.
+     * Сортировка возможна по полям группировки и псевдонимам, пагинация - по группам.
+     * Поля группировки, агрегатов и условия HAVING проверяются и отображаются по правилам
+     * фильтра WHERE, см. {@link Filter#resolveFieldNames(List)}.
+     *
+     * @param aggregation поля группировки, агрегаты и условие HAVING
+     * @param filter      условие WHERE, с учётом мягкого удаления
+     * @return страница строк агрегации, count - общее кол-во групп
+     */
+    public PageableResult<Map<String, Object>> aggregate(@NonNull Aggregation aggregation,
+                                                         @NonNull Filter<T> filter,
+                                                         @NonNull Sorting sorting,
+                                                         @NonNull Pagination pagination) {
+        filter.setEntityType(entityType);
+        List<String> groupBy = aggregation.getGroupByFields();
+        List<Aggregation.Aggregate> aggregates = aggregation.getAggregates();
+        List<String> aggregatePaths = filter.resolveFieldNames(aggregates.stream()
+                .map(Aggregation.Aggregate::field)
+                .toList());
+        List<Aggregation.Aggregate> resolvedAggregates = new ArrayList<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            Aggregation.Aggregate aggregate = aggregates.get(i);
+            resolvedAggregates.add(new Aggregation.Aggregate(aggregatePaths.get(i), aggregate.function(), aggregate.alias()));
+        }
+        return new JpaAggregationQuery<>(entityManager, entityType)
+                .execute(groupBy, filter.resolveFieldNames(groupBy), resolvedAggregates,
+                        resolveHaving(aggregation, filter), getSoftDeleteSupportedFilter(filter), sorting, pagination);
+    }
+
+    /**
+     * Условие HAVING, поля которого (без функции) проверены и отображены по правилам фильтра WHERE
+     */
+    @SuppressWarnings("unchecked")
+    private Filter<T> resolveHaving(Aggregation aggregation, Filter<T> filter) {
+        Filter<T> having = (Filter<T>) aggregation.getHaving();
+        if (having == null || !having.isFiltered()) {
+            return Filter.emptyFilter(entityType);
+        }
+        having.setEntityType(entityType);
+        return having.mapFieldNames(field -> {
+            int function = field.endsWith("()") ? field.lastIndexOf('.') : -1;
+            String base = function < 0 ? field : field.substring(0, function);
+            return filter.resolveFieldNames(List.of(base)).getFirst()
+                    + (function < 0 ? "" : field.substring(function));
+        });
+    }
+
+    /**
+     * Кол-во сущностей по значениям каждого поля фасета за один запрос ({@code UNION ALL}
+     * из {@code GROUP BY} по каждому полю) с учётом фильтра и мягкого удаления.
+     * Имена полей проверяются и отображаются по правилам фильтра, см. {@link Filter#resolveFieldNames(List)}.
+     *
+     * @param base        условие, общее для всех фасетов
+     * @param facetFields поля фасетов
+     * @param topN        максимальное кол-во значений каждого фасета, самые частые первыми
+     * @return значения и их кол-во по каждому полю в порядке facetFields
+     */
+    public Map<String, List<FacetCount>> facetCounts(@NonNull Filter<T> base,
+                                                     @NonNull List<String> facetFields,
+                                                     int topN) {
+        base.setEntityType(entityType);
+        List<String> entityPaths = base.resolveFieldNames(facetFields);
+        return new JpaFacetCountQuery<>(entityManager, entityType)
+                .execute(getSoftDeleteSupportedFilter(base), facetFields, entityPaths, topN);
+    }
+
+    /**
+     * Регистрирует кешируемый счётчик записей по фильтру с учётом мягкого удаления.
+     * Значение вычисляется запросом COUNT при регистрации и далее поддерживается в памяти
+     * по операциям создания, удаления, мягкого удаления и восстановления сервиса,
+     * чтение через {@link #getCachedCount(String)} не обращается к БД.
+     * Изменения в обход сервиса исправляются сверкой {@link #reconcileCachedCounts()},
+     * см. {@link CachedCountReconcileTask}.
+     *
+     * @param name   имя счётчика
+     * @param filter условие счётчика
+     * @throws IllegalArgumentException если счётчик с таким именем уже зарегистрирован
+     */
+    public void registerCachedCount(@NonNull String name, @NonNull Filter<T> filter) {
+        filter.setEntityType(entityType);
+        Filter<T> counterFilter = filter.mapFieldNames(UnaryOperator.identity());
+        counterFilter.setEntityType(entityType);
+        cachedCounters.register(name, getSoftDeleteSupportedFilter(counterFilter));
+    }
+
+    public void unregisterCachedCount(@NonNull String name) {
+        cachedCounters.unregister(name);
+    }
+
+    /**
+     * Значение кешируемого счётчика. Счётчик, помеченный устаревшим после изменения,
+     * которое нельзя применить в памяти, пересчитывается при чтении.
+     *
+     * @throws IllegalArgumentException если счётчик не зарегистрирован
+     */
+    public long getCachedCount(@NonNull String name) {
+        return cachedCounters.get(name);
+    }
+
+    /**
+     * Пересчитывает кешируемые счётчики запросами COUNT
+     *
+     * @return кол-во счётчиков, значение которых разошлось с БД
+     */
+    public int reconcileCachedCounts() {
+        return cachedCounters.reconcile();
+    }
+
+    /**
+     * Определяет, выбирать ли страницу в два этапа, по {@link #paginationStrategy}
+     */
+    protected boolean isIdsFirstPagination(Filter<T> filter, Pagination pagination) {
+        return switch (paginationStrategy) {
+            case SINGLE_QUERY -> false;
+            case IDS_FIRST -> !pagination.isUnpaged();
+            case AUTO -> !pagination.isUnpaged() && filter.isCollectionFiltered();
+        };
     }
 
     @Override
@@ -284,10 +582,21 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
         Filter<T> baseIdFilter = Filter.builder().equals(idField.getName(), id.toString()).build();
         Filter<T> resultIdFilter = getSoftDeleteSupportedFilter(baseIdFilter).concat(filter);
         resultIdFilter.setEntityType(entityType);
+        if (resultIdFilter.hasFetchPlan()) {
+            return transactionTemplate.execute(status -> {
+                T entity = jpaSpecificationExecutor.findOne(resultIdFilter)
+                        .orElseThrow(exceptionSupplier);
+                return createFetchPlanLoader().load(List.of(entity), resultIdFilter).get(0);
+            });
+        }
         return jpaSpecificationExecutor.findOne(resultIdFilter)
                 .orElseThrow(exceptionSupplier);
     }
 
+    private JpaFetchPlanLoader<T> createFetchPlanLoader() {
+        return new JpaFetchPlanLoader<>(entityManager, entityType, idField.getName());
+    }
+
     @Override
     public T getByFilter(@NonNull Filter<T> filter) throws ResourceNotFoundException {
         Supplier<ResourceNotFoundException> exceptionSupplier = () ->
@@ -327,14 +636,27 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
         TypedQuery<T> typedQuery = entityManager.createQuery(cq);
         typedQuery.setLockMode(lockType);
         return transactionTemplate.execute(status -> {
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
             try {
-                return typedQuery.getSingleResult();
+                T result = typedQuery.getSingleResult();
+                event.resultCount = 1;
+                return result;
             } catch (NoResultException e) {
                 throw new ResourceNotFoundException("Entity "
                         + getEntityTypeName()
                         + " with condition: "
                         + filter.toSQLFilter().replace("WHERE", "").trim()
                         + " not found.");
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.entity = entityType.getName();
+                    event.operation = "getByFilterWithLock";
+                    event.shape = filter.getShape();
+                    event.lockMode = lockType.name();
+                    event.commit();
+                }
             }
         });
     }
@@ -356,6 +678,7 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                             e, entityType, EntityOperation.CREATE);
                 }
             });
+            cachedCounters.created(List.of(saved));
 
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityCreatedEvent<>(this, saved));
@@ -376,6 +699,7 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityUpdatingEvent<>(this, model));
             }
+            JpaCachedCounters.Transition<T> counted = cachedCounters.isEmpty() ? null : findCountedState(model);
             T updated = transactionTemplate.execute(status -> {
                 try {
                     return jpaRepository.save(model);
@@ -384,6 +708,11 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                             e, entityType, EntityOperation.CREATE);
                 }
             });
+            if (counted != null) {
+                counted.after(updated);
+            } else {
+                cachedCounters.invalidate(null);
+            }
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityUpdatedEvent<>(this, updated));
             }
@@ -396,6 +725,17 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
         }
     }
 
+    /**
+     * Состояние сущности в БД до полного обновления для кешируемых счётчиков: отсутствие
+     * сущности означает вставку. Null - если прежнее состояние недоступно, так как
+     * model уже присоединена к контексту персистентности и изменена.
+     */
+    private JpaCachedCounters.Transition<T> findCountedState(T model) {
+        Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(model);
+        T stored = id == null ? null : jpaRepository.findById((ID) id).orElse(null);
+        return stored == model ? null : cachedCounters.before(stored);
+    }
+
     @Override
     public T patchUpdate(@NonNull ID id,
                          @NonNull T model) throws EntityProcessingException {
@@ -404,6 +744,7 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityUpdatingEvent<>(this, dbModel));
             }
+            JpaCachedCounters.Transition<T> counted = cachedCounters.before(dbModel);
             JpaEntityPropertyPatcher.patch(model, dbModel);
             T updated = transactionTemplate.execute(status -> {
                 try {
@@ -413,6 +754,7 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                             e, entityType, EntityOperation.CREATE);
                 }
             });
+            counted.after(updated);
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityUpdatedEvent<>(this, updated));
             }
@@ -425,12 +767,72 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
         }
     }
 
+    @Override
+    public int updateByFilter(@NonNull Filter<T> filter,
+                              @NonNull Map<String, Object> assignments) throws EntityProcessingException {
+        return updateByFilter(filter, assignments, false);
+    }
+
+    @Override
+    public int updateByFilter(@NonNull Filter<T> filter,
+                              @NonNull Map<String, Object> assignments,
+                              boolean incrementVersion) throws EntityProcessingException {
+        if (assignments.isEmpty()) {
+            throw new IllegalArgumentException("Update assignments should not be empty");
+        }
+        if (incrementVersion && versionField == null) {
+            throw new IllegalStateException("Entity " + entityType.getName() + " has no @Version field");
+        }
+        try {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityType);
+            Root<T> root = update.from(entityType);
+            assignments.forEach((field, value) ->
+                    update.set(root.get(field), convertAssignmentValue(field, value)));
+            if (incrementVersion) {
+                Path<Number> versionPath = root.get(versionField.getName());
+                update.set(versionPath, cb.sum(versionPath, 1));
+            }
+            filter.setEntityType(entityType);
+            Filter<T> resultFilter = getSoftDeleteSupportedFilter(filter);
+            if (resultFilter.isFiltered()) {
+                update.where(resultFilter.toPredicate(root, update, cb, true));
+            }
+            Integer updated = transactionTemplate.execute(status ->
+                    entityManager.createQuery(update).executeUpdate());
+            int updatedCount = updated == null ? 0 : updated;
+            cachedCounters.bulkUpdated(assignments.keySet(), updatedCount);
+            if (eventPublisher != null) {
+                eventPublisher.publishEvent(new EntityBulkUpdatedEvent<>(this, filter, assignments,
+                        updatedCount, entityType));
+            }
+            return updatedCount;
+        } catch (Exception e) {
+            throw new EntityProcessingException(
+                    "Unexpected update entities by filter error: " + filter,
+                    e,
+                    entityType,
+                    EntityOperation.UPDATE
+            );
+        }
+    }
+
+    private Object convertAssignmentValue(String field, Object value) {
+        if (!(value instanceof String stringValue)) {
+            return value;
+        }
+        Class<?> fieldType = FieldTypeUtils.getField(entityType, field).getType();
+        return Filter.convertValue(stringValue, fieldType);
+    }
+
     @Override
     public void deleteById(@NonNull ID id) throws ResourceNotFoundException, EntityProcessingException {
         try {
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityDeletingEvent<>(this, id));
             }
+            JpaCachedCounters.Transition<T> counted = cachedCounters.before(cachedCounters.isEmpty() ? null :
+                    jpaRepository.findById(id).orElse(null));
             transactionTemplate.executeWithoutResult(status -> {
                 try {
                     jpaRepository.deleteById(id);
@@ -438,6 +840,7 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                     throw new EntityProcessingException("Entity delete by id data access error: " + id, e, entityType, EntityOperation.DELETE);
                 }
             });
+            counted.after(null);
             if (eventPublisher != null) {
                 eventPublisher.publishEvent(new EntityDeletedEvent<>(this, id, entityType));
             }
@@ -453,7 +856,16 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
     @Override
     public void deleteAll() throws EntityProcessingException {
         try {
-            jpaRepository.deleteAll();
+            if (isEntityLoadingDeleteRequired()) {
+                jpaRepository.deleteAll();
+                cachedCounters.deletedAll();
+                return;
+            }
+            CriteriaDelete<T> delete = entityManager.getCriteriaBuilder().createCriteriaDelete(entityType);
+            delete.from(entityType);
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.createQuery(delete).executeUpdate());
+            cachedCounters.deletedAll();
         } catch (Exception e) {
             throw new EntityProcessingException("Unexpected delete all entities error", e, entityType, EntityOperation.DELETE);
         }
@@ -463,22 +875,159 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
     public void deleteByFilter(@NonNull Filter<T> filter) throws EntityProcessingException {
         try {
             filter.setEntityType(entityType);
-            jpaSpecificationExecutor.delete(filter);
+            if (isEntityLoadingDeleteRequired()) {
+                Integer removed = transactionTemplate.execute(status -> removeChunk((root, cb) ->
+                        filter.isFiltered() ? filter.toPredicate(root, cb) : null, null, null));
+                cachedCounters.bulkDeleted(filter.isUnfiltered(), removed == null ? 0 : removed);
+                return;
+            }
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaDelete<T> delete = cb.createCriteriaDelete(entityType);
+            Root<T> root = delete.from(entityType);
+            if (filter.isFiltered()) {
+                delete.where(filter.toPredicate(root, delete, cb, true));
+            }
+            Integer deleted = transactionTemplate.execute(status ->
+                    entityManager.createQuery(delete).executeUpdate());
+            cachedCounters.bulkDeleted(filter.isUnfiltered(), deleted == null ? 0 : deleted);
         } catch (Exception e) {
             throw new EntityProcessingException("Unexpected delete by filter entities error: " + filter, e, entityType, EntityOperation.DELETE);
         }
     }
 
+    @Override
+    public long deleteByFilter(@NonNull Filter<T> filter, int chunkSize) throws EntityProcessingException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + chunkSize);
+        }
+        try {
+            filter.setEntityType(entityType);
+            BiFunction<Root<T>, CriteriaBuilder, Predicate> condition = (root, cb) ->
+                    filter.isFiltered() ? filter.toPredicate(root, cb) : null;
+            boolean entityLoading = isEntityLoadingDeleteRequired();
+            long deleted = 0;
+            Comparable<Object> lowerBound = null;
+            Comparable<Object> upperBound;
+            while ((upperBound = findChunkUpperBound(condition, lowerBound, chunkSize)) != null) {
+                Comparable<Object> from = lowerBound;
+                Comparable<Object> to = upperBound;
+                Integer chunkDeleted = transactionTemplate.execute(status -> entityLoading
+                        ? removeChunk(condition, from, to)
+                        : deleteChunk(condition, from, to));
+                deleted += chunkDeleted == null ? 0 : chunkDeleted;
+                lowerBound = upperBound;
+            }
+            cachedCounters.bulkDeleted(filter.isUnfiltered(), deleted);
+            return deleted;
+        } catch (Exception e) {
+            throw new EntityProcessingException("Unexpected chunked delete by filter entities error: " + filter, e, entityType, EntityOperation.DELETE);
+        }
+    }
+
+    /**
+     * Удаляет порцию записей выражением DELETE
+     *
+     * @return кол-во удалённых строк
+     */
+    private int deleteChunk(BiFunction<Root<T>, CriteriaBuilder, Predicate> condition,
+                            Comparable<Object> from,
+                            Comparable<Object> to) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<T> delete = cb.createCriteriaDelete(entityType);
+        Root<T> root = delete.from(entityType);
+        delete.where(idRangePredicate(condition, root, cb, from, to));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    /**
+     * Загружает порцию сущностей и удаляет их через контекст персистентности,
+     * чтобы сработали каскады и обработчики удаления. Границы null - без ограничения
+     * диапазона идентификаторов
+     *
+     * @return кол-во удалённых сущностей
+     */
+    private int removeChunk(BiFunction<Root<T>, CriteriaBuilder, Predicate> condition,
+                            Comparable<Object> from,
+                            Comparable<Object> to) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(entityType);
+        Root<T> root = cq.from(entityType);
+        cq.where(idRangePredicate(condition, root, cb, from, to));
+        List<T> entities = entityManager.createQuery(cq).getResultList();
+        entities.forEach(entityManager::remove);
+        entityManager.flush();
+        entityManager.clear();
+        return entities.size();
+    }
+
+    /**
+     * Признак необходимости удаления через загрузку сущностей в контекст персистентности.
+     * Требуется, если сущность имеет каскадное удаление, orphanRemoval связи
+     * или обработчики жизненного цикла удаления, которые не срабатывают при
+     * удалении выражением DELETE. Может быть переопределён в наследнике.
+     */
+    protected boolean isEntityLoadingDeleteRequired() {
+        return isEntityLoadingDeleteRequired;
+    }
+
+    /**
+     * Возвращает идентификатор последней записи очередной порции удаления:
+     * id первых chunkSize записей удовлетворяющих условию и больших lowerBound,
+     * упорядоченных по id. Null - если записей больше нет.
+     */
+    private Comparable<Object> findChunkUpperBound(BiFunction<Root<T>, CriteriaBuilder, Predicate> condition,
+                                                   Comparable<Object> lowerBound,
+                                                   int chunkSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> cq = cb.createQuery(Object.class);
+        Root<T> root = cq.from(entityType);
+        Path<Comparable<Object>> idPath = root.get(idField.getName());
+        cq.select(idPath);
+        cq.where(idRangePredicate(condition, root, cb, lowerBound, null));
+        cq.orderBy(cb.asc(idPath));
+        List<Object> ids = entityManager.createQuery(cq)
+                .setMaxResults(chunkSize)
+                .getResultList();
+        return ids.isEmpty() ? null : (Comparable<Object>) ids.getLast();
+    }
+
+    private Predicate idRangePredicate(BiFunction<Root<T>, CriteriaBuilder, Predicate> condition,
+                                       Root<T> root,
+                                       CriteriaBuilder cb,
+                                       Comparable<Object> lowerBound,
+                                       Comparable<Object> upperBound) {
+        Path<Comparable<Object>> idPath = root.get(idField.getName());
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate conditionPredicate = condition.apply(root, cb);
+        if (conditionPredicate != null) {
+            predicates.add(conditionPredicate);
+        }
+        if (lowerBound != null) {
+            predicates.add(cb.greaterThan(idPath, lowerBound));
+        }
+        if (upperBound != null) {
+            predicates.add(cb.lessThanOrEqualTo(idPath, upperBound));
+        }
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
+
     @Override
     public long countByFilter(@NonNull Filter<T> filter) {
         filter.setEntityType(entityType);
-        return jpaSpecificationExecutor.count(getSoftDeleteSupportedFilter(filter));
+        Filter<T> resultFilter = getSoftDeleteSupportedFilter(filter);
+        if (countMode == CountMode.APPROXIMATE) {
+            OptionalLong estimate = createCountEstimator().estimate(resultFilter);
+            if (estimate.isPresent()) {
+                return estimate.getAsLong();
+            }
+        }
+        return jpaSpecificationExecutor.count(resultFilter);
     }
 
     @Override
     public long countAll() {
-        return !isSoftDeleteSupported ? jpaRepository.count() :
-                countByFilter(getSoftDeleteSupportedFilter(Filter.emptyFilter()));
+        return !isSoftDeleteSupported && countMode == CountMode.EXACT ? jpaRepository.count() :
+                countByFilter(Filter.emptyFilter());
     }
 
     @Override
@@ -504,9 +1053,11 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
     public void softDeleteById(@NonNull ID id) throws ResourceNotFoundException, SoftDeleteUnsupportedException, EntityProcessingException {
         checkSoftDeleteAvailability();
         T entity = getById(id);
+        JpaCachedCounters.Transition<T> counted = cachedCounters.before(entity);
         softDeleteField.set(entity, SOFT_DELETE_FLAG_MAPPING.get(softDeleteField.getType()).get());
         try {
             transactionTemplate.execute(status -> jpaRepository.save(entity));
+            counted.after(entity);
         } catch (Exception e) {
             throw new EntityProcessingException("Unexpected soft delete entity by id error: " + id, e, entityType, EntityOperation.UPDATE);
         }
@@ -528,12 +1079,11 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                     SOFT_DELETE_FLAG_MAPPING.get(softDeleteField.getType()).get());
             if (filter.isFiltered()) {
                 filter.setEntityType(entityType);
-                update.where(filter.toPredicate(root,cb));
+                update.where(filter.toPredicate(root, update, cb, true));
             }
-            transactionTemplate.executeWithoutResult(status -> {
-                entityManager.createQuery(update).executeUpdate();
-            });
-
+            Integer softDeleted = transactionTemplate.execute(status ->
+                    entityManager.createQuery(update).executeUpdate());
+            cachedCounters.bulkDeleted(filter.isUnfiltered(), softDeleted == null ? 0 : softDeleted);
         } catch (Exception e) {
             throw new EntityProcessingException(
                     "Unexpected soft delete entities by filter error: " + filter,
@@ -549,9 +1099,11 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
     public void restoreById(@NonNull ID id) throws ResourceNotFoundException, SoftDeleteUnsupportedException, EntityProcessingException {
         checkSoftDeleteAvailability();
         T entity = getById(id);
+        JpaCachedCounters.Transition<T> counted = cachedCounters.before(entity);
         softDeleteField.set(entity, RESTORE_FLAG_MAPPING.get(softDeleteField.getType()).get());
         try {
             jpaRepository.save(entity);
+            counted.after(entity);
         } catch (Exception e) {
             throw new EntityProcessingException("Unexpected restore entity by id error: " + id, e, entityType, EntityOperation.UPDATE);
         }
@@ -573,11 +1125,11 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
                     RESTORE_FLAG_MAPPING.get(softDeleteField.getType()).get());
             if (filter.isFiltered()) {
                 filter.setEntityType(entityType);
-                update.where(filter.toPredicate(root, cb));
+                update.where(filter.toPredicate(root, update, cb, true));
             }
-            transactionTemplate.executeWithoutResult(status -> {
-                entityManager.createQuery(update).executeUpdate();
-            });
+            Integer restored = transactionTemplate.execute(status ->
+                    entityManager.createQuery(update).executeUpdate());
+            cachedCounters.bulkUpdated(List.of(softDeleteField.getName()), restored == null ? 0 : restored);
         } catch (Exception e) {
             throw new EntityProcessingException(
                     "Unexpected restore entity by filter error: " + filter,
@@ -588,4 +1140,145 @@ public abstract class JpaCrudService<T, ID> implements CrudService<T, ID>, Initi
         }
     }
 
+    /**
+     * Физическое удаление (или перенос в архивную таблицу) записей, помеченных
+     * удалёнными раньше заданного срока. Поддерживается только для флагов
+     * мягкого удаления с типом даты/времени. Записи обрабатываются порциями
+     * по диапазонам идентификаторов, каждая порция в отдельной транзакции,
+     * с паузой между порциями. Прогресс доступен через {@link #getSoftDeletePurgeProgress()}.
+     * Если удаление требует загрузки сущностей ({@link #isEntityLoadingDeleteRequired()}),
+     * каждая порция загружается и удаляется через контекст персистентности.
+     * При архивации переносятся только колонки основной таблицы сущности, строки коллекций
+     * в архив не попадают.
+     *
+     * @param options параметры очистки
+     * @return кол-во удалённых записей
+     * @throws SoftDeleteUnsupportedException если сущность не поддерживает мягкое удаление
+     *                                        или флаг не является датой/временем
+     * @throws IllegalArgumentException       если размер порции не положителен, срок отрицателен
+     *                                        или имя архивной таблицы недопустимо
+     * @throws IllegalStateException          если очистка для сервиса уже выполняется
+     * @see SoftDeletePurgeTask
+     */
+    public long purgeSoftDeleted(@NonNull SoftDeletePurgeOptions options)
+            throws SoftDeleteUnsupportedException, EntityProcessingException {
+        checkSoftDeleteAvailability();
+        Function<Instant, Object> cutoffMapping = PURGE_CUTOFF_MAPPING.get(softDeleteField.getType());
+        if (cutoffMapping == null) {
+            throw new SoftDeleteUnsupportedException("Soft deleted rows purge requires timestamp soft-delete flag, found: "
+                    + softDeleteField.getType().getSimpleName());
+        }
+        if (options.getChunkSize() <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + options.getChunkSize());
+        }
+        if (options.getOlderThan() == null || options.getOlderThan().isNegative()) {
+            throw new IllegalArgumentException("Purge age should not be negative: " + options.getOlderThan());
+        }
+        if (options.isArchiving() && !options.getArchiveTable().matches(TABLE_NAME_REGEX)) {
+            throw new IllegalArgumentException("Invalid archive table name: " + options.getArchiveTable());
+        }
+        if (!softDeletePurgeProgress.tryStart()) {
+            throw new IllegalStateException("Soft deleted rows purge is already running for " + getEntityTypeName());
+        }
+        Comparable<Object> cutoff = (Comparable<Object>) cutoffMapping.apply(Instant.now().minus(options.getOlderThan()));
+        BiFunction<Root<T>, CriteriaBuilder, Predicate> condition = (root, cb) ->
+                cb.lessThan(root.get(softDeleteField.getName()), cutoff);
+        try {
+            boolean entityLoading = isEntityLoadingDeleteRequired();
+            List<String> archiveColumns = options.isArchiving() ? getArchiveColumns() : null;
+            long purged = 0;
+            Comparable<Object> lowerBound = null;
+            Comparable<Object> upperBound;
+            while ((upperBound = findChunkUpperBound(condition, lowerBound, options.getChunkSize())) != null) {
+                Comparable<Object> from = lowerBound;
+                Comparable<Object> to = upperBound;
+                Integer chunkPurged = transactionTemplate.execute(status -> {
+                    if (archiveColumns != null) {
+                        archiveSoftDeletedChunk(options.getArchiveTable(), archiveColumns, from, to, cutoff);
+                    }
+                    return entityLoading
+                            ? removeChunk(condition, from, to)
+                            : deleteChunk(condition, from, to);
+                });
+                int chunkPurgedCount = chunkPurged == null ? 0 : chunkPurged;
+                purged += chunkPurgedCount;
+                softDeletePurgeProgress.chunkProcessed(chunkPurgedCount, options.isArchiving());
+                lowerBound = upperBound;
+                if (!pauseBetweenChunks(options.getPauseBetweenChunks())) {
+                    break;
+                }
+            }
+            return purged;
+        } catch (Exception e) {
+            throw new EntityProcessingException("Unexpected soft deleted entities purge error",
+                    e, entityType, EntityOperation.DELETE);
+        } finally {
+            softDeletePurgeProgress.finish();
+        }
+    }
+
+    /**
+     * Колонки, переносимые в архивную таблицу. Перечисляются явно по метаданным Hibernate,
+     * поэтому порядок колонок архивной таблицы не важен: идентификатор, дискриминатор,
+     * колонки простых свойств и внешних ключей основной таблицы сущности. Строки таблиц
+     * коллекций ({@code @ElementCollection}, таблицы связей {@code @ManyToMany}) не архивируются
+     * и удаляются вместе с записью.
+     */
+    private List<String> getArchiveColumns() {
+        AbstractEntityPersister persister = getEntityPersister();
+        List<String> columns = new ArrayList<>(Arrays.asList(persister.getIdentifierColumnNames()));
+        EntityDiscriminatorMapping discriminator = persister.getDiscriminatorMapping();
+        if (discriminator != null && !discriminator.isFormula()) {
+            columns.add(discriminator.getSelectionExpression());
+        }
+        String[] propertyNames = persister.getPropertyNames();
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (persister.getPropertyTypes()[i].isCollectionType()
+                    || !persister.getTableName().equals(persister.getPropertyTableName(propertyNames[i]))) {
+                continue;
+            }
+            Arrays.stream(persister.getPropertyColumnNames(i))
+                    .filter(Objects::nonNull)
+                    .forEach(columns::add);
+        }
+        return columns;
+    }
+
+    private void archiveSoftDeletedChunk(String archiveTable, List<String> columns, Object from, Object to, Object cutoff) {
+        AbstractEntityPersister persister = getEntityPersister();
+        String idColumn = persister.getIdentifierColumnNames()[0];
+        String flagColumn = persister.getPropertyColumnNames(softDeleteField.getName())[0];
+        String columnList = String.join(", ", columns);
+        String sql = "INSERT INTO %s (%s) SELECT %s FROM %s WHERE %s < ?1 AND %s <= ?2%s".formatted(
+                archiveTable, columnList, columnList, persister.getTableName(), flagColumn, idColumn,
+                from == null ? "" : " AND %s > ?3".formatted(idColumn));
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter(1, cutoff)
+                .setParameter(2, to);
+        if (from != null) {
+            query.setParameter(3, from);
+        }
+        query.executeUpdate();
+    }
+
+    private AbstractEntityPersister getEntityPersister() {
+        return (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType);
+    }
+
+    private boolean pauseBetweenChunks(Duration pause) {
+        if (pause == null || pause.isZero() || pause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
 }
@@ -0,0 +1,106 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.FacetCount;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.utils.FieldTypeUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaRoot;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Подсчёт фасетов за один запрос: по ветке
+ * {@code SELECT <номер фасета>, CAST(<поле> AS String), COUNT(*) ... WHERE <фильтр> GROUP BY <поле>
+ * ORDER BY COUNT(*) DESC FETCH FIRST <topN>} на каждое поле, ветки объединяются через {@code UNION ALL}.
+ * Поля через коллекции присоединяются, так что фасет считает сущности с каждым элементом.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class JpaFacetCountQuery<T> {
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+
+    JpaFacetCountQuery(EntityManager entityManager, Class<T> entityType) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+    }
+
+    /**
+     * @param filter      условие, общее для всех фасетов
+     * @param facetFields имена полей для ответа, в том же порядке
+     * @param entityPaths пути полей сущности
+     */
+    Map<String, List<FacetCount>> execute(Filter<T> filter, List<String> facetFields, List<String> entityPaths, int topN) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("Facet topN must be positive: " + topN);
+        }
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facetFields.forEach(field -> facets.put(field, new ArrayList<>()));
+        if (facetFields.isEmpty()) {
+            return facets;
+        }
+
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        List<JpaCriteriaQuery<Tuple>> branches = new ArrayList<>();
+        for (int i = 0; i < entityPaths.size(); i++) {
+            branches.add(branch(cb, filter, i, entityPaths.get(i), topN));
+        }
+        JpaCriteriaQuery<Tuple> query = branches.size() == 1
+                ? branches.getFirst()
+                : cb.unionAll(branches.getFirst(), branches.subList(1, branches.size()).toArray(new JpaCriteriaQuery<?>[0]));
+
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            String field = facetFields.get(((Number) tuple.get(0)).intValue());
+            facets.get(field).add(new FacetCount((String) tuple.get(1), ((Number) tuple.get(2)).longValue()));
+        }
+        facets.values().forEach(counts -> counts.sort((a, b) -> Long.compare(b.count(), a.count())));
+        return facets;
+    }
+
+    private JpaCriteriaQuery<Tuple> branch(HibernateCriteriaBuilder cb, Filter<T> filter, int index, String field, int topN) {
+        JpaCriteriaQuery<Tuple> branch = cb.createTupleQuery();
+        JpaRoot<T> root = branch.from(entityType);
+        Expression<?> value = facetPath(root, field);
+        Expression<Long> count = cb.count(root);
+        branch.multiselect(cb.literal(index), ((JpaExpression<?>) value).cast(String.class), count)
+                .where(filter.toPredicate(root, branch, cb, false))
+                .groupBy(value)
+                .orderBy(cb.desc(count), cb.asc(value));
+        branch.fetch(topN);
+        return branch;
+    }
+
+    /**
+     * Путь к полю фасета, коллекции на пути присоединяются
+     */
+    private Path<?> facetPath(From<?, ?> root, String field) {
+        String[] segments = field.split("\\.");
+        From<?, ?> from = root;
+        Class<?> type = entityType;
+        for (int i = 0; i < segments.length - 1; i++) {
+            Field segmentField = FieldTypeUtils.getField(type, segments[i]);
+            from = from.join(segments[i]);
+            type = Collection.class.isAssignableFrom(segmentField.getType())
+                    ? FieldTypeUtils.getCollectionElementType(segmentField)
+                    : segmentField.getType();
+        }
+        String last = segments[segments.length - 1];
+        return Collection.class.isAssignableFrom(FieldTypeUtils.getField(type, last).getType())
+                ? from.join(last)
+                : from.get(last);
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.utils.InListStrategy;
+import jakarta.persistence.AttributeNode;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Загрузка плана выборки {@link Filter#withFetchGraph(String...)} / {@link Filter#withEntityGraph(String)}
+ * для уже выбранной страницы сущностей. Связи загружаются запросами
+ * {@code WHERE id IN (:ids)} с подсказкой {@code jakarta.persistence.fetchgraph}:
+ * связи ManyToOne/OneToOne загружаются вместе с первой коллекцией,
+ * каждая коллекция верхнего уровня - отдельным запросом, чтобы не получать
+ * декартово произведение нескольких коллекций. Кол-во запросов зависит от числа
+ * коллекций в плане и растёт с размером выборки только порциями по {@link InListStrategy#CHUNK_SIZE}
+ * идентификаторов.
+ * <p>
+ * Должна выполняться в транзакции, чтобы все запросы работали с одним контекстом персистентности.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class JpaFetchPlanLoader<T> {
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+    private final String idAttribute;
+
+    JpaFetchPlanLoader(EntityManager entityManager, Class<T> entityType, String idAttribute) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+        this.idAttribute = idAttribute;
+    }
+
+    /**
+     * @return сущности с загруженными связями в исходном порядке
+     */
+    List<T> load(List<T> entities, Filter<T> filter) {
+        if (entities.isEmpty() || !filter.hasFetchPlan()) {
+            return entities;
+        }
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> ids = entities.stream()
+                .map(persistenceUnitUtil::getIdentifier)
+                .toList();
+        Map<Object, T> loaded = new HashMap<>();
+        for (EntityGraph<T> graph : buildGraphs(resolvePaths(filter))) {
+            for (T entity : fetch(ids, graph)) {
+                loaded.put(persistenceUnitUtil.getIdentifier(entity), entity);
+            }
+        }
+        List<T> result = new ArrayList<>(entities.size());
+        for (int i = 0; i < ids.size(); i++) {
+            result.add(loaded.getOrDefault(ids.get(i), entities.get(i)));
+        }
+        return result;
+    }
+
+    private List<T> fetch(List<Object> ids, EntityGraph<T> graph) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<T> result = new ArrayList<>(ids.size());
+        for (List<Object> chunk : InListStrategy.chunks(ids)) {
+            CriteriaQuery<T> cq = cb.createQuery(entityType);
+            Root<T> root = cq.from(entityType);
+            cq.select(root).where(root.get(idAttribute).in(chunk));
+            result.addAll(entityManager.createQuery(cq)
+                    .setHint(FETCH_GRAPH_HINT, graph)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    private Set<String> resolvePaths(Filter<T> filter) {
+        Set<String> paths = new LinkedHashSet<>(filter.getFetchGraphPaths());
+        if (filter.getEntityGraphName() != null) {
+            collectPaths("", entityManager.getEntityGraph(filter.getEntityGraphName()).getAttributeNodes(), paths);
+        }
+        return paths;
+    }
+
+    private static void collectPaths(String prefix, List<AttributeNode<?>> nodes, Set<String> paths) {
+        for (AttributeNode<?> node : nodes) {
+            String path = prefix + node.getAttributeName();
+            if (node.getSubgraphs().isEmpty()) {
+                paths.add(path);
+            }
+            for (Subgraph<?> subgraph : node.getSubgraphs().values()) {
+                collectPaths(path + ".", subgraph.getAttributeNodes(), paths);
+            }
+        }
+    }
+
+    private List<EntityGraph<T>> buildGraphs(Set<String> paths) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(entityType);
+        Map<String, List<String>> singular = new LinkedHashMap<>();
+        Map<String, List<String>> collections = new LinkedHashMap<>();
+        for (String path : paths) {
+            String head = path.split("\\.", 2)[0];
+            Map<String, List<String>> group = entity.getAttribute(head).isCollection() ? collections : singular;
+            group.computeIfAbsent(head, h -> new ArrayList<>()).add(path);
+        }
+        List<EntityGraph<T>> graphs = new ArrayList<>();
+        if (collections.isEmpty()) {
+            graphs.add(createGraph(singular.values().stream().flatMap(List::stream).toList()));
+            return graphs;
+        }
+        boolean first = true;
+        for (List<String> collectionPaths : collections.values()) {
+            List<String> graphPaths = new ArrayList<>(collectionPaths);
+            if (first) {
+                singular.values().forEach(graphPaths::addAll);
+                first = false;
+            }
+            graphs.add(createGraph(graphPaths));
+        }
+        return graphs;
+    }
+
+    private EntityGraph<T> createGraph(List<String> paths) {
+        EntityGraph<T> graph = entityManager.createEntityGraph(entityType);
+        groupByHead(paths).forEach((head, tails) -> {
+            if (tails.isEmpty()) {
+                graph.addAttributeNodes(head);
+            } else {
+                addSubgraphPaths(graph.addSubgraph(head), tails);
+            }
+        });
+        return graph;
+    }
+
+    private static void addSubgraphPaths(Subgraph<?> subgraph, List<String> paths) {
+        groupByHead(paths).forEach((head, tails) -> {
+            if (tails.isEmpty()) {
+                subgraph.addAttributeNodes(head);
+            } else {
+                addSubgraphPaths(subgraph.addSubgraph(head), tails);
+            }
+        });
+    }
+
+    private static Map<String, List<String>> groupByHead(List<String> paths) {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String path : paths) {
+            String[] parts = path.split("\\.", 2);
+            List<String> tails = groups.computeIfAbsent(parts[0], h -> new ArrayList<>());
+            if (parts.length > 1) {
+                tails.add(parts[1]);
+            }
+        }
+        return groups;
+    }
+}
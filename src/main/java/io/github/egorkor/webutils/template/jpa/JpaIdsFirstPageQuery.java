@@ -0,0 +1,115 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.queryparam.utils.InListStrategy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Постраничный запрос в два этапа ({@link PaginationStrategy#IDS_FIRST}):
+ * <ol>
+ *     <li>{@code SELECT DISTINCT id, <поля сортировки> ... WHERE <фильтр> ORDER BY ... LIMIT/OFFSET}
+ *     и {@code SELECT COUNT(DISTINCT id)} для постраничного запроса</li>
+ *     <li>{@code SELECT e ... WHERE id IN (:ids)} с настройками запроса фильтра (fetch join),
+ *     порциями по {@link InListStrategy#CHUNK_SIZE} идентификаторов,
+ *     результат упорядочивается по идентификаторам первого этапа</li>
+ * </ol>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class JpaIdsFirstPageQuery<T> {
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+    private final String idAttribute;
+
+    JpaIdsFirstPageQuery(EntityManager entityManager, Class<T> entityType, String idAttribute) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+        this.idAttribute = idAttribute;
+    }
+
+    PageableResult<T> execute(Filter<T> filter, Sorting sorting, Pagination pagination) {
+        List<Object> ids = selectIds(filter, sorting, pagination);
+        List<T> data = loadByIds(ids, filter);
+        if (pagination.isUnpaged()) {
+            return PageableResult.of(data, data.size(), 1, data.size());
+        }
+        long count = pagination.getPage() == 0 && ids.size() < pagination.getSize()
+                ? ids.size()
+                : count(filter);
+        return PageableResult.of(data, count, pagination.getSize());
+    }
+
+    private List<Object> selectIds(Filter<T> filter, Sorting sorting, Pagination pagination) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<T> root = cq.from(entityType);
+        List<Order> orders = sorting.toCriteriaOrderList(root, cb);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(idAttribute));
+        orders.forEach(order -> selections.add(order.getExpression()));
+        cq.multiselect(selections)
+                .distinct(true)
+                .where(filter.toPredicate(root, cq, cb, false))
+                .orderBy(orders);
+        TypedQuery<Tuple> query = entityManager.createQuery(cq);
+        if (!pagination.isUnpaged()) {
+            query.setFirstResult(pagination.getPage() * pagination.getSize());
+            query.setMaxResults(pagination.getSize());
+        }
+        return query.getResultList().stream()
+                .map(tuple -> tuple.get(0))
+                .toList();
+    }
+
+    private long count(Filter<T> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<T> root = cq.from(entityType);
+        cq.select(cb.countDistinct(root)).where(filter.toPredicate(root, cq, cb, false));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    private List<T> loadByIds(List<Object> ids, Filter<T> filter) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        Map<Object, T> entities = new HashMap<>();
+        for (List<Object> chunk : InListStrategy.chunks(ids)) {
+            CriteriaQuery<T> cq = cb.createQuery(entityType);
+            Root<T> root = cq.from(entityType);
+            filter.applyQueryConfigurers(root);
+            cq.select(root).where(root.get(idAttribute).in(chunk));
+            for (T entity : entityManager.createQuery(cq).getResultList()) {
+                entities.put(persistenceUnitUtil.getIdentifier(entity), entity);
+            }
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            T entity = entities.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Фоновая задача обслуживания сервиса для запуска по расписанию через
+ * {@code @Scheduled} или {@link org.springframework.scheduling.TaskScheduler}.
+ * Ошибки выполнения журналируются и не прерывают расписание.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+public abstract class JpaServiceMaintenanceTask implements Runnable {
+    protected final JpaCrudService<?, ?> service;
+
+    protected JpaServiceMaintenanceTask(JpaCrudService<?, ?> service) {
+        this.service = service;
+    }
+
+    @Override
+    public final void run() {
+        try {
+            execute();
+        } catch (Exception e) {
+            log.error("{} - {} failed: {}", service.getEntityTypeName(), getOperationName(), e.getMessage(), e);
+        }
+    }
+
+    protected abstract void execute();
+
+    protected abstract String getOperationName();
+}
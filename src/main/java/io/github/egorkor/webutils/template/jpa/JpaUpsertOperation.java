@@ -0,0 +1,117 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.JdbcMapping;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.Type;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Описание upsert операции для сущности, построенное по метаданным Hibernate:
+ * таблица, колонки идентификатора и вставляемые колонки простых свойств
+ * и связей ManyToOne/OneToOne (внешние ключи). Коллекции не участвуют в операции,
+ * встраиваемые (embedded) свойства не поддерживаются.
+ * <ul>
+ *     <li>идентификатор записывается как есть, поэтому у каждой сущности он должен быть
+ *     задан заранее: генерируемые идентификаторы ({@code @GeneratedValue}) не заполняются,
+ *     см. {@link #hasIdentifier(Object)}</li>
+ *     <li>версионируемые ({@code @Version}) сущности не поддерживаются: upsert перезаписывает
+ *     строку без проверки и увеличения версии, что нарушило бы оптимистичную блокировку</li>
+ * </ul>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+class JpaUpsertOperation<T> {
+    private final AbstractEntityPersister persister;
+    private final PersistenceUnitUtil persistenceUnitUtil;
+    private final String table;
+    private final List<String> idColumns;
+    private final List<String> columns = new ArrayList<>();
+    private final List<Integer> propertyIndexes = new ArrayList<>();
+    private final Map<DatabaseType, String> sqlCache = new ConcurrentHashMap<>();
+
+    JpaUpsertOperation(EntityManagerFactory entityManagerFactory, Class<T> entityType) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entityType);
+        this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        this.table = persister.getTableName();
+        this.idColumns = Arrays.asList(persister.getIdentifierColumnNames());
+        if (persister.hasIdentifierProperty() && persister.getIdentifierType().isComponentType()) {
+            throw new UnsupportedOperationException("Upsert is not supported for composite id of " + entityType.getName());
+        }
+        if (persister.isVersioned()) {
+            throw new UnsupportedOperationException("Upsert is not supported for versioned entity " + entityType.getName());
+        }
+
+        Type[] propertyTypes = persister.getPropertyTypes();
+        boolean[] insertability = persister.getPropertyInsertability();
+        for (int i = 0; i < propertyTypes.length; i++) {
+            Type type = propertyTypes[i];
+            if (type.isCollectionType() || !insertability[i]) {
+                continue;
+            }
+            String[] propertyColumns = persister.getPropertyColumnNames(i);
+            if (propertyColumns.length == 0 || propertyColumns[0] == null) {
+                continue;
+            }
+            if (type.isComponentType() || propertyColumns.length > 1) {
+                throw new UnsupportedOperationException("Upsert is not supported for multi-column property '%s' of %s"
+                        .formatted(persister.getPropertyNames()[i], entityType.getName()));
+            }
+            columns.add(propertyColumns[0]);
+            propertyIndexes.add(i);
+        }
+    }
+
+    String getSql(DatabaseType dbType) {
+        return sqlCache.computeIfAbsent(dbType,
+                type -> UpsertSqlGenerator.generate(type, table, idColumns, columns));
+    }
+
+    /**
+     * @return задан ли идентификатор сущности, без него строку нельзя ни вставить, ни сопоставить с существующей
+     */
+    boolean hasIdentifier(T entity) {
+        return persistenceUnitUtil.getIdentifier(entity) != null;
+    }
+
+    void bind(PreparedStatement statement, T entity) throws SQLException {
+        int index = 1;
+        statement.setObject(index++, persistenceUnitUtil.getIdentifier(entity));
+        for (int property : propertyIndexes) {
+            Type type = persister.getPropertyTypes()[property];
+            Object value = persister.getPropertyValue(entity, property);
+            if (value != null && type.isEntityType()) {
+                value = persistenceUnitUtil.getIdentifier(value);
+            }
+            if (type instanceof BasicType<?> basicType) {
+                bindBasic(statement, index++, basicType, value);
+            } else {
+                statement.setObject(index++, value);
+            }
+        }
+    }
+
+    private void bindBasic(PreparedStatement statement, int index, BasicType<?> type, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, type.getJdbcType().getJdbcTypeCode());
+            return;
+        }
+        // применяет конвертеры значения (enum, AttributeConverter) так же, как Hibernate при вставке
+        statement.setObject(index, ((JdbcMapping) type).convertToRelationalValue(value));
+    }
+}
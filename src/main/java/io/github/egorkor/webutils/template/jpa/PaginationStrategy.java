@@ -0,0 +1,22 @@
+package io.github.egorkor.webutils.template.jpa;
+
+/**
+ * Стратегия выполнения постраничного запроса {@link JpaCrudService#getAll}
+ * <ul>
+ *     <li>{@link #AUTO} - {@link #IDS_FIRST} для постраничных запросов с условиями по коллекциям,
+ *     иначе {@link #SINGLE_QUERY}</li>
+ *     <li>{@link #SINGLE_QUERY} - один запрос сущностей с LIMIT/OFFSET и запрос количества</li>
+ *     <li>{@link #IDS_FIRST} - сначала уникальные идентификаторы страницы с фильтром, сортировкой
+ *     и LIMIT/OFFSET, затем сущности по {@code id IN (...)} в порядке страницы.
+ *     Корректен при размножении строк коллекциями и дешевле для широких сущностей.
+ *     Для {@link io.github.egorkor.webutils.queryparam.Pagination#unpaged()} выполняется {@link #SINGLE_QUERY},
+ *     чтобы не строить неограниченный список {@code IN}</li>
+ * </ul>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public enum PaginationStrategy {
+    AUTO, SINGLE_QUERY, IDS_FIRST
+}
@@ -0,0 +1,51 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Параметры очистки мягко удалённых записей
+ * {@link JpaCrudService#purgeSoftDeleted(SoftDeletePurgeOptions)}
+ * <ul>
+ *     <li>{@link #olderThan} - удаляются записи, помеченные удалёнными раньше, чем now - olderThan</li>
+ *     <li>{@link #chunkSize} - максимальное кол-во записей в одной порции (транзакции)</li>
+ *     <li>{@link #pauseBetweenChunks} - пауза между порциями для снижения нагрузки на БД</li>
+ *     <li>{@link #archiveTable} - таблица архива, в которую переносятся записи перед удалением.
+ *     Должна содержать колонки основной таблицы сущности с теми же именами, порядок колонок
+ *     не важен. Строки коллекций ({@code @ElementCollection}, таблицы связей) не архивируются.
+ *     Если не задана, записи удаляются без архивации</li>
+ * </ul>
+ * <pre>
+ *     {@code
+ *     SoftDeletePurgeOptions options = SoftDeletePurgeOptions.builder()
+ *             .olderThan(Duration.ofDays(30))
+ *             .chunkSize(500)
+ *             .pauseBetweenChunks(Duration.ofMillis(200))
+ *             .archiveTable("users_archive")
+ *             .build();
+ *     }
+ * </pre>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Getter
+@Builder
+@ToString
+public class SoftDeletePurgeOptions {
+    @Builder.Default
+    private final Duration olderThan = Duration.ofDays(30);
+    @Builder.Default
+    private final int chunkSize = 500;
+    @Builder.Default
+    private final Duration pauseBetweenChunks = Duration.ofMillis(100);
+    private final String archiveTable;
+
+    public boolean isArchiving() {
+        return archiveTable != null && !archiveTable.isBlank();
+    }
+}
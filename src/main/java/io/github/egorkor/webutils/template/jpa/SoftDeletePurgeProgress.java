@@ -0,0 +1,86 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Метрики прогресса очистки мягко удалённых записей сервиса.
+ * Счётчики накапливаются между запусками, значения последнего запуска
+ * сбрасываются при его старте.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@ToString
+public class SoftDeletePurgeProgress {
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalChunks = new AtomicLong();
+    private final AtomicLong totalPurgedRows = new AtomicLong();
+    private final AtomicLong totalArchivedRows = new AtomicLong();
+    private final AtomicLong lastRunPurgedRows = new AtomicLong();
+    private final AtomicReference<Instant> lastRunStartedAt = new AtomicReference<>();
+    private final AtomicReference<Instant> lastRunFinishedAt = new AtomicReference<>();
+
+    boolean tryStart() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        totalRuns.incrementAndGet();
+        lastRunPurgedRows.set(0);
+        lastRunStartedAt.set(Instant.now());
+        lastRunFinishedAt.set(null);
+        return true;
+    }
+
+    void chunkProcessed(int purgedRows, boolean archived) {
+        totalChunks.incrementAndGet();
+        totalPurgedRows.addAndGet(purgedRows);
+        lastRunPurgedRows.addAndGet(purgedRows);
+        if (archived) {
+            totalArchivedRows.addAndGet(purgedRows);
+        }
+    }
+
+    void finish() {
+        lastRunFinishedAt.set(Instant.now());
+        running.set(false);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public long getTotalRuns() {
+        return totalRuns.get();
+    }
+
+    public long getTotalChunks() {
+        return totalChunks.get();
+    }
+
+    public long getTotalPurgedRows() {
+        return totalPurgedRows.get();
+    }
+
+    public long getTotalArchivedRows() {
+        return totalArchivedRows.get();
+    }
+
+    public long getLastRunPurgedRows() {
+        return lastRunPurgedRows.get();
+    }
+
+    public Instant getLastRunStartedAt() {
+        return lastRunStartedAt.get();
+    }
+
+    public Instant getLastRunFinishedAt() {
+        return lastRunFinishedAt.get();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Задача очистки мягко удалённых записей, см. {@link JpaCrudService#purgeSoftDeleted(SoftDeletePurgeOptions)}.
+ * <pre>
+ *     {@code
+ *     @Bean
+ *     public SoftDeletePurgeTask userPurgeTask(UserServiceImpl userService) {
+ *         return new SoftDeletePurgeTask(userService, SoftDeletePurgeOptions.builder()
+ *                 .olderThan(Duration.ofDays(90))
+ *                 .build());
+ *     }
+ *
+ *     @Scheduled(cron = "0 0 3 * * *")
+ *     public void purge() {
+ *         userPurgeTask.run();
+ *     }
+ *     }
+ * </pre>
+ * Повторный запуск во время выполнения очистки завершается ошибкой и пропускается.
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+@Slf4j
+public class SoftDeletePurgeTask extends JpaServiceMaintenanceTask {
+    private final SoftDeletePurgeOptions options;
+
+    public SoftDeletePurgeTask(JpaCrudService<?, ?> service, SoftDeletePurgeOptions options) {
+        super(service);
+        this.options = options;
+    }
+
+    @Override
+    protected void execute() {
+        long purged = service.purgeSoftDeleted(options);
+        log.info("{} - purged {} soft deleted rows", service.getEntityTypeName(), purged);
+    }
+
+    @Override
+    protected String getOperationName() {
+        return "soft deleted rows purge";
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.egorkor.webutils.template.jpa;
+
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Генератор SQL выражения вставки-или-обновления (upsert) одной записи
+ * с параметрами в виде знаков ?. Порядок параметров - сначала колонки
+ * идентификатора, затем остальные колонки.
+ * <ul>
+ *     <li>PostgreSQL, SQLite - {@code INSERT ... ON CONFLICT (...) DO UPDATE}</li>
+ *     <li>MySQL, MariaDB - {@code INSERT ... ON DUPLICATE KEY UPDATE}</li>
+ *     <li>H2 - {@code MERGE INTO ... KEY (...) VALUES}</li>
+ *     <li>Oracle, SQL Server, DB2 - {@code MERGE INTO ... USING ... ON ...}</li>
+ * </ul>
+ *
+ * @author EgorKor
+ * @version 1.0
+ * @since 2025
+ */
+public final class UpsertSqlGenerator {
+
+    private UpsertSqlGenerator() {
+    }
+
+    public static String generate(DatabaseType dbType,
+                                  String table,
+                                  List<String> idColumns,
+                                  List<String> columns) {
+        return switch (dbType) {
+            case POSTGRESQL, SQLITE -> onConflict(table, idColumns, columns);
+            case MYSQL, MARIADB -> onDuplicateKey(table, idColumns, columns);
+            case H2 -> h2Merge(table, idColumns, columns);
+            case ORACLE, SQL_SERVER, DB2 -> standardMerge(dbType, table, idColumns, columns);
+            default -> throw new UnsupportedOperationException("Upsert is not supported for database type: " + dbType);
+        };
+    }
+
+    private static String onConflict(String table, List<String> idColumns, List<String> columns) {
+        String update = columns.isEmpty()
+                ? "DO NOTHING"
+                : "DO UPDATE SET " + columns.stream()
+                .map(c -> "%s = EXCLUDED.%s".formatted(c, c))
+                .collect(Collectors.joining(", "));
+        return "%s ON CONFLICT (%s) %s".formatted(insert(table, idColumns, columns),
+                String.join(", ", idColumns), update);
+    }
+
+    private static String onDuplicateKey(String table, List<String> idColumns, List<String> columns) {
+        List<String> updated = columns.isEmpty() ? idColumns : columns;
+        return "%s ON DUPLICATE KEY UPDATE %s".formatted(insert(table, idColumns, columns),
+                updated.stream()
+                        .map(c -> "%s = VALUES(%s)".formatted(c, c))
+                        .collect(Collectors.joining(", ")));
+    }
+
+    private static String h2Merge(String table, List<String> idColumns, List<String> columns) {
+        List<String> all = concat(idColumns, columns);
+        return "MERGE INTO %s (%s) KEY (%s) VALUES (%s)".formatted(table,
+                String.join(", ", all),
+                String.join(", ", idColumns),
+                placeholders(all.size()));
+    }
+
+    private static String standardMerge(DatabaseType dbType, String table, List<String> idColumns, List<String> columns) {
+        List<String> all = concat(idColumns, columns);
+        String source = dbType == DatabaseType.ORACLE
+                ? "(SELECT %s FROM dual) src".formatted(all.stream()
+                .map(c -> "? AS " + c)
+                .collect(Collectors.joining(", ")))
+                : "(VALUES (%s)) AS src (%s)".formatted(placeholders(all.size()), String.join(", ", all));
+        String on = idColumns.stream()
+                .map(c -> "tgt.%s = src.%s".formatted(c, c))
+                .collect(Collectors.joining(" AND "));
+        String matched = columns.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET " + columns.stream()
+                .map(c -> "tgt.%s = src.%s".formatted(c, c))
+                .collect(Collectors.joining(", "));
+        String notMatched = " WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s)".formatted(
+                String.join(", ", all),
+                all.stream().map(c -> "src." + c).collect(Collectors.joining(", ")));
+        String sql = "MERGE INTO %s tgt USING %s ON (%s)%s%s".formatted(table, source, on, matched, notMatched);
+        return dbType == DatabaseType.SQL_SERVER ? sql + ";" : sql;
+    }
+
+    private static String insert(String table, List<String> idColumns, List<String> columns) {
+        List<String> all = concat(idColumns, columns);
+        return "INSERT INTO %s (%s) VALUES (%s)".formatted(table,
+                String.join(", ", all), placeholders(all.size()));
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
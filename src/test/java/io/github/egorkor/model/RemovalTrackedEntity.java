@@ -0,0 +1,28 @@
+package io.github.egorkor.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PreRemove;
+import lombok.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class RemovalTrackedEntity {
+    public static final AtomicInteger REMOVED = new AtomicInteger();
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    @PreRemove
+    void onRemove() {
+        REMOVED.incrementAndGet();
+    }
+}
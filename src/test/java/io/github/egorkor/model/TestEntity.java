@@ -4,7 +4,10 @@ import io.github.egorkor.webutils.annotations.SoftDeleteFlag;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Builder
 @AllArgsConstructor
@@ -21,6 +24,13 @@ public class TestEntity {
     private List<TestNestedEntity> nested;
     private Integer nullableProperty;
     private boolean flag;
+    private String code;
+    private BigDecimal amount;
+    private Integer quantity;
+    @Enumerated(EnumType.STRING)
+    private Tag status;
+    private LocalDateTime createdAt;
+    private UUID externalId;
     @ElementCollection
     private List<Integer> nums;
     @ElementCollection
@@ -19,6 +19,7 @@ import java.util.stream.IntStream;
 @Builder
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = "User.roles", attributeNodes = @NamedAttributeNode("roles"))
 public class User {
     private static Faker faker = new Faker();
     @Id
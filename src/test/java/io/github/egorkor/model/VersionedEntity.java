@@ -0,0 +1,22 @@
+package io.github.egorkor.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class VersionedEntity {
+    @Id
+    private Long id;
+
+    private String name;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,8 @@
+package io.github.egorkor.repository;
+
+import io.github.egorkor.model.RemovalTrackedEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface RemovalTrackedEntityRepository extends JpaRepository<RemovalTrackedEntity, Long>, JpaSpecificationExecutor<RemovalTrackedEntity> {
+}
@@ -0,0 +1,8 @@
+package io.github.egorkor.repository;
+
+import io.github.egorkor.model.VersionedEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface VersionedEntityRepository extends JpaRepository<VersionedEntity, Long>, JpaSpecificationExecutor<VersionedEntity> {
+}
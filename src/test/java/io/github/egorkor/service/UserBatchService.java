@@ -0,0 +1,7 @@
+package io.github.egorkor.service;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.webutils.service.sync.CrudBatchService;
+
+public interface UserBatchService extends CrudBatchService<User, Long> {
+}
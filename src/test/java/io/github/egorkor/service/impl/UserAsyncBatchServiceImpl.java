@@ -0,0 +1,32 @@
+package io.github.egorkor.service.impl;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.webutils.template.jpa.JpaAsyncBatchService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+@Profile("test")
+@Service
+public class UserAsyncBatchServiceImpl extends JpaAsyncBatchService<User, Long> {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserAsyncBatchServiceImpl(JpaRepository<User, Long> jpaRepository, JpaSpecificationExecutor<User> jpaSpecificationExecutor, ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate, ThreadPoolTaskExecutor executor) {
+        super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate, executor);
+    }
+
+    @Override
+    public EntityManager getPersistenceAnnotatedEntityManager() {
+        return entityManager;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.egorkor.tests;
+
+import io.github.egorkor.webutils.template.batching.AimdBatchSizeController;
+import io.github.egorkor.webutils.template.batching.FixedBatchSizeController;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class BatchSizeControllerTest {
+    private static final long FAST_FLUSH = Duration.ofMillis(1).toNanos();
+    private static final long SLOW_FLUSH = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    public void shouldKeepFixedBatchSize() {
+        FixedBatchSizeController controller = new FixedBatchSizeController(50);
+        controller.onChunkFlushed(50, SLOW_FLUSH, SLOW_FLUSH);
+        Assertions.assertEquals(50, controller.getBatchSize());
+        Assertions.assertEquals(1, controller.getStatistics().flushedChunks());
+        Assertions.assertEquals(50, controller.getStatistics().flushedRows());
+    }
+
+    @Test
+    public void shouldIncreaseAdditivelyWhileFlushIsFast() {
+        AimdBatchSizeController controller = new AimdBatchSizeController(10, 1000, 100, 10,
+                0.5, 0.1, Duration.ofMillis(200));
+        controller.onChunkFlushed(100, FAST_FLUSH, FAST_FLUSH * 10);
+        controller.onChunkFlushed(110, FAST_FLUSH, FAST_FLUSH * 10);
+        Assertions.assertEquals(120, controller.getBatchSize());
+        Assertions.assertEquals(120, controller.getStatistics().maxBatchSize());
+    }
+
+    @Test
+    public void shouldDecreaseMultiplicativelyOnSlowFlush() {
+        AimdBatchSizeController controller = new AimdBatchSizeController(10, 1000, 400, 10,
+                0.5, 0.1, Duration.ofMillis(200));
+        controller.onChunkFlushed(400, SLOW_FLUSH, SLOW_FLUSH);
+        Assertions.assertEquals(200, controller.getBatchSize());
+        Assertions.assertEquals(200, controller.getStatistics().minBatchSize());
+    }
+
+    @Test
+    public void shouldStepBackWhenThroughputDrops() {
+        AimdBatchSizeController controller = new AimdBatchSizeController(10, 1000, 100, 10,
+                0.5, 0.1, Duration.ofMillis(200));
+        controller.onChunkFlushed(100, FAST_FLUSH, FAST_FLUSH * 10);
+        controller.onChunkFlushed(110, FAST_FLUSH, FAST_FLUSH * 100);
+        Assertions.assertEquals(100, controller.getBatchSize());
+    }
+
+    @Test
+    public void shouldStayWithinBounds() {
+        AimdBatchSizeController controller = new AimdBatchSizeController(10, 30);
+        for (int i = 0; i < 10; i++) {
+            controller.onChunkFlushed(controller.getBatchSize(), FAST_FLUSH, FAST_FLUSH * 10);
+        }
+        Assertions.assertEquals(30, controller.getBatchSize());
+        for (int i = 0; i < 10; i++) {
+            controller.onChunkFlushed(controller.getBatchSize(), SLOW_FLUSH, SLOW_FLUSH);
+        }
+        Assertions.assertEquals(10, controller.getBatchSize());
+    }
+
+    @Test
+    public void shouldRejectInvalidThroughputTolerance() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AimdBatchSizeController(10, 1000, 100, 10,
+                0.5, -0.1, Duration.ofMillis(200)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AimdBatchSizeController(10, 1000, 100, 10,
+                0.5, 1.0, Duration.ofMillis(200)));
+        Assertions.assertDoesNotThrow(() -> new AimdBatchSizeController(10, 1000, 100, 10,
+                0.5, 0.0, Duration.ofMillis(200)));
+    }
+}
@@ -2,17 +2,30 @@ package io.github.egorkor.tests;
 
 import io.github.egorkor.model.TestEntity;
 import io.github.egorkor.model.TestNestedEntity;
+import io.github.egorkor.model.Tag;
+import io.github.egorkor.params.TestEntityFilter;
 import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+import io.github.egorkor.webutils.queryparam.utils.FilterValueConverters;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.sqm.tree.predicate.SqmInListPredicate;
 import org.junit.jupiter.api.*;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class FilterTest {
     private static EntityManagerFactory emf;
@@ -43,6 +56,7 @@ public class FilterTest {
 
     @AfterEach
     void tearDown() {
+        FilterValueConverters.unregister(Code.class);
         if (em.getTransaction().isActive()) {
             em.getTransaction().rollback();
         }
@@ -99,7 +113,7 @@ public class FilterTest {
         System.out.println(Arrays.toString(filter.getFilterValues()));
         Assertions.assertEquals("WHERE id = ? AND name LIKE ? ESCAPE '!'",
                 filter.toSQLFilter().trim());
-        Assertions.assertArrayEquals(new Object[]{"10", "%!%some name!!!%%"}, filter.getFilterValues());
+        Assertions.assertArrayEquals(new Object[]{10L, "%!%some name!!!%%"}, filter.getFilterValues());
     }
 
     @Test
@@ -112,7 +126,7 @@ public class FilterTest {
         System.out.println(Arrays.toString(filter.getFilterValues()));
         Assertions.assertEquals("WHERE id <> ? AND id IS NOT NULL",
                 filter.toSQLFilter().trim());
-        Assertions.assertArrayEquals(new Object[]{"10"}, filter.getFilterValues());
+        Assertions.assertArrayEquals(new Object[]{10L}, filter.getFilterValues());
     }
 
     @Test
@@ -125,8 +139,211 @@ public class FilterTest {
         System.out.println(Arrays.toString(filter.getFilterValues()));
         Assertions.assertEquals("WHERE id IN (?,?,?)"
                 , filter.toSQLFilter().trim());
-        Assertions.assertArrayEquals(new Object[]{"'10'", "'15'", "'23'"}, filter.getFilterValues());
+        Assertions.assertArrayEquals(new Object[]{10L, 15L, 23L}, filter.getFilterValues());
     }
 
+    @Test
+    void sqlFilterValuesShouldBeTyped() {
+        Filter<TestNestedEntity> filter = new Filter<>(new ArrayList<>(List.of(
+                "deleted_at:>:2025-01-01T10:15",
+                "id:=:7")), TestNestedEntity.class);
+        Assertions.assertArrayEquals(
+                new Object[]{LocalDateTime.of(2025, 1, 1, 10, 15), 7L},
+                filter.getFilterValues(DatabaseType.H2));
+
+        TestEntityFilter mapped = new TestEntityFilter();
+        mapped.setFilter(new ArrayList<>(List.of("name:=:Egor", "nullable_property:in:1;2")));
+        mapped.setEntityType(TestEntity.class);
+        Assertions.assertArrayEquals(new Object[]{"Egor", 1, 2}, mapped.getFilterValues(DatabaseType.H2));
+    }
+
+
+
+    @Test
+    void converterRegistryShouldSupportTemporalAndCustomTypes() {
+        Assertions.assertEquals(Tag.TAG2, Filter.convertValue("TAG2", Tag.class));
+        Assertions.assertEquals(UUID.fromString("4f1c2a8e-3b1d-4d6e-9a7b-0c5e2f1d3a4b"),
+                Filter.convertValue("4f1c2a8e-3b1d-4d6e-9a7b-0c5e2f1d3a4b", UUID.class));
+        Assertions.assertEquals(new BigDecimal("10.50"), Filter.convertValue("10.50", BigDecimal.class));
+        Assertions.assertEquals(Instant.parse("2025-01-01T00:00:00Z"), Filter.convertValue("2025-01-01T00:00:00Z", Instant.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Filter.convertValue("TAG9", Tag.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Filter.convertValue("1", Code.class));
+
+        FilterValueConverters.register(Code.class, Code::new);
+        Assertions.assertEquals(new Code("abc"), Filter.convertValue("abc", Code.class));
+    }
+
+    @Test
+    void replacedConverterShouldApplyToSqlFilterValues() {
+        CodeFilter filter = new CodeFilter();
+        filter.setFilter(new ArrayList<>(List.of("code:=:abc")));
+        filter.setEntityType(TestEntity.class);
+
+        FilterValueConverters.register(Code.class, Code::new);
+        Assertions.assertArrayEquals(new Object[]{new Code("abc")}, filter.getFilterValues(DatabaseType.H2));
+
+        FilterValueConverters.register(Code.class, value -> new Code(value.toUpperCase()));
+        Assertions.assertArrayEquals(new Object[]{new Code("ABC")}, filter.getFilterValues(DatabaseType.H2));
+    }
+
+    @Test
+    void timestampRangeFilterShouldBuildCriteriaQuery() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TestNestedEntity> query = cb.createQuery(TestNestedEntity.class);
+        Filter<TestNestedEntity> filter = new Filter<>(new ArrayList<>(List.of(
+                "deletedAt:>=:2025-01-01T00:00",
+                "deletedAt:<:2025-02-01T00:00")), TestNestedEntity.class);
+        query.where(filter.toPredicate(query.from(TestNestedEntity.class), query, cb));
+        Assertions.assertTrue(em.createQuery(query).getResultList().isEmpty());
+    }
+
+    @Test
+    void stringOperatorsShouldMapToSql() {
+        Filter<TestEntity> filter = Filter.builder()
+                .startsWith("name", "Eg_")
+                .endsWith("tag", "50%")
+                .ilike("title", "ABC")
+                .equalsIgnoreCase("code", "XyZ")
+                .build();
+        Assertions.assertEquals("WHERE LOWER(code) = ? AND name LIKE ? ESCAPE '!' "
+                        + "AND tag LIKE ? ESCAPE '!' AND LOWER(title) LIKE ? ESCAPE '!'",
+                filter.toSQLFilter().trim());
+        Assertions.assertArrayEquals(new Object[]{"xyz", "Eg!_%", "%50!%", "%abc%"}, filter.getFilterValues());
+    }
+
+    @Test
+    void stringOperatorsShouldFilterInCriteria() {
+        em.persist(TestEntity.builder().id(1L).name("Egor").build());
+        em.persist(TestEntity.builder().id(2L).name("egor_k").build());
+        em.persist(TestEntity.builder().id(3L).name("George").build());
+        em.flush();
+
+        Assertions.assertEquals(List.of(1L), criteriaIds("name:startswith:Eg"));
+        Assertions.assertEquals(List.of(2L), criteriaIds("name:startswith:egor_"));
+        Assertions.assertEquals(List.of(3L), criteriaIds("name:endswith:ge"));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), criteriaIds("name:ilike:OR"));
+        Assertions.assertEquals(List.of(1L), criteriaIds("name:eqi:EGOR"));
+        Assertions.assertEquals(List.of(2L), criteriaIds("name:like:_"));
+    }
+
+    @Test
+    void betweenAndOrGroupsShouldMapToSql() {
+        Filter<TestEntity> filter = Filter.builder()
+                .or("g1", group -> group.equals("name", "A").startsWith("name", "B"))
+                .between("id", "1", "5")
+                .build();
+        filter.setEntityType(TestEntity.class);
+        Assertions.assertEquals("WHERE id BETWEEN ? AND ? AND (name = ? OR name LIKE ? ESCAPE '!')",
+                filter.toSQLFilter());
+        Assertions.assertArrayEquals(new Object[]{1L, 5L, "A", "B%"}, filter.getFilterValues());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new Filter<>(new ArrayList<>(List.of("id:between:1")), TestEntity.class).toSQLFilter());
+    }
+
+    @Test
+    void orGroupsShouldKeepWhitelistAndMapping() {
+        TestEntityFilter filter = new TestEntityFilter();
+        filter.setFilter(new ArrayList<>(List.of("g1|name:=:A", "g1|name:=:B")));
+        Assertions.assertEquals("WHERE (_name = ? OR _name = ?)", filter.toSQLFilter());
+
+        TestEntityFilter forbidden = new TestEntityFilter();
+        forbidden.setFilter(new ArrayList<>(List.of("g1|nullableProperty:=:1")));
+        Assertions.assertThrows(IllegalArgumentException.class, forbidden::toSQLFilter);
+    }
 
+    @Test
+    void betweenAndOrGroupsShouldFilterInCriteria() {
+        em.persist(TestEntity.builder().id(1L).name("Egor").nullableProperty(1).build());
+        em.persist(TestEntity.builder().id(2L).name("Anna").nullableProperty(2).build());
+        em.persist(TestEntity.builder().id(3L).name("George").nullableProperty(3).build());
+        em.flush();
+
+        Assertions.assertEquals(List.of(1L, 2L), criteriaIds("nullableProperty:between:1;2"));
+        Assertions.assertEquals(List.of(1L, 3L), criteriaIds("g1|name:=:Egor", "g1|id:=:3"));
+        Assertions.assertEquals(List.of(3L), criteriaIds("g1|name:=:Egor", "g1|id:=:3", "id:between:2;3"));
+        Assertions.assertEquals(List.of(2L), criteriaIds(
+                "g1|name:=:Anna", "g1|name:=:George", "g2|nullableProperty:<:3", "g2|id:=:1"));
+    }
+
+    private List<Long> criteriaIds(String... conditions) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TestEntity> query = cb.createQuery(TestEntity.class);
+        Filter<TestEntity> filter = new Filter<>(new ArrayList<>(List.of(conditions)), TestEntity.class);
+        Root<TestEntity> root = query.from(TestEntity.class);
+        query.where(filter.toPredicate(root, query, cb)).orderBy(cb.asc(root.get("id")));
+        return em.createQuery(query).getResultList().stream().map(TestEntity::getId).toList();
+    }
+
+    @Test
+    void shapeShouldExcludeValues() {
+        Filter<TestEntity> first = new Filter<>(new ArrayList<>(List.of("name:like:abc", "id:>:10")), TestEntity.class);
+        Filter<TestEntity> second = new Filter<>(new ArrayList<>(List.of("id:>:99", "name:LIKE:xyz")), TestEntity.class);
+        Assertions.assertEquals("id:>,name:like", first.getShape());
+        Assertions.assertEquals(first.getShape(), second.getShape());
+    }
+
+    @Test
+    void inListShouldFollowDatabaseStrategy() {
+        Filter<TestEntity> small = new Filter<>(new ArrayList<>(List.of("id:in:1;2;3")), TestEntity.class);
+        Assertions.assertEquals("WHERE id = ANY(?)", small.toSQLFilter("", DatabaseType.POSTGRESQL));
+        Object[] arrayValues = small.getFilterValues(DatabaseType.POSTGRESQL);
+        Assertions.assertEquals(1, arrayValues.length);
+        Assertions.assertArrayEquals(new Long[]{1L, 2L, 3L}, (Long[]) arrayValues[0]);
+
+        Filter<TestEntity> padded = new Filter<>(new ArrayList<>(List.of("id:in:" + ids(11))), TestEntity.class);
+        Assertions.assertEquals(16, padded.toSQLFilter("", DatabaseType.H2).chars().filter(c -> c == '?').count());
+        Object[] paddedValues = padded.getFilterValues(DatabaseType.H2);
+        Assertions.assertEquals(16, paddedValues.length);
+        Assertions.assertEquals(11L, paddedValues[15]);
+
+        Filter<TestEntity> large = new Filter<>(new ArrayList<>(List.of("id:in:" + ids(2500))), TestEntity.class);
+        String oracleSql = large.toSQLFilter("", DatabaseType.ORACLE);
+        Assertions.assertEquals(2, oracleSql.split(" OR ").length - 1);
+        Assertions.assertEquals(2512, large.getFilterValues(DatabaseType.ORACLE).length);
+
+        Filter<TestEntity> huge = new Filter<>(new ArrayList<>(List.of("id:in:" + ids(3000))), TestEntity.class);
+        Assertions.assertEquals("WHERE id IN (SELECT value FROM OPENJSON(?))", huge.toSQLFilter("", DatabaseType.SQL_SERVER));
+        Object[] jsonValues = huge.getFilterValues(DatabaseType.SQL_SERVER);
+        Assertions.assertEquals(1, jsonValues.length);
+        Assertions.assertTrue(((String) jsonValues[0]).startsWith("[\"1\",\"2\","));
+    }
+
+    @Test
+    void largeInListShouldBeChunkedInCriteria() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TestEntity> query = cb.createQuery(TestEntity.class);
+        Filter<TestEntity> filter = new Filter<>(new ArrayList<>(List.of("id:in:" + ids(2500))), TestEntity.class);
+        query.where(filter.toPredicate(query.from(TestEntity.class), query, cb));
+        Assertions.assertTrue(em.createQuery(query).getResultList().isEmpty());
+    }
+
+    @Test
+    void conditionsShouldBeOrderedCanonically() {
+        Filter<TestEntity> first = new Filter<>(new ArrayList<>(List.of("name:like:abc", "id:>:10")), TestEntity.class);
+        Filter<TestEntity> second = new Filter<>(new ArrayList<>(List.of("id:>:99", "name:LIKE:xyz")), TestEntity.class);
+        Assertions.assertEquals(first.toSQLFilter(), second.toSQLFilter());
+        Assertions.assertEquals("WHERE id > ? AND name LIKE ? ESCAPE '!'", first.toSQLFilter());
+        Assertions.assertArrayEquals(new Object[]{10L, "%abc%"}, first.getFilterValues());
+    }
+
+    @Test
+    void inListShouldBePaddedInCriteria() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TestEntity> query = cb.createQuery(TestEntity.class);
+        Filter<TestEntity> filter = new Filter<>(new ArrayList<>(List.of("id:in:" + ids(11))), TestEntity.class);
+        Predicate predicate = filter.toPredicate(query.from(TestEntity.class), query, cb);
+        SqmInListPredicate<?> in = (SqmInListPredicate<?>) predicate.getExpressions().get(0);
+        Assertions.assertEquals(16, in.getListExpressions().size());
+    }
+
+    private static String ids(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(String::valueOf).collect(Collectors.joining(";"));
+    }
+
+    record Code(String value) {
+    }
+
+    static class CodeFilter extends Filter<TestEntity> {
+        private Code code;
+    }
 }
@@ -0,0 +1,54 @@
+package io.github.egorkor.tests;
+
+import io.github.egorkor.model.TestEntity;
+import io.github.egorkor.webutils.dto.DtoMapper;
+import io.github.egorkor.webutils.queryparam.Filter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JfrEventsTest {
+
+    @Test
+    void shouldEmitFilterCompilationAndDtoMappingEvents() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.egorkor.webutils.FilterCompilation").withoutThreshold();
+            recording.enable("io.github.egorkor.webutils.DtoMapping").withoutThreshold();
+            recording.start();
+
+            new Filter<>(new ArrayList<>(List.of("id:>:10", "name:like:abc")), TestEntity.class).toSQLFilter();
+            new DtoMapper().toDto(List.of(new TestEntity(), new TestEntity()), TestEntity.class);
+
+            recording.stop();
+            Path file = Files.createTempFile("webutils", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        RecordedEvent compilation = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.egorkor.webutils.FilterCompilation"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(2, compilation.getInt("fieldCount"));
+        Assertions.assertEquals("SQL", compilation.getString("target"));
+        Assertions.assertEquals("id:>,name:like", compilation.getString("shape"));
+
+        RecordedEvent mapping = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.egorkor.webutils.DtoMapping"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(2, mapping.getInt("count"));
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.ArrayList;
@@ -72,7 +73,7 @@ public class SqlMappingTest {
         System.out.println(Arrays.toString(filter.getFilterValues()));
         Assertions.assertEquals(
                 "SELECT * FROM test_entity "
-                        + "WHERE id = ? AND _name LIKE ? ESCAPE '!' AND is_deleted = false "
+                        + "WHERE _name LIKE ? ESCAPE '!' AND id = ? AND is_deleted = false "
                         + "ORDER BY id ASC "
                         + "LIMIT 15 OFFSET 30", sql
 
@@ -81,4 +82,18 @@ public class SqlMappingTest {
         }, filter.getFilterValues());
     }
 
+    @Test
+    public void preparedStatementSetterShouldBindTypedValues() {
+        TestEntityFilter filter = new TestEntityFilter();
+        filter.setFilter(new ArrayList<>(List.of("id:in:1;2", "name:like:some")));
+        filter.setEntityType(TestEntity.class);
+
+        String sql = "SELECT id FROM test_entity " + filter.toSQLFilter().trim();
+        PreparedStatementSetter setter = filter.toPreparedStatementSetter();
+        for (int i = 0; i < 2; i++) {
+            List<Long> ids = jdbcTemplate.query(sql, setter, (rs, rowNum) -> rs.getLong(1));
+            Assertions.assertEquals(List.of(1L), ids);
+        }
+    }
+
 }
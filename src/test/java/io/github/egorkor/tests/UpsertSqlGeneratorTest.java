@@ -0,0 +1,41 @@
+package io.github.egorkor.tests;
+
+import io.github.egorkor.webutils.queryparam.utils.DatabaseType;
+import io.github.egorkor.webutils.template.jpa.UpsertSqlGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class UpsertSqlGeneratorTest {
+
+    @Test
+    public void testPostgresUpsert() {
+        Assertions.assertEquals(
+                "INSERT INTO users (id, name, email) VALUES (?, ?, ?) "
+                        + "ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, email = EXCLUDED.email",
+                UpsertSqlGenerator.generate(DatabaseType.POSTGRESQL, "users", List.of("id"), List.of("name", "email")));
+    }
+
+    @Test
+    public void testMySqlUpsert() {
+        Assertions.assertEquals(
+                "INSERT INTO users (id, name) VALUES (?, ?) ON DUPLICATE KEY UPDATE name = VALUES(name)",
+                UpsertSqlGenerator.generate(DatabaseType.MYSQL, "users", List.of("id"), List.of("name")));
+    }
+
+    @Test
+    public void testSqlServerMerge() {
+        Assertions.assertEquals(
+                "MERGE INTO users tgt USING (VALUES (?, ?)) AS src (id, name) ON (tgt.id = src.id) "
+                        + "WHEN MATCHED THEN UPDATE SET tgt.name = src.name "
+                        + "WHEN NOT MATCHED THEN INSERT (id, name) VALUES (src.id, src.name);",
+                UpsertSqlGenerator.generate(DatabaseType.SQL_SERVER, "users", List.of("id"), List.of("name")));
+    }
+
+    @Test
+    public void testUnsupportedDatabase() {
+        Assertions.assertThrows(UnsupportedOperationException.class, () ->
+                UpsertSqlGenerator.generate(DatabaseType.OTHER, "users", List.of("id"), List.of("name")));
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.params.UserFilter;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.Aggregation;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class AggregationTests {
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        String[] names = {"A", "A", "A", "B", "B", "C"};
+        for (int i = 0; i < names.length; i++) {
+            User user = User.generateUser(i + 1);
+            user.setFirstName(names[i]);
+            if (names[i].equals("C")) {
+                user.setDeletedAt(LocalDateTime.now());
+            }
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void shouldGroupSortAndPaginateInDatabase() {
+        Aggregation aggregation = Aggregation.builder()
+                .groupBy("firstName")
+                .count("id", "users")
+                .sum("id", "total")
+                .max("id", "maxId")
+                .build();
+
+        PageableResult<Map<String, Object>> page = userService.aggregate(aggregation, Filter.emptyFilter(),
+                Sorting.builder().desc("total").build(), new Pagination(1, 0));
+
+        Assertions.assertEquals(2, page.getCount());
+        Assertions.assertEquals(2, page.getPageCount());
+        Assertions.assertEquals(
+                List.of(Map.of("firstName", "B", "users", 2L, "total", 9L, "maxId", 5L)),
+                page.getData());
+    }
+
+    @Test
+    public void shouldApplyWhereAndHaving() {
+        Aggregation aggregation = Aggregation.builder()
+                .groupBy("firstName")
+                .count("id", "users")
+                .having(Filter.builder().greaterOrEquals("id.count()", "2").build())
+                .build();
+
+        PageableResult<Map<String, Object>> all = userService.aggregate(aggregation, Filter.emptyFilter(),
+                Sorting.builder().asc("firstName").build(), Pagination.unpaged());
+        Assertions.assertEquals(List.of("A", "B"), all.getData().stream().map(row -> row.get("firstName")).toList());
+
+        PageableResult<Map<String, Object>> filtered = userService.aggregate(aggregation,
+                Filter.builder().less("id", "5").build(), Sorting.unsorted(), new Pagination(10, 0));
+        Assertions.assertEquals(List.of(Map.of("firstName", "A", "users", 3L)), filtered.getData());
+        Assertions.assertEquals(1, filtered.getCount());
+    }
+
+    @Test
+    public void shouldRejectSortingByUnknownField() {
+        Aggregation aggregation = Aggregation.builder().groupBy("firstName").count("id", "users").build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userService.aggregate(aggregation,
+                Filter.emptyFilter(), Sorting.builder().asc("email").build(), Pagination.unpaged()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Aggregation.builder()
+                .groupBy("firstName").aggregate("id", Filter.Function.LENGTH, "len").build().getAggregates());
+    }
+
+    @Test
+    public void shouldResolveFieldsByFilterRules() {
+        Aggregation byPassword = Aggregation.builder().groupBy("password").count("id", "users").build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userService.aggregate(byPassword,
+                new UserFilter(), Sorting.unsorted(), Pagination.unpaged()));
+        Aggregation maxPassword = Aggregation.builder().groupBy("id").max("password", "value").build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userService.aggregate(maxPassword,
+                new UserFilter(), Sorting.unsorted(), Pagination.unpaged()));
+        Aggregation havingPassword = Aggregation.builder()
+                .groupBy("id")
+                .having(Filter.builder().greater("password.max()", "a").build())
+                .build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userService.aggregate(havingPassword,
+                new UserFilter(), Sorting.unsorted(), Pagination.unpaged()));
+
+        Aggregation byId = Aggregation.builder().groupBy("id").count("id", "users").build();
+        Assertions.assertEquals(5, userService.aggregate(byId, new UserFilter(),
+                Sorting.unsorted(), Pagination.unpaged()).getData().size());
+    }
+
+    @Test
+    public void shouldRejectAggregateFunctionsOutsideHaving() {
+        InvalidDataAccessApiUsageException exception = Assertions.assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> userService.getAll(Filter.builder().greater("id.sum()", "1").build(),
+                        Sorting.unsorted(), Pagination.unpaged()));
+        Assertions.assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        Aggregation aggregation = Aggregation.builder().groupBy("firstName").count("id", "users").build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userService.aggregate(aggregation,
+                Filter.builder().greater("id.count()", "1").build(), Sorting.unsorted(), Pagination.unpaged()));
+    }
+}
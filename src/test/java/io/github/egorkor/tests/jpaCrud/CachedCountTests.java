@@ -0,0 +1,170 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.repository.UserRepository;
+import io.github.egorkor.service.impl.UserAsyncBatchServiceImpl;
+import io.github.egorkor.service.impl.UserBatchServiceImpl;
+import io.github.egorkor.webutils.queryparam.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+@Import({UserBatchServiceImpl.class, UserAsyncBatchServiceImpl.class, CachedCountTests.ExecutorConfig.class})
+@ActiveProfiles("test")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CachedCountTests {
+    @Autowired
+    private UserBatchServiceImpl userService;
+    @Autowired
+    private UserAsyncBatchServiceImpl asyncService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        userService.create(namedUser(1, "Alice"));
+        userService.create(namedUser(2, "Bob"));
+        userService.registerCachedCount("all", Filter.emptyFilter());
+        userService.registerCachedCount("alice", Filter.builder().equals("firstName", "Alice").build());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userService.unregisterCachedCount("all");
+        userService.unregisterCachedCount("alice");
+        userService.deleteAll();
+    }
+
+    @Test
+    public void countersShouldFollowServiceOperations() {
+        Assertions.assertEquals(2, userService.getCachedCount("all"));
+        Assertions.assertEquals(1, userService.getCachedCount("alice"));
+
+        userService.create(namedUser(3, "Alice"));
+        userService.batchCreate(List.of(namedUser(4, "Alice"), namedUser(5, "Carol")), 10);
+        Assertions.assertEquals(5, userService.getCachedCount("all"));
+        Assertions.assertEquals(3, userService.getCachedCount("alice"));
+
+        userService.softDeleteById(1L);
+        userService.deleteById(2L);
+        userService.batchDeleteAtomic(List.of(4L), 10);
+        Assertions.assertEquals(2, userService.getCachedCount("all"));
+        Assertions.assertEquals(1, userService.getCachedCount("alice"));
+
+        userService.restoreByFilter(Filter.builder().equals("id", "1").build());
+        Assertions.assertEquals(3, userService.getCachedCount("all"));
+        Assertions.assertEquals(2, userService.getCachedCount("alice"));
+
+        userService.softDeleteAll();
+        Assertions.assertEquals(0, userService.getCachedCount("all"));
+        Assertions.assertEquals(0, userService.getCachedCount("alice"));
+        Assertions.assertEquals(0, userService.reconcileCachedCounts());
+    }
+
+    @Test
+    public void countersShouldBeReadFromMemoryUntilReconciled() {
+        userRepository.save(namedUser(3, "Alice"));
+        Assertions.assertEquals(1, userService.getCachedCount("alice"));
+
+        Assertions.assertEquals(2, userService.reconcileCachedCounts());
+        Assertions.assertEquals(3, userService.getCachedCount("all"));
+        Assertions.assertEquals(2, userService.getCachedCount("alice"));
+    }
+
+    @Test
+    public void updatesShouldMoveCountersWithoutRecount() {
+        userRepository.save(namedUser(3, "Alice"));
+
+        User bob = userService.getById(2L);
+        bob.setFirstName("Alice");
+        userService.fullUpdate(bob);
+        Assertions.assertEquals(2, userService.getCachedCount("alice"));
+
+        transactionTemplate.executeWithoutResult(status ->
+                userService.patchUpdate(1L, namedUser(1, "Carol")));
+        Assertions.assertEquals(1, userService.getCachedCount("alice"));
+        Assertions.assertEquals(2, userService.getCachedCount("all"));
+    }
+
+    @Test
+    public void countersShouldIgnoreRolledBackChanges() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.create(namedUser(3, "Alice"));
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertEquals(2, userService.getCachedCount("all"));
+        Assertions.assertEquals(1, userService.getCachedCount("alice"));
+    }
+
+    @Test
+    public void asyncBatchOperationsShouldUpdateCounters() {
+        asyncService.registerCachedCount("async-alice", Filter.builder().equals("firstName", "Alice").build());
+        try {
+            asyncService.batchCreateAsync(List.of(namedUser(3, "Alice"), namedUser(4, "Bob")), 10).join();
+            Assertions.assertEquals(2, asyncService.getCachedCount("async-alice"));
+
+            asyncService.batchDeleteAtomicAsync(List.of(1L, 3L), 10).join();
+            Assertions.assertEquals(0, asyncService.getCachedCount("async-alice"));
+            Assertions.assertEquals(0, asyncService.reconcileCachedCounts());
+        } finally {
+            asyncService.unregisterCachedCount("async-alice");
+        }
+    }
+
+    @Test
+    public void filterShouldMatchEntityInMemory() {
+        User user = namedUser(7, "Alice");
+        Filter<User> filter = Filter.builder()
+                .startsWith("firstName", "Al")
+                .between("id", "5", "10")
+                .is("deletedAt", Filter.Is.NULL)
+                .build();
+        filter.setEntityType(User.class);
+
+        Assertions.assertTrue(filter.isMatchableInMemory());
+        Assertions.assertTrue(filter.matches(user));
+        user.setDeletedAt(LocalDateTime.now());
+        Assertions.assertFalse(filter.matches(user));
+
+        Filter<User> collectionFilter = Filter.builder().equals("roles", "ADMIN").build();
+        collectionFilter.setEntityType(User.class);
+        Assertions.assertFalse(collectionFilter.isMatchableInMemory());
+    }
+
+    private static User namedUser(long id, String firstName) {
+        User user = User.generateUser(id);
+        user.setFirstName(firstName);
+        return user;
+    }
+
+    @TestConfiguration
+    static class ExecutorConfig {
+        @Bean
+        public ThreadPoolTaskExecutor cachedCountTestExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(2);
+            executor.initialize();
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.Order;
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.template.jpa.PaginationStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class CollectionFilterTests {
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        userService.setPaginationStrategy(PaginationStrategy.SINGLE_QUERY);
+        for (long id = 1; id <= 6; id++) {
+            User user = User.generateUser(id);
+            user.setRoles(id % 2 == 0 ? List.of("USER", "ADMIN", "EVEN") : List.of("USER"));
+            entityManager.persist(user);
+            for (long i = 0; i < id; i++) {
+                entityManager.persist(Order.builder().id(id * 10 + i).name(i % 2 == 0 ? "book" : "pen")
+                        .cost((double) i).user(user).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userService.setPaginationStrategy(PaginationStrategy.AUTO);
+    }
+
+    @Test
+    public void shouldReturnUniqueRowsForElementCollectionIn() {
+        PageableResult<User> result = userService.getAll(Filter.builder().in("roles", "ADMIN", "EVEN").build(),
+                Sorting.builder().asc("id").build(),
+                new Pagination(2, 0));
+
+        Assertions.assertEquals(List.of(2L, 4L), result.getData().stream().map(User::getId).toList());
+        Assertions.assertEquals(3, result.getCount());
+    }
+
+    @Test
+    public void shouldFilterByNestedCollectionPath() {
+        PageableResult<User> result = userService.getAll(Filter.builder()
+                        .equals("orders.name", "pen")
+                        .greaterOrEquals("orders.cost", "4")
+                        .build(),
+                Sorting.builder().asc("id").build(),
+                Pagination.unpaged());
+
+        Assertions.assertEquals(List.of(5L, 6L), result.getData().stream().map(User::getId).toList());
+        Assertions.assertEquals(3, userService.countByFilter(Filter.builder().in("orders.name", "pen").greater("orders.cost", "2").build()));
+    }
+
+    @Test
+    public void shouldApplyCollectionConditionInBulkUpdate() {
+        userService.softDeleteByFilter(Filter.builder().equals("roles", "ADMIN").build());
+        entityManager.clear();
+
+        Assertions.assertEquals(3, userService.countAll());
+        Assertions.assertEquals(List.of(1L, 3L, 5L), userService.getAll(Filter.emptyFilter(),
+                        Sorting.builder().asc("id").build(), Pagination.unpaged())
+                .getData().stream().map(User::getId).toList());
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.template.jpa.CountMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class CountModeTests {
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        for (long id = 1; id <= 6; id++) {
+            User user = User.generateUser(id);
+            if (id == 6) {
+                user.setDeletedAt(LocalDateTime.now());
+            }
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        userService.setCountMode(CountMode.APPROXIMATE);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userService.setCountMode(CountMode.EXACT);
+    }
+
+    @Test
+    public void approximateModeShouldFallBackToExactCountOnH2() {
+        PageableResult<User> page = userService.getAll(Filter.emptyFilter(),
+                Sorting.builder().asc("id").build(), new Pagination(2, 1));
+
+        Assertions.assertTrue(page.isExact());
+        Assertions.assertEquals(5, page.getCount());
+        Assertions.assertEquals(3, page.getPageCount());
+        Assertions.assertEquals(List.of(3L, 4L), page.getData().stream().map(User::getId).toList());
+        Assertions.assertEquals(5, userService.countAll());
+        Assertions.assertEquals(2, userService.countByFilter(Filter.builder().greater("id", "3").build()));
+    }
+
+    @Test
+    public void partialFirstPageShouldNotNeedCount() {
+        PageableResult<User> page = userService.getAll(Filter.builder().less("id", "3").build(),
+                Sorting.unsorted(), new Pagination(10, 0));
+
+        Assertions.assertTrue(page.isExact());
+        Assertions.assertEquals(2, page.getCount());
+    }
+
+    @Test
+    public void mapFieldNamesShouldKeepGroups() {
+        Filter<User> filter = new Filter<>(new ArrayList<>(List.of("g1|firstName:=:A", "id:>:1")), User.class);
+        Filter<User> mapped = filter.mapFieldNames(field -> field.equals("firstName") ? "first_name" : field);
+
+        Assertions.assertEquals("WHERE id > ? AND first_name = ?", mapped.toSQLFilter());
+        Assertions.assertArrayEquals(new Object[]{1L, "A"}, mapped.getFilterValues());
+        Assertions.assertEquals(4, PageableResult.ofEstimated(List.of(), 10, 3).getPageCount());
+        Assertions.assertFalse(PageableResult.ofEstimated(List.of(), 10, 3).isExact());
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.UserBatchService;
+import io.github.egorkor.service.impl.UserBatchServiceImpl;
+import io.github.egorkor.webutils.exception.ResourceNotFoundException;
+import io.github.egorkor.webutils.metrics.CrudServiceMetricsInterceptor;
+import io.github.egorkor.webutils.metrics.QueryPlanCacheMetrics;
+import io.github.egorkor.webutils.postProcessor.CrudServiceMetricsBeanPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+@Import({UserBatchServiceImpl.class, CrudServiceMetricsTests.MetricsConfiguration.class})
+@ActiveProfiles("test")
+@DataJpaTest
+public class CrudServiceMetricsTests {
+    @Autowired
+    private UserBatchService userBatchService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        static CrudServiceMetricsBeanPostProcessor crudServiceMetricsBeanPostProcessor(
+                ObjectProvider<MeterRegistry> meterRegistry) {
+            return new CrudServiceMetricsBeanPostProcessor(meterRegistry, true);
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        userBatchService.deleteAll();
+        meterRegistry.clear();
+    }
+
+    @Test
+    public void shouldRecordOperationTimersAndErrors() {
+        Assertions.assertTrue(AopUtils.isAopProxy(userBatchService));
+        userBatchService.batchUpsert(User.generateUsers(1, 2));
+
+        userBatchService.getById(1L);
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> userBatchService.getById(100L));
+
+        Assertions.assertEquals(1, meterRegistry.get(CrudServiceMetricsInterceptor.OPERATION_TIMER)
+                .tags("entity", "User", "operation", "getById", "outcome", "success")
+                .timer().count());
+        Assertions.assertEquals(1, meterRegistry.get(CrudServiceMetricsInterceptor.OPERATION_TIMER)
+                .tags("entity", "User", "operation", "getById", "outcome", "error")
+                .timer().count());
+        Assertions.assertEquals(1, meterRegistry.get(CrudServiceMetricsInterceptor.ERROR_COUNTER)
+                .tags("operation", "getById", "exception", "ResourceNotFoundException")
+                .counter().count());
+    }
+
+    @Test
+    public void shouldRecordBatchRowsAndFailures() {
+        userBatchService.batchCreate(User.generateUsers(1, 3));
+        List<User> users = new ArrayList<>(User.generateUsers(4, 1));
+        users.add(User.generateUser(5));
+        users.get(1).setId(null);
+        userBatchService.batchUpdate(users);
+
+        Assertions.assertEquals(3, meterRegistry.get(CrudServiceMetricsInterceptor.BATCH_ROWS)
+                .tags("operation", "batchCreate")
+                .summary().totalAmount());
+        Assertions.assertEquals(0, meterRegistry.get(CrudServiceMetricsInterceptor.BATCH_FAILED_ROWS)
+                .tags("operation", "batchCreate")
+                .counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(CrudServiceMetricsInterceptor.BATCH_FAILED_ROWS)
+                .tags("operation", "batchUpdate")
+                .counter().count());
+        Assertions.assertEquals(0.5, meterRegistry.get(CrudServiceMetricsInterceptor.BATCH_FAILURE_RATIO)
+                .tags("operation", "batchUpdate")
+                .summary().max());
+    }
+
+    @Test
+    public void shouldExposeQueryPlanCacheHitRatio() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            new QueryPlanCacheMetrics(entityManagerFactory).bindTo(meterRegistry);
+            for (int i = 0; i < 3; i++) {
+                entityManager.createQuery("select u from User u where u.id in :ids", User.class)
+                        .setParameter("ids", List.of(1L, 2L))
+                        .getResultList();
+            }
+
+            Assertions.assertTrue(meterRegistry.get(QueryPlanCacheMetrics.HITS).functionCounter().count() >= 2);
+            Assertions.assertTrue(meterRegistry.get(QueryPlanCacheMetrics.HIT_RATIO).gauge().value() > 0);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.RemovalTrackedEntity;
+import io.github.egorkor.repository.RemovalTrackedEntityRepository;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.template.jpa.JpaCrudService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.LongStream;
+
+
+@Import(EntityLoadingDeleteTests.RemovalTrackedEntityService.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class EntityLoadingDeleteTests {
+    @Autowired
+    private RemovalTrackedEntityService service;
+    @Autowired
+    private RemovalTrackedEntityRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        repository.deleteAllInBatch();
+        LongStream.rangeClosed(1, 10)
+                .forEach(id -> repository.save(new RemovalTrackedEntity(id, "entity " + id)));
+        repository.flush();
+        RemovalTrackedEntity.REMOVED.set(0);
+    }
+
+    @Test
+    public void deleteByFilterShouldRunRemoveCallbacks() {
+        service.deleteByFilter(Filter.builder()
+                .greater("id", "4")
+                .build());
+        Assertions.assertEquals(6, RemovalTrackedEntity.REMOVED.get());
+        Assertions.assertEquals(4, repository.count());
+    }
+
+    @Test
+    public void chunkedDeleteByFilterShouldRunRemoveCallbacks() {
+        long deleted = service.deleteByFilter(Filter.builder()
+                .lessOrEquals("id", "7")
+                .build(), 3);
+        Assertions.assertEquals(7, deleted);
+        Assertions.assertEquals(7, RemovalTrackedEntity.REMOVED.get());
+        Assertions.assertEquals(3, repository.count());
+    }
+
+    static class RemovalTrackedEntityService extends JpaCrudService<RemovalTrackedEntity, Long> {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        RemovalTrackedEntityService(JpaRepository<RemovalTrackedEntity, Long> jpaRepository,
+                                    JpaSpecificationExecutor<RemovalTrackedEntity> jpaSpecificationExecutor,
+                                    ApplicationEventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate) {
+            super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate);
+        }
+
+        @Override
+        public EntityManager getPersistenceAnnotatedEntityManager() {
+            return entityManager;
+        }
+    }
+}
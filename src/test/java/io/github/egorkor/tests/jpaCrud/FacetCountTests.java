@@ -0,0 +1,66 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.FacetCount;
+import io.github.egorkor.webutils.queryparam.Filter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class FacetCountTests {
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        String[] names = {"A", "A", "A", "B", "B", "C", "A"};
+        for (int i = 0; i < names.length; i++) {
+            User user = User.generateUser(i + 1);
+            user.setFirstName(names[i]);
+            user.setRoles(i % 2 == 0 ? List.of("USER", "ADMIN") : List.of("USER"));
+            if (i == names.length - 1) {
+                user.setDeletedAt(LocalDateTime.now());
+            }
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void shouldCountAllFacetsInOneQuery() {
+        Map<String, List<FacetCount>> facets = userService.facetCounts(Filter.emptyFilter(),
+                List.of("firstName", "roles"), 2);
+
+        Assertions.assertEquals(List.of("firstName", "roles"), List.copyOf(facets.keySet()));
+        Assertions.assertEquals(List.of(new FacetCount("A", 3), new FacetCount("B", 2)), facets.get("firstName"));
+        Assertions.assertEquals(List.of(new FacetCount("USER", 6), new FacetCount("ADMIN", 3)), facets.get("roles"));
+    }
+
+    @Test
+    public void shouldApplyBaseFilter() {
+        Map<String, List<FacetCount>> facets = userService.facetCounts(
+                Filter.builder().greater("id", "3").build(), List.of("firstName"), 10);
+
+        Assertions.assertEquals(List.of(new FacetCount("B", 2), new FacetCount("C", 1)), facets.get("firstName"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> userService.facetCounts(Filter.emptyFilter(), List.of("firstName"), 0));
+    }
+}
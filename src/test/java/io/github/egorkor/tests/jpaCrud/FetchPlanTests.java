@@ -0,0 +1,111 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.Order;
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.UserService;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class FetchPlanTests {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics stats;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        for (long id = 1; id <= 10; id++) {
+            User user = User.generateUser(id);
+            user.setRoles(List.of("USER", "ROLE_" + id));
+            entityManager.persist(user);
+            for (long i = 0; i < 3; i++) {
+                entityManager.persist(Order.builder().id(id * 10 + i).name("order").cost(1.0).user(user).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        stats.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        stats.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void shouldLoadCollectionsOfPageByIds() {
+        PageableResult<User> result = userService.getAll(Filter.emptyFilter().withFetchGraph("roles", "orders"),
+                Sorting.builder().desc("id").build(),
+                new Pagination(4, 0));
+
+        Assertions.assertEquals(List.of(10L, 9L, 8L, 7L), result.getData().stream().map(User::getId).toList());
+        Assertions.assertEquals(10, result.getCount());
+        // count, page, roles by ids, orders by ids
+        Assertions.assertEquals(4, stats.getPrepareStatementCount());
+        for (User user : result.getData()) {
+            Assertions.assertTrue(Hibernate.isInitialized(user.getRoles()));
+            Assertions.assertTrue(Hibernate.isInitialized(user.getOrders()));
+            Assertions.assertEquals(2, user.getRoles().size());
+            Assertions.assertEquals(3, user.getOrders().size());
+        }
+        Assertions.assertEquals(4, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldLoadUnpagedCollectionsInChunksOfIds() {
+        for (long id = 11; id <= 1500; id++) {
+            User user = User.generateUser(id);
+            user.setRoles(List.of("USER"));
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        stats.clear();
+
+        PageableResult<User> result = userService.getAll(Filter.emptyFilter().withFetchGraph("roles"),
+                Sorting.unsorted(),
+                Pagination.unpaged());
+
+        Assertions.assertEquals(1500, result.getData().size());
+        // page, roles by two chunks of ids
+        Assertions.assertEquals(3, stats.getPrepareStatementCount());
+        Assertions.assertTrue(result.getData().stream().allMatch(user -> Hibernate.isInitialized(user.getRoles())));
+    }
+
+    @Test
+    public void shouldLoadNamedEntityGraphForSingleEntity() {
+        User user = userService.getByIdWithFilter(3L, Filter.emptyFilter().withEntityGraph("User.roles"));
+
+        Assertions.assertTrue(Hibernate.isInitialized(user.getRoles()));
+        Assertions.assertFalse(Hibernate.isInitialized(user.getOrders()));
+        Assertions.assertEquals(List.of("USER", "ROLE_3"), user.getRoles());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.PageableResult;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.template.jpa.PaginationStrategy;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class IdsFirstPaginationTests {
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        userService.deleteAll();
+        for (long id = 1; id <= 10; id++) {
+            User user = User.generateUser(id);
+            user.setRoles(id % 2 == 0 ? List.of("USER", "ADMIN", "EVEN") : List.of("USER"));
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userService.setPaginationStrategy(PaginationStrategy.AUTO);
+    }
+
+    @Test
+    public void shouldDetectCollectionConditions() {
+        Filter<User> collectionFilter = Filter.builder().in("roles", "ADMIN").build();
+        collectionFilter.setEntityType(User.class);
+        Filter<User> plainFilter = Filter.builder().greater("id", "3").build();
+        plainFilter.setEntityType(User.class);
+
+        Assertions.assertTrue(collectionFilter.isCollectionFiltered());
+        Assertions.assertFalse(plainFilter.isCollectionFiltered());
+    }
+
+    @Test
+    public void shouldSelectPageOfIdsForCollectionFilter() {
+        PageableResult<User> result = userService.getAll(Filter.builder().in("roles", "ADMIN", "USER").build(),
+                Sorting.builder().desc("id").build(),
+                new Pagination(3, 1));
+
+        Assertions.assertEquals(List.of(7L, 6L, 5L), result.getData().stream().map(User::getId).toList());
+        Assertions.assertEquals(10, result.getCount());
+        Assertions.assertEquals(4, result.getPageCount());
+    }
+
+    @Test
+    public void shouldPaginateFetchJoinedCollectionsByIds() {
+        userService.setPaginationStrategy(PaginationStrategy.IDS_FIRST);
+        PageableResult<User> result = userService.getAll(Filter.emptyFilter().withFetchJoin("roles"),
+                Sorting.builder().asc("id").build(),
+                new Pagination(4, 0));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L), result.getData().stream().map(User::getId).toList());
+        Assertions.assertEquals(10, result.getCount());
+        Assertions.assertTrue(Hibernate.isInitialized(result.getData().get(1).getRoles()));
+        Assertions.assertEquals(3, result.getData().get(1).getRoles().size());
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.service.UserService;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.metrics.IndexAdvisor;
+import io.github.egorkor.webutils.metrics.IndexRecommendation;
+import io.github.egorkor.webutils.metrics.QueryShapeStatistics;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class IndexAdvisorTests {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    private QueryShapeStatistics statistics;
+    private IndexAdvisor indexAdvisor;
+
+    @BeforeEach
+    public void setup() {
+        statistics = new QueryShapeStatistics(100, Duration.ofMinutes(1));
+        QueryShapeStatistics.install(statistics);
+        indexAdvisor = new IndexAdvisor(entityManagerFactory, dataSource, statistics);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        QueryShapeStatistics.uninstall(statistics);
+    }
+
+    @Test
+    public void shouldRecommendCompositeIndexAndDetectCreatedIndex() throws Exception {
+        userService.getAll(Filter.builder()
+                        .greater("id", "0")
+                        .equals("phone", "123")
+                        .build(),
+                Sorting.builder().asc("email").build(),
+                new Pagination(10, 0));
+
+        List<IndexRecommendation> recommendations = indexAdvisor.recommend(10);
+        Assertions.assertEquals(1, recommendations.size());
+        IndexRecommendation recommendation = recommendations.get(0);
+        Assertions.assertEquals(List.of("deleted_at", "phone", "id", "email"),
+                recommendation.columns().stream().map(String::toLowerCase).toList());
+        Assertions.assertTrue(recommendation.isIndexRequired());
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(recommendation.ddl());
+        }
+        try {
+            IndexRecommendation afterCreate = indexAdvisor.recommend(10).get(0);
+            Assertions.assertFalse(afterCreate.isIndexRequired());
+            Assertions.assertNotNull(afterCreate.existingIndex());
+        } finally {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP INDEX " + recommendation.ddl().split(" ")[2]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldWarnAboutLikeConditions() {
+        userService.getAll(Filter.builder().like("firstName", "a").build(), new Sorting(), new Pagination());
+
+        IndexRecommendation recommendation = indexAdvisor.recommend(10).get(0);
+        Assertions.assertEquals(1, recommendation.warnings().size());
+        Assertions.assertTrue(recommendation.warnings().get(0).contains("LIKE"));
+        Assertions.assertEquals(List.of("deleted_at"),
+                recommendation.columns().stream().map(String::toLowerCase).toList());
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.repository.UserRepository;
+import io.github.egorkor.service.UserService;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.exception.QueryGuardViolationException;
+import io.github.egorkor.webutils.metrics.guard.QueryGuard;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardInterceptor;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardPolicy;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardReport;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardRequestInterceptor;
+import io.github.egorkor.webutils.metrics.guard.QueryGuardScope;
+import io.github.egorkor.webutils.postProcessor.QueryGuardBeanPostProcessor;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+
+@Import({UserServiceImpl.class, QueryGuardTests.QueryGuardConfiguration.class})
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "io.github.egorkor.webutils.metrics.guard.QueryGuardStatementInspector")
+public class QueryGuardTests {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private QueryGuard queryGuard;
+    @Autowired
+    private ObjectProvider<QueryGuard> queryGuardProvider;
+
+    @TestConfiguration
+    static class QueryGuardConfiguration {
+        @Bean
+        QueryGuard queryGuard(EntityManagerFactory entityManagerFactory) {
+            return new QueryGuard(entityManagerFactory, QueryGuardPolicy.builder()
+                    .maxStatements(1)
+                    .action(QueryGuardPolicy.Action.FAIL)
+                    .build());
+        }
+
+        @Bean
+        static QueryGuardBeanPostProcessor queryGuardBeanPostProcessor(ObjectProvider<QueryGuard> queryGuard) {
+            return new QueryGuardBeanPostProcessor(queryGuard);
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAllInBatch();
+        for (long id = 1; id <= 5; id++) {
+            User user = User.generateUser(id);
+            user.setRoles(List.of("USER", "ROLE_" + id));
+            userRepository.save(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void shouldDetectLazyLoadingPerRowAndSuggestFetchJoin() {
+        QueryGuard guard = new QueryGuard(entityManagerFactory, QueryGuardPolicy.builder().build());
+        QueryGuardReport report;
+        try (QueryGuardScope scope = guard.open("getAll", User.class)) {
+            userService.getAll(Filter.emptyFilter(), Sorting.unsorted(), Pagination.unpaged())
+                    .getData()
+                    .forEach(user -> user.getRoles().size());
+            report = scope.getReport();
+        }
+
+        Assertions.assertTrue(report.isViolated());
+        Assertions.assertFalse(report.statementLimitExceeded());
+        Assertions.assertEquals(1, report.repeatedStatements().size());
+        Assertions.assertEquals(5, report.repeatedStatements().get(0).count());
+        Assertions.assertTrue(report.statementCount() >= 6);
+        Assertions.assertEquals(List.of("roles"), report.suggestedFetchJoins());
+        Assertions.assertNull(QueryGuard.currentScope());
+    }
+
+    @Test
+    public void shouldFailWhenPolicyRequiresIt() {
+        QueryGuard guard = new QueryGuard(entityManagerFactory, QueryGuardPolicy.builder()
+                .maxStatements(0)
+                .repeatedStatementThreshold(3)
+                .action(QueryGuardPolicy.Action.FAIL)
+                .build());
+        QueryGuardViolationException exception = Assertions.assertThrows(QueryGuardViolationException.class, () -> {
+            try (QueryGuardScope ignored = guard.open("getAll", User.class)) {
+                userService.getAll(Filter.emptyFilter(), Sorting.unsorted(), Pagination.unpaged())
+                        .getData()
+                        .forEach(user -> user.getRoles().size());
+            }
+        });
+        Assertions.assertTrue(exception.getMessage().contains("withFetchJoin(\"roles\")"));
+        Assertions.assertNull(QueryGuard.currentScope());
+    }
+
+    @Test
+    public void shouldNotReportFetchJoinedQuery() {
+        QueryGuard guard = new QueryGuard(entityManagerFactory, QueryGuardPolicy.builder().build());
+        try (QueryGuardScope scope = guard.open("getAll", User.class)) {
+            userService.getAll(Filter.emptyFilter().withFetchJoin("roles"), Sorting.unsorted(), Pagination.unpaged())
+                    .getData()
+                    .forEach(user -> user.getRoles().size());
+            Assertions.assertFalse(scope.getReport().isViolated());
+        }
+    }
+
+    @Test
+    public void shouldGuardServiceCallsThroughProxy() {
+        QueryGuardViolationException exception = Assertions.assertThrows(QueryGuardViolationException.class,
+                () -> userService.getAll(Filter.emptyFilter(), Sorting.unsorted(), new Pagination(2, 0)));
+        Assertions.assertEquals("getAll", exception.getReport().operation());
+        Assertions.assertEquals("User", exception.getReport().entity());
+        Assertions.assertTrue(exception.getReport().statementLimitExceeded());
+    }
+
+    @Test
+    public void shouldKeepServiceExceptionWhenPolicyIsViolated() {
+        Supplier<List<User>> target = () -> {
+            userRepository.findAll();
+            userRepository.findAll();
+            throw new IllegalStateException("service failure");
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new QueryGuardInterceptor(queryGuardProvider));
+        @SuppressWarnings("unchecked")
+        Supplier<List<User>> proxy = (Supplier<List<User>>) proxyFactory.getProxy();
+
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, proxy::get);
+        Assertions.assertEquals("service failure", exception.getMessage());
+        Assertions.assertInstanceOf(QueryGuardViolationException.class, exception.getSuppressed()[0]);
+        Assertions.assertNull(QueryGuard.currentScope());
+    }
+
+    @Test
+    public void shouldCountLazyLoadingOutsideServiceInRequestScope() {
+        QueryGuardRequestInterceptor interceptor = new QueryGuardRequestInterceptor(queryGuard);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        userService.getAll(Filter.emptyFilter(), Sorting.unsorted(), Pagination.unpaged())
+                .getData()
+                .forEach(user -> user.getRoles().size());
+
+        QueryGuardViolationException exception = Assertions.assertThrows(QueryGuardViolationException.class,
+                () -> interceptor.afterCompletion(request, response, new Object(), null));
+        Assertions.assertEquals("GET /users", exception.getReport().operation());
+        Assertions.assertEquals(5, exception.getReport().repeatedStatements().get(0).count());
+        Assertions.assertNull(QueryGuard.currentScope());
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.service.UserService;
+import io.github.egorkor.service.impl.UserServiceImpl;
+import io.github.egorkor.webutils.metrics.QueryShapeSnapshot;
+import io.github.egorkor.webutils.metrics.QueryShapeStatistics;
+import io.github.egorkor.webutils.queryparam.Filter;
+import io.github.egorkor.webutils.queryparam.Pagination;
+import io.github.egorkor.webutils.queryparam.Sorting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+
+@Import(UserServiceImpl.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class QueryShapeStatisticsTests {
+    @Autowired
+    private UserService userService;
+    private QueryShapeStatistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = new QueryShapeStatistics(2, Duration.ofMinutes(1));
+        QueryShapeStatistics.install(statistics);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        QueryShapeStatistics.uninstall(statistics);
+    }
+
+    @Test
+    public void shouldGroupQueriesByShapeWithoutValues() {
+        for (String name : List.of("a", "b", "c")) {
+            userService.getAll(Filter.builder().like("firstName", name).greater("id", "0").build(),
+                    Sorting.builder().desc("id").build(),
+                    new Pagination(20, 0));
+        }
+        userService.getAll(Filter.builder().equals("id", "1").build(), new Sorting(), new Pagination());
+
+        List<QueryShapeSnapshot> ranking = statistics.getRanking(10);
+        Assertions.assertEquals(2, ranking.size());
+        QueryShapeSnapshot likeShape = ranking.stream()
+                .filter(s -> s.shape().equals("deletedAt:is,firstName:like,id:>"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals("User", likeShape.entity());
+        Assertions.assertEquals(3, likeShape.queryCount());
+        Assertions.assertEquals(3, Arrays.stream(likeShape.latencyHistogram()).sum());
+        Assertions.assertTrue(likeShape.predicateBuildCount() >= 3);
+        Assertions.assertEquals("id:desc", likeShape.lastSort());
+        Assertions.assertEquals(20, likeShape.lastPageSize());
+        Assertions.assertTrue(ranking.get(0).queryTotalNanos() >= ranking.get(1).queryTotalNanos());
+    }
+
+    @Test
+    public void shouldLimitTrackedShapes() {
+        userService.getAll(Filter.builder().equals("id", "1").build(), new Sorting(), new Pagination());
+        userService.getAll(Filter.builder().greater("id", "1").build(), new Sorting(), new Pagination());
+        userService.getAll(Filter.builder().less("id", "1").build(), new Sorting(), new Pagination());
+
+        Assertions.assertEquals(3, statistics.getTrackedShapes());
+        Assertions.assertTrue(statistics.getRanking(10).stream()
+                .anyMatch(s -> s.shape().equals(QueryShapeStatistics.OVERFLOW_SHAPE)));
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.egorkor.tests.jpaCrud;
+
+import io.github.egorkor.model.User;
+import io.github.egorkor.model.VersionedEntity;
+import io.github.egorkor.service.UserBatchService;
+import io.github.egorkor.service.impl.UserBatchServiceImpl;
+import io.github.egorkor.webutils.exception.EntityProcessingException;
+import io.github.egorkor.webutils.template.jpa.JpaBatchCrudService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+@Import({UserBatchServiceImpl.class, UserBatchServiceTests.VersionedEntityBatchService.class})
+@ActiveProfiles("test")
+@DataJpaTest
+public class UserBatchServiceTests {
+    @Autowired
+    private UserBatchService userBatchService;
+    @Autowired
+    private VersionedEntityBatchService versionedEntityBatchService;
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void setup() {
+        userBatchService.deleteAll();
+    }
+
+    @Test
+    public void shouldInsertAndUpdateByUpsert() {
+        userBatchService.batchUpsert(User.generateUsers(1, 5), 2);
+        em.clear();
+        Assertions.assertEquals(5, userBatchService.countAll());
+
+        List<User> users = new ArrayList<>(User.generateUsers(4, 5));
+        users.forEach(u -> u.setFirstName("upserted"));
+        userBatchService.batchUpsert(users, 2);
+        em.clear();
+
+        Assertions.assertEquals(8, userBatchService.countAll());
+        Assertions.assertEquals("upserted", userBatchService.getById(4L).getFirstName());
+        Assertions.assertNotEquals("upserted", userBatchService.getById(3L).getFirstName());
+    }
+
+    @Test
+    public void shouldRejectUpsertWithoutId() {
+        User user = User.generateUser(1);
+        user.setId(null);
+        List<User> users = List.of(User.generateUser(2), user);
+        Assertions.assertThrows(EntityProcessingException.class,
+                () -> userBatchService.batchUpsert(users, 2));
+        Assertions.assertEquals(0, userBatchService.countAll());
+    }
+
+    @Test
+    public void shouldRejectUpsertOfVersionedEntity() {
+        List<VersionedEntity> entities = List.of(new VersionedEntity(1L, "name", null));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> versionedEntityBatchService.batchUpsert(entities, 2));
+        Assertions.assertEquals(0, versionedEntityBatchService.countAll());
+    }
+
+    static class VersionedEntityBatchService extends JpaBatchCrudService<VersionedEntity, Long> {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        VersionedEntityBatchService(JpaRepository<VersionedEntity, Long> jpaRepository,
+                                    JpaSpecificationExecutor<VersionedEntity> jpaSpecificationExecutor,
+                                    ApplicationEventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate) {
+            super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate);
+        }
+
+        @Override
+        public EntityManager getPersistenceAnnotatedEntityManager() {
+            return entityManager;
+        }
+    }
+}
@@ -1,24 +1,37 @@
 package io.github.egorkor.tests.jpaCrud;
 
 import io.github.egorkor.model.User;
+import io.github.egorkor.repository.UserRepository;
 import io.github.egorkor.service.UserService;
 import io.github.egorkor.service.impl.UserServiceImpl;
 import io.github.egorkor.webutils.queryparam.Filter;
 import io.github.egorkor.webutils.queryparam.Pagination;
 import io.github.egorkor.webutils.queryparam.Sorting;
+import io.github.egorkor.webutils.template.jpa.JpaCrudService;
+import io.github.egorkor.webutils.template.jpa.SoftDeletePurgeOptions;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
 import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.transaction.BeforeTransaction;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
 
-@Import(UserServiceImpl.class)
+
+@Import({UserServiceImpl.class, UserServiceTests.EntityLoadingDeleteUserService.class})
 @ActiveProfiles("test")
 @DataJpaTest
 public class UserServiceTests {
@@ -26,6 +39,14 @@ public class UserServiceTests {
     private UserService userService;
     @Autowired
     private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserServiceImpl userServiceImpl;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityLoadingDeleteUserService entityLoadingDeleteUserService;
+    @Autowired
+    private EntityManager em;
     private Statistics stats;
 
     @BeforeTransaction
@@ -84,5 +105,139 @@ public class UserServiceTests {
 
     }
 
+    @Test
+    public void updateByFilter() {
+        stats.setStatisticsEnabled(true);
+        int updated = userService.updateByFilter(Filter.builder()
+                        .greater("id", "40")
+                        .build(),
+                Map.of("firstName", "bulk"));
+        stats.setStatisticsEnabled(false);
+        Assertions.assertEquals(10, updated);
+        Assertions.assertEquals(1, stats.getPrepareStatementCount());
+        Assertions.assertEquals(10, userService.countByFilter(Filter.builder()
+                .equals("firstName", "bulk")
+                .build()));
+    }
+
+    @Test
+    public void deleteByFilterInChunks() {
+        long deleted = userService.deleteByFilter(Filter.builder()
+                .greater("id", "20")
+                .build(), 7);
+        Assertions.assertEquals(30, deleted);
+        Assertions.assertEquals(20, userService.countAll());
+    }
+
+    @Test
+    public void deleteByFilterInChunksWithEntityLoading() {
+        userService.softDeleteByFilter(Filter.builder()
+                .greater("id", "45")
+                .build());
+        stats.setStatisticsEnabled(true);
+        long deleted = entityLoadingDeleteUserService.deleteByFilter(Filter.builder()
+                .greater("id", "20")
+                .build(), 7);
+        stats.setStatisticsEnabled(false);
+        Assertions.assertEquals(30, deleted);
+        Assertions.assertEquals(30, stats.getEntityDeleteCount());
+        Assertions.assertEquals(20, userRepository.count());
+    }
+
+    @Test
+    public void purgeSoftDeleted() {
+        userService.updateByFilter(Filter.builder()
+                        .lessOrEquals("id", "10")
+                        .build(),
+                Map.of("deletedAt", LocalDateTime.now().minusDays(40)));
+        userService.softDeleteByFilter(Filter.builder()
+                .greater("id", "45")
+                .build());
+        long chunksBefore = userServiceImpl.getSoftDeletePurgeProgress().getTotalChunks();
+        long purged = userServiceImpl.purgeSoftDeleted(SoftDeletePurgeOptions.builder()
+                .olderThan(Duration.ofDays(30))
+                .chunkSize(3)
+                .pauseBetweenChunks(Duration.ZERO)
+                .build());
+        Assertions.assertEquals(10, purged);
+        Assertions.assertEquals(40, userRepository.count());
+        Assertions.assertEquals(4, userServiceImpl.getSoftDeletePurgeProgress().getTotalChunks() - chunksBefore);
+        Assertions.assertEquals(10, userServiceImpl.getSoftDeletePurgeProgress().getLastRunPurgedRows());
+        Assertions.assertFalse(userServiceImpl.getSoftDeletePurgeProgress().isRunning());
+    }
+
+    @Test
+    public void purgeSoftDeletedRejectsInvalidOptions() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userServiceImpl.purgeSoftDeleted(
+                SoftDeletePurgeOptions.builder().chunkSize(0).build()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> userServiceImpl.purgeSoftDeleted(
+                SoftDeletePurgeOptions.builder().olderThan(Duration.ofDays(-1)).build()));
+        Assertions.assertFalse(userServiceImpl.getSoftDeletePurgeProgress().isRunning());
+    }
+
+    @Test
+    public void purgeSoftDeletedToArchive() {
+        em.createNativeQuery("CREATE TABLE IF NOT EXISTS users_archive AS SELECT deleted_at, updated_at, created_at, "
+                        + "address, phone, email, password, first_name, id FROM users WHERE 1 = 0")
+                .executeUpdate();
+        String firstName = userRepository.findById(1L).orElseThrow().getFirstName();
+        userService.updateByFilter(Filter.builder()
+                        .lessOrEquals("id", "5")
+                        .build(),
+                Map.of("deletedAt", LocalDateTime.now().minusDays(40)));
+        long purged = userServiceImpl.purgeSoftDeleted(SoftDeletePurgeOptions.builder()
+                .olderThan(Duration.ofDays(30))
+                .chunkSize(2)
+                .pauseBetweenChunks(Duration.ZERO)
+                .archiveTable("users_archive")
+                .build());
+        Assertions.assertEquals(5, purged);
+        Assertions.assertEquals(5L, ((Number) em.createNativeQuery("SELECT COUNT(*) FROM users_archive WHERE id <= 5")
+                .getSingleResult()).longValue());
+
+        Assertions.assertEquals(firstName, em.createNativeQuery("SELECT first_name FROM users_archive WHERE id = 1")
+                .getSingleResult());
+    }
 
+    @Test
+    public void purgeSoftDeletedWithEntityLoading() {
+        userService.updateByFilter(Filter.builder()
+                        .lessOrEquals("id", "10")
+                        .build(),
+                Map.of("deletedAt", LocalDateTime.now().minusDays(40)));
+        stats.setStatisticsEnabled(true);
+        long purged = entityLoadingDeleteUserService.purgeSoftDeleted(SoftDeletePurgeOptions.builder()
+                .olderThan(Duration.ofDays(30))
+                .chunkSize(3)
+                .pauseBetweenChunks(Duration.ZERO)
+                .build());
+        stats.setStatisticsEnabled(false);
+        Assertions.assertEquals(10, purged);
+        Assertions.assertEquals(10, stats.getEntityDeleteCount());
+        Assertions.assertEquals(40, userRepository.count());
+    }
+
+
+
+    static class EntityLoadingDeleteUserService extends JpaCrudService<User, Long> {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        EntityLoadingDeleteUserService(JpaRepository<User, Long> jpaRepository,
+                                       JpaSpecificationExecutor<User> jpaSpecificationExecutor,
+                                       ApplicationEventPublisher eventPublisher,
+                                       TransactionTemplate transactionTemplate) {
+            super(jpaRepository, jpaSpecificationExecutor, eventPublisher, transactionTemplate);
+        }
+
+        @Override
+        public EntityManager getPersistenceAnnotatedEntityManager() {
+            return entityManager;
+        }
+
+        @Override
+        protected boolean isEntityLoadingDeleteRequired() {
+            return true;
+        }
+    }
 }